@@ -0,0 +1,187 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import com.github.jikoo.enchantableblocks.block.EnchantableBlock;
+import com.github.jikoo.enchantableblocks.config.EnchantableBlockConfig;
+import com.github.jikoo.enchantableblocks.mock.inventory.ItemFactoryMocks;
+import com.github.jikoo.enchantableblocks.mock.world.WorldMocks;
+import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager.RegionStorageData;
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
+import com.github.jikoo.enchantableblocks.util.Cache;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.Registry;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for loading a chunk's {@link EnchantableBlock EnchantableBlocks} and looking up
+ * loaded blocks.
+ *
+ * <p>The world, blocks, and items are the mocks used by unit tests. Mocks record their
+ * invocations, so blocks are recreated and recordings are cleared between iterations to keep
+ * memory use bounded. Absolute times include mock overhead and are only comparable between runs
+ * of this benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EnchantableBlockManagerBenchmark {
+
+  @Param({"10", "256", "1000"})
+  public int blocks;
+
+  private ItemFactory itemFactory;
+  private Material material;
+  private Enchantment enchantment;
+  private EnchantableBlockRegistry registry;
+  private EnchantableRegistration registration;
+  private World world;
+  private Chunk chunk;
+  private Block[] chunkBlocks;
+  private Path dataDir;
+  private EnchantableBlockManager manager;
+  private int lookup;
+
+  @Setup
+  public void setUp() throws IOException {
+    installServer();
+
+    material = mock();
+    doReturn(true).when(material).isBlock();
+    doReturn("FURNACE").when(material).name();
+    enchantment = mock();
+
+    registry = mock();
+    registration = mock();
+    doAnswer(invocation -> new EnchantableBlock(
+        registration,
+        invocation.getArgument(0),
+        invocation.getArgument(1),
+        invocation.getArgument(2)) {})
+        .when(registration).newBlock(any(), any(), any());
+    doReturn(registration).when(registry).get(material);
+    doReturn(List.of(registration)).when(registry).getRegistrations();
+    doReturn(Set.of(material)).when(registration).getMaterials();
+    var config = new EnchantableBlockConfig(new YamlConfiguration()) {};
+    doReturn(config).when(registration).getConfig();
+
+    Logger logger = Logger.getLogger(getClass().getName());
+    logger.setLevel(java.util.logging.Level.SEVERE);
+    dataDir = Files.createTempDirectory(getClass().getSimpleName());
+    manager = new EnchantableBlockManager(
+        registry,
+        new Cache.CacheBuilder<Region, RegionStorageData>(),
+        5,
+        new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML),
+        logger);
+
+    world = WorldMocks.newWorld("world");
+    manager.loadWorld(world);
+    chunk = world.getChunkAt(0, 0);
+    chunkBlocks = new Block[blocks];
+    for (int i = 0; i < blocks; ++i) {
+      Block block = world.getBlockAt(i & 0xF, i >> 8, (i >> 4) & 0xF);
+      block.setType(material);
+      chunkBlocks[i] = block;
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpIteration() {
+    // Fresh items start without recorded invocations.
+    for (Block block : chunkBlocks) {
+      ItemStack itemStack = new ItemStack(material);
+      itemStack.addUnsafeEnchantment(enchantment, 1);
+      manager.createBlock(block, itemStack);
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDownIteration() {
+    clearInvocations(itemFactory, material, enchantment, registry, registration, world, chunk);
+    clearInvocations((Object[]) chunkBlocks);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    manager.shutdown();
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Benchmark
+  public void loadChunkBlocks() {
+    manager.loadChunkBlocks(chunk);
+  }
+
+  @Benchmark
+  public EnchantableBlock getBlock() {
+    lookup = (lookup + 1) % blocks;
+    return manager.getBlock(chunkBlocks[lookup]);
+  }
+
+  private void installServer() {
+    Server server = Bukkit.getServer();
+    if (server != null) {
+      itemFactory = server.getItemFactory();
+      return;
+    }
+
+    // Unlike static mocks, the server is visible to all benchmark threads.
+    server = mock();
+    doReturn(Logger.getLogger(Server.class.getName())).when(server).getLogger();
+    itemFactory = ItemFactoryMocks.mockFactory();
+    doReturn(itemFactory).when(server).getItemFactory();
+    doAnswer(invocation -> {
+      Registry<?> bukkitRegistry = mock();
+      if (Enchantment.class.isAssignableFrom(invocation.getArgument(0))) {
+        doAnswer(ignored -> mock(Enchantment.class)).when(bukkitRegistry).getOrThrow(any());
+      }
+      return bukkitRegistry;
+    }).when(server).getRegistry(any());
+    Bukkit.setServer(server);
+  }
+
+}
@@ -0,0 +1,82 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import com.github.jikoo.planarwrappers.collections.BlockMap;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks comparing block lookups in a {@link BlockIndex} against a {@link BlockMap}.
+ *
+ * <p>Blocks are stub-only mocks, so the cost of reading coordinates is the same for both and
+ * invocations are not recorded. Run with {@code -prof gc} to compare allocation per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockIndexBenchmark {
+
+  @Param({"100", "10000"})
+  public int blocks;
+
+  private final BlockIndex<Object> index = new BlockIndex<>();
+  private final BlockMap<Object> map = new BlockMap<>();
+  private Block[] present;
+  private int lookup;
+
+  @Setup
+  public void setUp() {
+    World world = mock(World.class, withSettings().stubOnly());
+    doReturn("world").when(world).getName();
+
+    present = new Block[blocks];
+    for (int i = 0; i < blocks; ++i) {
+      // Spread blocks over chunks, a few per chunk.
+      Block block = newBlock(world, (i % 64) * 8, i / 4096 - 64, (i / 64 % 64) * 8);
+      present[i] = block;
+      Object value = new Object();
+      index.put(block, value);
+      map.put(block, value);
+    }
+  }
+
+  @Benchmark
+  public Object blockIndex() {
+    lookup = (lookup + 1) % blocks;
+    return index.get(present[lookup]);
+  }
+
+  @Benchmark
+  public Object blockMap() {
+    lookup = (lookup + 1) % blocks;
+    return map.get(present[lookup]);
+  }
+
+  private static Block newBlock(World world, int x, int y, int z) {
+    Block block = mock(Block.class, withSettings().stubOnly());
+    doReturn(world).when(block).getWorld();
+    doReturn(x).when(block).getX();
+    doReturn(y).when(block).getY();
+    doReturn(z).when(block).getZ();
+    return block;
+  }
+
+}
@@ -0,0 +1,92 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link Cache#get(Object)} with present and missing keys, alone and with several
+ * threads requesting keys concurrently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+  private static final int KEY_COUNT = 1_024;
+  private static final Integer[] KEYS = new Integer[KEY_COUNT];
+
+  static {
+    for (int i = 0; i < KEY_COUNT; ++i) {
+      KEYS[i] = i;
+    }
+  }
+
+  private Cache<Integer, Integer> present;
+  private Cache<Integer, Integer> missing;
+
+  @Setup
+  public void setUp() {
+    present = new Cache.CacheBuilder<Integer, Integer>()
+        .withLoadFunction((key, create) -> key)
+        .build();
+    for (Integer key : KEYS) {
+      present.put(key, key);
+    }
+
+    // Without absent retention, every request for a key with no value runs the load function.
+    missing = new Cache.CacheBuilder<Integer, Integer>()
+        .withLoadFunction((key, create) -> null)
+        .build();
+  }
+
+  @Benchmark
+  public Integer getHit(Cursor cursor) {
+    return present.get(cursor.next());
+  }
+
+  @Benchmark
+  public Integer getMiss(Cursor cursor) {
+    return missing.get(cursor.next());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Integer getHitContended(Cursor cursor) {
+    return present.get(cursor.next());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Integer getMissContended(Cursor cursor) {
+    return missing.get(cursor.next());
+  }
+
+  /**
+   * Per-thread position in the key sequence.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    private int index;
+
+    Integer next() {
+      index = (index + 1) & (KEY_COUNT - 1);
+      return KEYS[index];
+    }
+
+  }
+
+}
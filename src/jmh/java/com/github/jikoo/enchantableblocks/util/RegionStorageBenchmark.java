@@ -0,0 +1,170 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.configuration.serialization.SerializableAs;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for loading and saving a {@link RegionStorage} in each {@link RegionStorage.Format}.
+ *
+ * <p>Each block stores an enchanted item alongside its state. Real items can only be serialized by
+ * a running server, so items are stand-ins that serialize to the same shape as an enchanted
+ * furnace's item. As in a real world, blocks share a handful of distinct items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionStorageBenchmark {
+
+  private static final Region REGION = new Region("world", 0, 0);
+  private static final int DISTINCT_ITEMS = 8;
+
+  @Param({"10", "1000", "10000"})
+  public int blocks;
+
+  @Param({"YAML", "BINARY"})
+  public RegionStorage.Format format;
+
+  private Path dataDir;
+  private RegionStorage storage;
+
+  @Setup
+  public void setUp() throws IOException {
+    ConfigurationSerialization.registerClass(BenchmarkItem.class);
+    BenchmarkItem[] items = new BenchmarkItem[DISTINCT_ITEMS];
+    for (int i = 0; i < items.length; ++i) {
+      items[i] = new BenchmarkItem(1 + i % 5, 1 + i % 3, i % 4);
+    }
+
+    dataDir = Files.createTempDirectory(getClass().getSimpleName());
+    storage = new RegionStorage(dataDir, REGION, format);
+    for (int i = 0; i < blocks; ++i) {
+      // Spread blocks over the region's chunks like a real world would.
+      int x = i % 512;
+      int z = (i / 512) % 512;
+      int y = i / (512 * 512) - 64;
+      String path = (x >> 4) + "_" + (z >> 4) + "." + x + "_" + y + "_" + z;
+      storage.set(path + ".itemstack", items[i % items.length]);
+      storage.set(path + ".silk.enabled", i % 2 == 0);
+      storage.set(path + ".silk.ticks", i % 200);
+      storage.set(path + ".owner", "player" + (i % 16));
+    }
+    storage.save();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  @Benchmark
+  public RegionStorage load() throws IOException, InvalidConfigurationException {
+    RegionStorage loaded = new RegionStorage(dataDir, REGION, format);
+    loaded.load();
+    return loaded;
+  }
+
+  @Benchmark
+  public void save() throws IOException {
+    storage.save();
+  }
+
+  /**
+   * A stand-in for an enchanted furnace item that serializes without a server.
+   */
+  @SerializableAs("EnchantableBlocksBenchmarkItem")
+  public static final class BenchmarkItem extends ItemStack {
+
+    private final @NotNull Map<String, Object> meta;
+
+    private BenchmarkItem(int efficiency, int unbreaking, int fortune) {
+      this(enchantedMeta(efficiency, unbreaking, fortune));
+    }
+
+    private BenchmarkItem(@NotNull Map<String, Object> meta) {
+      super(Material.FURNACE);
+      this.meta = meta;
+    }
+
+    private static @NotNull Map<String, Object> enchantedMeta(
+        int efficiency,
+        int unbreaking,
+        int fortune) {
+      Map<String, Object> enchants = new LinkedHashMap<>();
+      enchants.put("minecraft:efficiency", efficiency);
+      enchants.put("minecraft:unbreaking", unbreaking);
+      if (fortune > 0) {
+        enchants.put("minecraft:fortune", fortune);
+      }
+      Map<String, Object> meta = new LinkedHashMap<>();
+      meta.put("meta-type", "TILE_ENTITY");
+      meta.put("display-name", "{\"text\":\"Enchanted Furnace\",\"italic\":false}");
+      meta.put("enchants", enchants);
+      meta.put("repair-cost", 3);
+      return meta;
+    }
+
+    @Override
+    public @NotNull Map<String, Object> serialize() {
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("DataVersion", 4440);
+      result.put("type", getType().name());
+      result.put("meta", meta);
+      return result;
+    }
+
+    /**
+     * Deserialize a {@code BenchmarkItem}.
+     *
+     * @param args the serialized item
+     * @return the item
+     */
+    @SuppressWarnings("unchecked")
+    public static @NotNull BenchmarkItem deserialize(@NotNull Map<String, Object> args) {
+      return new BenchmarkItem((Map<String, Object>) args.get("meta"));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return this == other || other instanceof BenchmarkItem item && meta.equals(item.meta);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(getType(), meta);
+    }
+
+  }
+
+}
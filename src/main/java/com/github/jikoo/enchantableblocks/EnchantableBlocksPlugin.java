@@ -5,6 +5,11 @@ import com.github.jikoo.enchantableblocks.listener.AnvilEnchanter;
 import com.github.jikoo.enchantableblocks.listener.TableEnchanter;
 import com.github.jikoo.enchantableblocks.listener.WorldListener;
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager;
+import com.github.jikoo.enchantableblocks.util.CacheStats;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import org.bukkit.Chunk;
 import org.bukkit.World;
 import org.bukkit.command.Command;
@@ -25,6 +30,11 @@ public class EnchantableBlocksPlugin extends JavaPlugin {
 
     this.blockManager = new EnchantableBlockManager(this);
 
+    // Prepare settings for worlds that are already loaded so that blocks can be used immediately.
+    for (World world : this.getServer().getWorlds()) {
+      this.blockManager.loadWorld(world);
+    }
+
     // Register generic listeners for block management.
     this.getServer().getPluginManager().registerEvents(
         new WorldListener(this, getBlockManager()), this);
@@ -40,16 +50,22 @@ public class EnchantableBlocksPlugin extends JavaPlugin {
     // Only load blocks when server startup is complete to allow other providers time to enable.
     getServer().getScheduler().runTask(this, this::loadEnchantableBlocks);
 
+    // Load blocks for newly loaded chunks once their data has been read.
+    getServer().getScheduler().runTaskTimer(this, blockManager::loadPrefetchedChunks, 1L, 1L);
+
+    // Expire unused data in small steps rather than during block access.
+    getServer().getScheduler().runTaskTimer(this, blockManager::sweepCache, 1L, 1L);
+
   }
 
   private void loadEnchantableBlocks() {
     long startTime = System.nanoTime();
     // Load all EnchantableBlocks for loaded chunks.
+    List<Chunk> chunks = new ArrayList<>();
     for (World world : this.getServer().getWorlds()) {
-      for (Chunk chunk : world.getLoadedChunks()) {
-        this.blockManager.loadChunkBlocks(chunk);
-      }
+      chunks.addAll(Arrays.asList(world.getLoadedChunks()));
     }
+    this.blockManager.loadAllChunkBlocks(chunks);
     double elapsed = (System.nanoTime() - startTime) / 1_000_000_000D;
     getLogger().info(() -> "Loaded all active blocks in " + elapsed + " seconds");
   }
@@ -57,7 +73,7 @@ public class EnchantableBlocksPlugin extends JavaPlugin {
   @Override
   public void onDisable() {
     this.getServer().getScheduler().cancelTasks(this);
-    this.blockManager.expireCache();
+    this.blockManager.shutdown();
   }
 
   @Override
@@ -66,13 +82,18 @@ public class EnchantableBlocksPlugin extends JavaPlugin {
       @NotNull Command command,
       @NotNull String label,
       @NotNull String @NotNull [] args) {
+    if (args.length > 0 && args[0].equalsIgnoreCase("stats")) {
+      sendStats(sender);
+      return true;
+    }
+
     if (args.length < 1 || !args[0].equalsIgnoreCase("reload")) {
       sender.sendMessage("EnchantableBlocks v" + getDescription().getVersion());
       return false;
     }
 
     this.reloadConfig();
-    this.blockManager.getRegistry().reload();
+    this.blockManager.reload();
     sender.sendMessage(
         "[EnchantableBlocks v"
             + getDescription().getVersion()
@@ -80,6 +101,50 @@ public class EnchantableBlocksPlugin extends JavaPlugin {
     return true;
   }
 
+  private void sendStats(@NotNull CommandSender sender) {
+    CacheStats stats = this.blockManager.getCacheStats();
+    int regions = this.blockManager.getStoredRegionCount();
+    long[] histogram = stats.loadTimeHistogram();
+    StringBuilder loadTimes = new StringBuilder();
+    for (int i = 0; i < histogram.length; ++i) {
+      if (histogram[i] == 0) {
+        continue;
+      }
+      if (!loadTimes.isEmpty()) {
+        loadTimes.append(", ");
+      }
+      loadTimes.append(i == histogram.length - 1 ? ">=" : "<")
+          .append(i == histogram.length - 1 ? 1L << (i - 1) : 1L << i)
+          .append("ms: ")
+          .append(histogram[i]);
+    }
+
+    sender.sendMessage(
+        "[EnchantableBlocks v" + getDescription().getVersion() + "] Region cache statistics:",
+        String.format(
+            Locale.ROOT,
+            "Requests: %d hits, %d misses (%.1f%% hit rate)",
+            stats.hitCount(),
+            stats.missCount(),
+            stats.hitRate() * 100),
+        String.format(
+            Locale.ROOT,
+            "Loads: %d (%.2fms average) %s",
+            stats.loadCount(),
+            stats.averageLoadMillis(),
+            loadTimes.isEmpty() ? "" : "[" + loadTimes + "]"),
+        String.format(
+            Locale.ROOT,
+            "Removals: %d expired, %d evicted, %d retained in use",
+            stats.expirationCount(),
+            stats.evictionCount(),
+            stats.inUseRetentionCount()),
+        String.format(
+            Locale.ROOT,
+            "Index: %s regions with stored data",
+            regions < 0 ? "unknown" : regions));
+  }
+
   public EnchantableBlockManager getBlockManager() {
     return this.blockManager;
   }
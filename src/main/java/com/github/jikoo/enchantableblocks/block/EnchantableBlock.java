@@ -2,36 +2,58 @@ package com.github.jikoo.enchantableblocks.block;
 
 import com.github.jikoo.enchantableblocks.config.EnchantableBlockConfig;
 import com.github.jikoo.enchantableblocks.registry.EnchantableRegistration;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.function.Consumer;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Base for an enchantable block.
  */
 public abstract class EnchantableBlock {
 
+  /** Blocks are mostly created from a few identical items. Share one immutable copy of each. */
+  private static final Interner<ItemStack> ITEM_TEMPLATES = Interners.newWeakInterner();
+
   private final @NotNull EnchantableRegistration registration;
   private final @NotNull Block block;
-  private final @NotNull ItemStack itemStack;
-  private final @NotNull ConfigurationSection storage;
-  private boolean dirty = false;
+  private @NotNull ItemStack itemStack;
+  private int version = 0;
+  private int savedVersion = 0;
+  private @Nullable Consumer<@NotNull EnchantableBlock> changeListener;
 
   protected EnchantableBlock(
       final @NotNull EnchantableRegistration registration,
       final @NotNull Block block,
       final @NotNull ItemStack itemStack,
-      final @NotNull ConfigurationSection storage) {
+      final @Nullable ConfigurationSection savedState) {
     this.registration = registration;
     this.block = block;
-    this.itemStack = itemStack.clone();
-    if (this.itemStack.getAmount() > 1) {
-      this.itemStack.setAmount(1);
+    this.itemStack = intern(itemStack);
+    // Saved state is only read on creation. Afterwards, state is held in fields until saved.
+    ItemStack stored = savedState == null ? null : savedState.getItemStack("itemstack");
+    if (!this.itemStack.equals(stored)) {
+      this.setDirty(true);
+    }
+  }
+
+  /**
+   * Get the shared template for an {@link ItemStack}.
+   *
+   * @param itemStack the {@code ItemStack}
+   * @return the shared single-item copy
+   */
+  private static @NotNull ItemStack intern(@NotNull ItemStack itemStack) {
+    ItemStack template = itemStack.clone();
+    if (template.getAmount() > 1) {
+      template.setAmount(1);
     }
-    this.storage = storage;
-    this.updateStorage();
+    return ITEM_TEMPLATES.intern(template);
   }
 
   /**
@@ -44,14 +66,40 @@ public abstract class EnchantableBlock {
   }
 
   /**
-   * Get the {@link ItemStack} that created this block.
+   * Get a copy of the {@link ItemStack} that created this block.
+   *
+   * <p>The block's own {@code ItemStack} is shared with other blocks created from identical items,
+   * so changes to the copy do not affect the block. Use {@link #setItemStack(ItemStack)} to change
+   * it.
    *
-   * @return the {@code ItemStack}
+   * @return a copy of the {@code ItemStack}
    */
   public @NotNull ItemStack getItemStack() {
+    return this.itemStack.clone();
+  }
+
+  /**
+   * Get the {@link ItemStack} that created this block without copying it.
+   *
+   * <p>The {@code ItemStack} is shared with other blocks created from identical items and must
+   * not be modified.
+   *
+   * @return the shared {@code ItemStack}
+   */
+  protected @NotNull ItemStack getItemTemplate() {
     return this.itemStack;
   }
 
+  /**
+   * Replace the {@link ItemStack} that created this block.
+   *
+   * @param itemStack the new {@code ItemStack}
+   */
+  protected void setItemStack(@NotNull ItemStack itemStack) {
+    this.itemStack = intern(itemStack);
+    this.setDirty(true);
+  }
+
   /**
    * Check if the block's in-world location is a {@link Block} of a correct {@link Material}.
    *
@@ -79,41 +127,65 @@ public abstract class EnchantableBlock {
   /**
    * Check if the block has unsaved changes pending.
    *
+   * <p>Each modification increments the block's version, so this only compares the current version
+   * against the version last saved.
+   *
    * @return true if the block needs to be saved
    */
   public boolean isDirty() {
-    this.updateStorage();
-    return this.dirty;
+    return this.version != this.savedVersion;
   }
 
   /**
-   * Set whether the block needs to be saved.
+   * Set whether the block needs to be saved. Marking the block dirty records a modification, and
+   * marking it clean records the current version as saved.
    *
    * @param dirty true if the block needs to be saved
    */
   public void setDirty(boolean dirty) {
-    this.dirty = dirty;
+    if (!dirty) {
+      this.savedVersion = this.version;
+      return;
+    }
+
+    ++this.version;
+    if (this.changeListener != null) {
+      this.changeListener.accept(this);
+    }
   }
 
   /**
-   * Update the {@link ConfigurationSection} containing the block's save data.
+   * Set a listener to be notified when the block is modified.
+   *
+   * @param changeListener the listener or {@code null} to remove the current listener
    */
-  public void updateStorage() {
-    if (!this.itemStack.equals(getStorage().getItemStack("itemstack"))) {
-      getStorage().set("itemstack", this.itemStack);
-      this.dirty = true;
-    }
+  public void setChangeListener(@Nullable Consumer<@NotNull EnchantableBlock> changeListener) {
+    this.changeListener = changeListener;
   }
 
   /**
-   * Get the {@link ConfigurationSection} containing the block's save data.
+   * Write the block's full state, including its item, to a {@link ConfigurationSection}.
+   *
+   * <p>State is held in fields while the block is loaded and is only written when the block is
+   * saved.
    *
-   * @return the save data
+   * @param storage the {@code ConfigurationSection} to write to
    */
-  protected @NotNull ConfigurationSection getStorage() {
-    return storage;
+  public void updateStorage(@NotNull ConfigurationSection storage) {
+    storage.set("itemstack", this.itemStack);
+    writeState(storage);
   }
 
+  /**
+   * Write the block's state other than its item to a {@link ConfigurationSection}.
+   *
+   * <p>Implementations with additional state should override this to write it. The state written
+   * should be small, as it may be recorded each time the block changes.
+   *
+   * @param section the {@code ConfigurationSection} to write to
+   */
+  public void writeState(@NotNull ConfigurationSection section) {}
+
   /**
    * Get the {@link EnchantableBlockConfig} for this block.
    *
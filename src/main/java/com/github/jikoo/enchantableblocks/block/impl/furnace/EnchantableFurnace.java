@@ -3,6 +3,7 @@ package com.github.jikoo.enchantableblocks.block.impl.furnace;
 import com.github.jikoo.enchantableblocks.block.EnchantableBlock;
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager;
 import com.github.jikoo.enchantableblocks.util.MathHelper;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
@@ -30,6 +31,7 @@ public class EnchantableFurnace extends EnchantableBlock {
   private static final String PATH_FROZEN_TICKS = "silk.ticks";
 
   private final boolean canPause;
+  private @NotNull FurnaceEffects effects;
   private short frozenTicks;
   private boolean updating = false;
 
@@ -39,33 +41,48 @@ public class EnchantableFurnace extends EnchantableBlock {
    * @param registration the {@link EnchantableFurnaceRegistration} creating the instance
    * @param block the in-world {@link Block}
    * @param itemStack the {@link ItemStack} used in creation
-   * @param storage the {@link ConfigurationSection} containing save data
+   * @param savedState the {@link ConfigurationSection} containing saved state or {@code null} if
+   *     the furnace is new
    */
   EnchantableFurnace(
       final @NotNull EnchantableFurnaceRegistration registration,
       final @NotNull Block block,
       @NotNull ItemStack itemStack,
-      final @NotNull ConfigurationSection storage) {
-    super(registration, block, itemStack, storage);
-    if (storage.isBoolean(PATH_CAN_PAUSE)) {
+      final @Nullable ConfigurationSection savedState) {
+    super(registration, block, itemStack, savedState);
+    if (savedState != null && savedState.isBoolean(PATH_CAN_PAUSE)) {
       // Existing furnace, use stored data.
-      this.canPause = storage.getBoolean(PATH_CAN_PAUSE, false);
-      this.frozenTicks = MathHelper.clampPositiveShort(storage.getInt(PATH_FROZEN_TICKS, 0));
+      this.canPause = savedState.getBoolean(PATH_CAN_PAUSE, false);
+      this.frozenTicks = MathHelper.clampPositiveShort(savedState.getInt(PATH_FROZEN_TICKS, 0));
     } else {
       // New or legacy furnace.
-      itemStack = this.getItemStack();
+      itemStack = this.getItemTemplate();
       this.canPause = itemStack.getEnchantments().containsKey(Enchantment.SILK_TOUCH);
       this.frozenTicks = 0;
       // Convert legacy furnaces - silk enchant level used for frozen ticks.
       if (this.canPause && itemStack.getEnchantmentLevel(Enchantment.SILK_TOUCH) != 1) {
         this.frozenTicks = MathHelper.clampPositiveShort(
             itemStack.getEnchantmentLevel(Enchantment.SILK_TOUCH));
+        // The template is shared, so convert a copy.
+        itemStack = itemStack.clone();
         itemStack.addUnsafeEnchantment(Enchantment.SILK_TOUCH, 1);
+        this.setItemStack(itemStack);
       }
-      storage.set(PATH_CAN_PAUSE, canPause);
-      storage.set(PATH_FROZEN_TICKS, frozenTicks);
       this.setDirty(true);
     }
+    this.effects = FurnaceEffects.of(this.getItemTemplate());
+  }
+
+  @Override
+  protected void setItemStack(@NotNull ItemStack itemStack) {
+    super.setItemStack(itemStack);
+    this.effects = FurnaceEffects.of(this.getItemTemplate());
+  }
+
+  @Override
+  public void writeState(@NotNull ConfigurationSection section) {
+    section.set(PATH_CAN_PAUSE, this.canPause);
+    section.set(PATH_FROZEN_TICKS, this.frozenTicks);
   }
 
   @Override
@@ -94,7 +111,7 @@ public class EnchantableFurnace extends EnchantableBlock {
    * @return the cooking speed modifier
    */
   public int getCookModifier() {
-    return this.getItemStack().getEnchantmentLevel(Enchantment.EFFICIENCY);
+    return this.effects.cookModifier();
   }
 
   /**
@@ -103,7 +120,7 @@ public class EnchantableFurnace extends EnchantableBlock {
    * @return the fuel burn rate modifier
    */
   public int getBurnModifier() {
-    return this.getItemStack().getEnchantmentLevel(Enchantment.UNBREAKING);
+    return this.effects.burnModifier();
   }
 
   /**
@@ -112,7 +129,7 @@ public class EnchantableFurnace extends EnchantableBlock {
    * @return the fortune level
    */
   public int getFortune() {
-    return this.getItemStack().getEnchantmentLevel(Enchantment.FORTUNE);
+    return this.effects.fortune();
   }
 
   /**
@@ -259,7 +276,6 @@ public class EnchantableFurnace extends EnchantableBlock {
     }
 
     this.setFrozenTicks(furnace.getBurnTime());
-    this.updateStorage();
     furnace.setBurnTime((short) 0);
     furnace.update(true);
   }
@@ -322,7 +338,6 @@ public class EnchantableFurnace extends EnchantableBlock {
   @VisibleForTesting
   void setFrozenTicks(short frozenTicks) {
     this.frozenTicks = frozenTicks;
-    this.getStorage().set(PATH_FROZEN_TICKS, this.frozenTicks);
     this.setDirty(true);
   }
 
@@ -346,9 +361,7 @@ public class EnchantableFurnace extends EnchantableBlock {
    * @return the modified cook time
    */
   short applyCookTimeModifiers(double totalCookTime) {
-    // Invert sign of cook modifier to invert sigmoid.
-    return MathHelper.clampPositiveShort(
-        MathHelper.sigmoid(totalCookTime, -getCookModifier(), 2.0));
+    return MathHelper.clampPositiveShort(totalCookTime * this.effects.cookMultiplier());
   }
 
   /**
@@ -363,7 +376,7 @@ public class EnchantableFurnace extends EnchantableBlock {
    */
   short applyBurnTimeModifiers(int burnTime) {
     // Apply burn time modifiers.
-    double baseTicks = MathHelper.sigmoid(burnTime, getBurnModifier(), 3.0);
+    double baseTicks = burnTime * this.effects.burnMultiplier();
     // Apply cook speed reduction.
     return applyCookTimeModifiers(baseTicks);
   }
@@ -372,7 +385,7 @@ public class EnchantableFurnace extends EnchantableBlock {
   public String toString() {
     return "EnchantableFurnace{"
         + "block=" + getBlock()
-        + "itemStack=" + getItemStack()
+        + "itemStack=" + getItemTemplate()
         + "canPause=" + canPause
         + "frozenTicks=" + frozenTicks
         + '}';
@@ -389,6 +402,12 @@ public class EnchantableFurnace extends EnchantableBlock {
       @NotNull EnchantableBlockManager manager,
       @NotNull FurnaceInventory inventory) {
 
+    // Getting the holder creates a block state snapshot. Skip it for chunks with no blocks.
+    Location location = inventory.getLocation();
+    if (location == null || !manager.hasChunkBlocks(location)) {
+      return;
+    }
+
     Furnace furnace = inventory.getHolder();
     if (furnace == null) {
       return;
@@ -72,8 +72,8 @@ public class EnchantableFurnaceRegistration extends EnchantableRegistration {
 
   @Override
   public @NotNull EnchantableFurnace newBlock(@NotNull Block block, @NotNull ItemStack itemStack,
-      @NotNull ConfigurationSection storage) {
-    return new EnchantableFurnace(this, block, itemStack, storage);
+      @Nullable ConfigurationSection savedState) {
+    return new EnchantableFurnace(this, block, itemStack, savedState);
   }
 
   @Override
@@ -0,0 +1,43 @@
+package com.github.jikoo.enchantableblocks.block.impl.furnace;
+
+import com.github.jikoo.enchantableblocks.util.MathHelper;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The effects of an enchanted furnace's item, computed once so that furnace events do not need to
+ * read item meta.
+ *
+ * @param cookModifier the modifier for cooking speed
+ * @param burnModifier the modifier for fuel burn rate
+ * @param fortune the fortune level
+ * @param cookMultiplier the multiplier for cook times
+ * @param burnMultiplier the multiplier for burn times, applied before the cook multiplier
+ */
+record FurnaceEffects(
+    int cookModifier,
+    int burnModifier,
+    int fortune,
+    double cookMultiplier,
+    double burnMultiplier) {
+
+  /**
+   * Compute the effects of an {@link ItemStack}.
+   *
+   * @param itemStack the {@code ItemStack}
+   * @return the effects
+   */
+  static @NotNull FurnaceEffects of(@NotNull ItemStack itemStack) {
+    int cookModifier = itemStack.getEnchantmentLevel(Enchantment.EFFICIENCY);
+    int burnModifier = itemStack.getEnchantmentLevel(Enchantment.UNBREAKING);
+    return new FurnaceEffects(
+        cookModifier,
+        burnModifier,
+        itemStack.getEnchantmentLevel(Enchantment.FORTUNE),
+        // Invert sign of cook modifier to invert sigmoid.
+        MathHelper.sigmoid(1D, -cookModifier, 2.0),
+        MathHelper.sigmoid(1D, burnModifier, 3.0));
+  }
+
+}
@@ -18,6 +18,9 @@ import org.bukkit.event.block.BlockDropItemEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldSaveEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
@@ -47,7 +50,7 @@ public class WorldListener implements Listener {
   @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
   @VisibleForTesting
   void onChunkLoad(@NotNull ChunkLoadEvent event) {
-    plugin.getServer().getScheduler().runTask(plugin, () -> manager.loadChunkBlocks(event.getChunk()));
+    manager.prefetchChunkBlocks(event.getChunk());
   }
 
   @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
@@ -56,6 +59,24 @@ public class WorldListener implements Listener {
     manager.unloadChunkBlocks(event.getChunk());
   }
 
+  @EventHandler(priority = EventPriority.MONITOR)
+  @VisibleForTesting
+  void onWorldLoad(@NotNull WorldLoadEvent event) {
+    manager.loadWorld(event.getWorld());
+  }
+
+  @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+  @VisibleForTesting
+  void onWorldUnload(@NotNull WorldUnloadEvent event) {
+    manager.unloadWorld(event.getWorld());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  @VisibleForTesting
+  void onWorldSave(@NotNull WorldSaveEvent event) {
+    manager.saveWorld(event.getWorld());
+  }
+
   @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
   @VisibleForTesting
   void onBlockPlace(@NotNull BlockPlaceEvent event) {
@@ -0,0 +1,34 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager.RegionStorageData;
+import com.github.jikoo.enchantableblocks.util.Region;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An asynchronous variant of a {@link RegionLoadFunction} reading data on an {@link Executor}.
+ *
+ * <p>Reads wait for pending writes to the region without occupying the executor.
+ */
+record AsyncRegionLoadFunction(
+    @NotNull RegionLoadFunction loadFunction,
+    @NotNull Executor executor)
+    implements BiFunction<
+        @NotNull Region,
+        @NotNull Boolean,
+        @NotNull CompletableFuture<@Nullable RegionStorageData>> {
+
+  @Override
+  public @NotNull CompletableFuture<@Nullable RegionStorageData> apply(
+      @NotNull Region region,
+      @NotNull Boolean create) {
+    // If the region was recently expired, make sure its final save has been written.
+    return loadFunction().saveQueue().pendingWrites(region)
+        .thenApplyAsync(ignored -> loadFunction().read(region), executor())
+        .thenApply(storage -> loadFunction().wrap(region, storage, create));
+  }
+
+}
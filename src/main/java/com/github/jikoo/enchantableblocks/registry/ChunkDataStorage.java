@@ -0,0 +1,290 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import com.github.jikoo.enchantableblocks.block.EnchantableBlock;
+import com.github.jikoo.enchantableblocks.util.BinaryRegionFormat;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Storage for block data in each {@link Chunk Chunk's} {@link PersistentDataContainer}.
+ *
+ * <p>Data is encoded with {@link BinaryRegionFormat} and is written back to the chunk when the
+ * chunk unloads or data is explicitly saved, after which it is persisted by the server along with
+ * the rest of the chunk.
+ */
+final class ChunkDataStorage {
+
+  private final @NotNull NamespacedKey key;
+  private final @NotNull Logger logger;
+  private final @NotNull Function<@NotNull Chunk, @NotNull Collection<EnchantableBlock>> blocks;
+  private final @Nullable RegionDataMigrator migrator;
+  private final @NotNull Map<ChunkKey, ChunkData> loaded = new HashMap<>();
+
+  /**
+   * Construct a new {@code ChunkDataStorage}.
+   *
+   * @param key the {@link NamespacedKey} data is stored under
+   * @param logger the {@link Logger} used to report errors
+   * @param blocks a function supplying the loaded {@link EnchantableBlock EnchantableBlocks} in a
+   *     {@link Chunk}
+   * @param migrator the {@link RegionDataMigrator} supplying legacy data, if any
+   */
+  ChunkDataStorage(
+      @NotNull NamespacedKey key,
+      @NotNull Logger logger,
+      @NotNull Function<@NotNull Chunk, @NotNull Collection<EnchantableBlock>> blocks,
+      @Nullable RegionDataMigrator migrator) {
+    this.key = key;
+    this.logger = logger;
+    this.blocks = blocks;
+    this.migrator = migrator;
+  }
+
+  /**
+   * Get the {@link ConfigurationSection} containing block data for a {@link Chunk}.
+   *
+   * @param chunk the {@code Chunk}
+   * @param chunkPath the path of the chunk's section
+   * @param create whether to create the section if it does not exist
+   * @return the {@code ConfigurationSection} or {@code null} if not present and not created
+   */
+  @Nullable ConfigurationSection getSection(
+      @NotNull Chunk chunk,
+      @NotNull String chunkPath,
+      boolean create) {
+    ChunkKey chunkKey = new ChunkKey(chunk);
+    ChunkData data = loaded.get(chunkKey);
+
+    if (data == null) {
+      data = read(chunk, chunkPath);
+      if (data == null) {
+        if (!create) {
+          return null;
+        }
+        data = new ChunkData(chunk, new MemoryConfiguration());
+      }
+      loaded.put(chunkKey, data);
+    }
+
+    ConfigurationSection section = data.root.getConfigurationSection(chunkPath);
+    if (section == null && create) {
+      section = data.root.createSection(chunkPath);
+    }
+    return section;
+  }
+
+  /**
+   * Check if a {@link Chunk} may have stored data without reading it.
+   *
+   * @param chunk the {@code Chunk}
+   * @return true if the chunk may have data
+   */
+  boolean hasData(@NotNull Chunk chunk) {
+    return loaded.containsKey(new ChunkKey(chunk))
+        || chunk.getPersistentDataContainer().has(key, PersistentDataType.BYTE_ARRAY)
+        || migrator != null && migrator.isPending(chunk);
+  }
+
+  /**
+   * Start reading any legacy data for a {@link Chunk} off the main thread.
+   *
+   * @param chunk the {@code Chunk}
+   * @param executor the {@link Executor} to read data with
+   * @return a future completing when the data has been read
+   */
+  @NotNull CompletableFuture<?> prefetch(@NotNull Chunk chunk, @NotNull Executor executor) {
+    if (migrator == null || migrator.isComplete()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return migrator.prefetch(chunk, executor);
+  }
+
+  /**
+   * Flag a {@link Chunk Chunk's} data as having unsaved changes.
+   *
+   * @param chunk the {@code Chunk}
+   */
+  void setDirty(@NotNull Chunk chunk) {
+    ChunkData data = loaded.get(new ChunkKey(chunk));
+    if (data != null) {
+      data.dirty = true;
+    }
+  }
+
+  /**
+   * Write a {@link Chunk Chunk's} data if necessary and release it.
+   *
+   * @param chunk the {@code Chunk}
+   */
+  void unload(@NotNull Chunk chunk) {
+    ChunkData data = loaded.remove(new ChunkKey(chunk));
+    if (data != null) {
+      write(data);
+    }
+  }
+
+  /**
+   * Write all modified data for a world.
+   *
+   * @param worldName the name of the world
+   */
+  void save(@NotNull String worldName) {
+    for (Map.Entry<ChunkKey, ChunkData> entry : loaded.entrySet()) {
+      if (entry.getKey().worldName().equals(worldName)) {
+        write(entry.getValue());
+      }
+    }
+    if (migrator != null) {
+      // Migrated data is only removed from regions once the server has saved it to chunks.
+      migrator.save(worldName);
+    }
+  }
+
+  /**
+   * Write all modified data.
+   */
+  void saveAll() {
+    for (Iterator<ChunkData> iterator = loaded.values().iterator(); iterator.hasNext(); ) {
+      ChunkData data = iterator.next();
+      write(data);
+      // Release data for chunks that are no longer loaded.
+      if (!data.chunk.isLoaded()) {
+        iterator.remove();
+      }
+    }
+    if (migrator != null) {
+      migrator.saveAll();
+    }
+  }
+
+  private @Nullable ChunkData read(@NotNull Chunk chunk, @NotNull String chunkPath) {
+    // Always consume legacy data so that the migration can complete.
+    ConfigurationSection legacy = migrator != null ? migrator.take(chunk, chunkPath) : null;
+
+    byte[] bytes = chunk.getPersistentDataContainer().get(key, PersistentDataType.BYTE_ARRAY);
+    if (bytes != null) {
+      MemoryConfiguration root = new MemoryConfiguration();
+      try {
+        BinaryRegionFormat.read(new ByteArrayInputStream(bytes), root);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, e, () -> String.format(
+            "Unable to read block data for chunk %s in %s: %s",
+            chunkPath,
+            chunk.getWorld().getName(),
+            e.getMessage()));
+      }
+      return new ChunkData(chunk, root);
+    }
+
+    if (legacy == null) {
+      return null;
+    }
+
+    MemoryConfiguration root = new MemoryConfiguration();
+    legacy.getValues(true).forEach((path, value) -> {
+      if (!(value instanceof ConfigurationSection)) {
+        root.set(chunkPath + '.' + path, value);
+      }
+    });
+    ChunkData data = new ChunkData(chunk, root);
+    // Write immediately so the migrated data is persisted with the chunk.
+    data.dirty = true;
+    write(data);
+    return data;
+  }
+
+  private void write(@NotNull ChunkData data) {
+    if (!isDirty(data)) {
+      return;
+    }
+
+    // Loaded blocks hold their own state, which is only written to the encoded output.
+    MemoryConfiguration output = new MemoryConfiguration();
+    data.root.getValues(true).forEach((path, value) -> {
+      if (!(value instanceof ConfigurationSection)) {
+        output.set(path, value);
+      }
+    });
+    for (EnchantableBlock enchantableBlock : blocks.apply(data.chunk)) {
+      EnchantableBlockManager.writeBlock(output, enchantableBlock);
+    }
+
+    PersistentDataContainer container = data.chunk.getPersistentDataContainer();
+    if (isEmpty(output) && (migrator == null || migrator.isComplete())) {
+      // While migrating, an empty value is kept to prevent stale legacy data being loaded.
+      container.remove(key);
+    } else {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try {
+        BinaryRegionFormat.write(output, bytes);
+      } catch (IOException e) {
+        // In-memory streams do not throw, but serialization of stored values may.
+        logger.log(Level.WARNING, e, e::getMessage);
+        return;
+      }
+      container.set(key, PersistentDataType.BYTE_ARRAY, bytes.toByteArray());
+    }
+
+    data.dirty = false;
+    blocks.apply(data.chunk).forEach(enchantableBlock -> enchantableBlock.setDirty(false));
+  }
+
+  private static boolean isEmpty(@NotNull ConfigurationSection root) {
+    return root.getValues(true).values().stream()
+        .allMatch(value -> value instanceof ConfigurationSection);
+  }
+
+  private boolean isDirty(@NotNull ChunkData data) {
+    if (data.dirty) {
+      return true;
+    }
+    data.dirty = blocks.apply(data.chunk).stream().anyMatch(EnchantableBlock::isDirty);
+    return data.dirty;
+  }
+
+  /**
+   * A key identifying a {@link Chunk} by world and coordinates.
+   */
+  private record ChunkKey(@NotNull String worldName, int x, int z) {
+
+    private ChunkKey(@NotNull Chunk chunk) {
+      this(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+
+  }
+
+  /**
+   * Block data for a loaded {@link Chunk}.
+   */
+  private static final class ChunkData {
+
+    private final @NotNull Chunk chunk;
+    private final @NotNull MemoryConfiguration root;
+    private boolean dirty = false;
+
+    private ChunkData(@NotNull Chunk chunk, @NotNull MemoryConfiguration root) {
+      this.chunk = chunk;
+      this.root = root;
+    }
+
+  }
+
+}
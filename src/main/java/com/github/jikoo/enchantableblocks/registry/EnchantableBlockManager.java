@@ -1,17 +1,45 @@
 package com.github.jikoo.enchantableblocks.registry;
 
 import com.github.jikoo.enchantableblocks.block.EnchantableBlock;
+import com.github.jikoo.enchantableblocks.storage.MutationLog;
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
+import com.github.jikoo.enchantableblocks.storage.StorageBackend;
+import com.github.jikoo.enchantableblocks.util.BlockIndex;
 import com.github.jikoo.enchantableblocks.util.Cache;
+import com.github.jikoo.enchantableblocks.util.CacheStats;
 import com.github.jikoo.enchantableblocks.util.Region;
 import com.github.jikoo.enchantableblocks.util.RegionStorage;
-import com.github.jikoo.planarwrappers.collections.BlockMap;
 import com.github.jikoo.planarwrappers.util.Coords;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.Contract;
@@ -24,23 +52,75 @@ import org.jetbrains.annotations.VisibleForTesting;
  */
 public class EnchantableBlockManager {
 
+  private static final long MUTATION_LOG_SYNC_INTERVAL = 250L;
+  private static final long MUTATION_LOG_COMPACTION_THRESHOLD = 4L * 1024 * 1024;
+  private static final long ABSENT_REGION_RETENTION = 30_000L;
+  private static final Duration CACHE_SWEEP_BUDGET = Duration.ofMillis(1);
+  private static final int MAX_LOAD_THREADS = 4;
+  @VisibleForTesting
+  static final int CHUNK_LOADS_PER_TICK = 16;
+
   private final @NotNull Logger logger;
   private final @NotNull EnchantableBlockRegistry blockRegistry;
-  private final @NotNull BlockMap<EnchantableBlock> blockMap;
+  private final @NotNull BlockIndex<EnchantableBlock> blockIndex;
+  private final @NotNull Map<World, Map<EnchantableRegistration, Boolean>> enabledWorlds =
+      new IdentityHashMap<>();
+  private final @NotNull StorageBackend backend;
+  private final @NotNull RegionSaveQueue saveQueue;
+  private final @NotNull RegionInUseCheck inUseCheck;
   private final @NotNull Cache<Region, RegionStorageData> saveFileCache;
+  private final @Nullable ChunkDataStorage chunkDataStorage;
+  private final @Nullable MutationJournal journal;
+  private final @Nullable ExecutorService loadExecutor;
+  private final @NotNull Map<Chunk, CompletableFuture<?>> pendingChunks = new LinkedHashMap<>();
+  private final @NotNull Map<Region, Set<EnchantableBlock>> dirtyBlocks =
+      new ConcurrentHashMap<>();
 
   /**
    * Construct a new {@code EnchantableBlockManager} for the given {@link Plugin}.
    *
+   * <p>Data is stored in the configured mode. In region mode, data is stored in per-region files in
+   * the configured format and changes are recorded in a mutation log if enabled.
+   *
    * @param plugin the {@code Plugin}
    */
   public EnchantableBlockManager(@NotNull Plugin plugin) {
+    this(
+        plugin,
+        new RegionFileStorageBackend(
+            plugin.getDataFolder().toPath().resolve("data"),
+            getFormat(plugin)));
+  }
+
+  /**
+   * Construct a new {@code EnchantableBlockManager} for the given {@link Plugin} using a specific
+   * {@link StorageBackend}.
+   *
+   * <p>If the plugin is configured to store data in chunks, the {@code StorageBackend} is only used
+   * as the source for migrating existing data.
+   *
+   * @param plugin the {@code Plugin}
+   * @param backend the {@code StorageBackend}
+   */
+  public EnchantableBlockManager(@NotNull Plugin plugin, @NotNull StorageBackend backend) {
+    this(plugin, backend, isChunkMode(plugin));
+  }
+
+  private EnchantableBlockManager(
+      @NotNull Plugin plugin,
+      @NotNull StorageBackend backend,
+      boolean chunkMode) {
     this(
         new EnchantableBlockRegistry(plugin.getLogger()),
-        new Cache.CacheBuilder<>(),
+        // Expire regions on a scheduled sweep so that event handlers never pay for saves.
+        new Cache.CacheBuilder<Region, RegionStorageData>()
+            .withSweeper(true)
+            .withMaximumWeight(plugin.getConfig().getLong("maxCachedBlocks", 100_000L)),
         plugin.getConfig().getInt("autosave", 5),
-        plugin.getDataFolder().toPath().resolve("data"),
-        plugin.getLogger());
+        backend,
+        plugin.getLogger(),
+        chunkMode ? new NamespacedKey(plugin, "blocks") : null,
+        chunkMode ? null : newMutationLog(plugin));
   }
 
   @VisibleForTesting
@@ -48,15 +128,178 @@ public class EnchantableBlockManager {
       @NotNull EnchantableBlockRegistry registry,
       @NotNull Cache.CacheBuilder<Region, RegionStorageData> cacheBuilder,
       int autoSave,
-      @NotNull Path dataDir,
+      @NotNull StorageBackend backend,
       @NotNull Logger logger) {
-    this.blockMap = new BlockMap<>();
+    this(registry, cacheBuilder, autoSave, backend, logger, null);
+  }
+
+  @VisibleForTesting
+  EnchantableBlockManager(
+      @NotNull EnchantableBlockRegistry registry,
+      @NotNull Cache.CacheBuilder<Region, RegionStorageData> cacheBuilder,
+      int autoSave,
+      @NotNull StorageBackend backend,
+      @NotNull Logger logger,
+      @Nullable NamespacedKey chunkDataKey) {
+    this(registry, cacheBuilder, autoSave, backend, logger, chunkDataKey, null);
+  }
+
+  @VisibleForTesting
+  EnchantableBlockManager(
+      @NotNull EnchantableBlockRegistry registry,
+      @NotNull Cache.CacheBuilder<Region, RegionStorageData> cacheBuilder,
+      int autoSave,
+      @NotNull StorageBackend backend,
+      @NotNull Logger logger,
+      @Nullable NamespacedKey chunkDataKey,
+      @Nullable MutationLog mutationLog) {
+    this.blockIndex = new BlockIndex<>();
     this.logger = logger;
     this.blockRegistry = registry;
-    this.saveFileCache = cacheBuilder
+    registry.setRegistrationListener(this::compileRegistration);
+    this.backend = backend;
+    this.saveQueue = new RegionSaveQueue(logger, backend);
+
+    if (mutationLog == null) {
+      this.journal = null;
+    } else {
+      this.journal = new MutationJournal(
+          mutationLog,
+          backend,
+          saveQueue,
+          logger,
+          MUTATION_LOG_COMPACTION_THRESHOLD);
+      // Recover changes lost by an unclean shutdown before any data is loaded.
+      this.journal.replay();
+    }
+
+    RegionDataMigrator migrator = chunkDataKey == null
+        ? null
+        : new RegionDataMigrator(backend, saveQueue, logger);
+    // Chunk data can only be read on the main thread, but legacy region data can be read off it.
+    this.loadExecutor = migrator == null || !migrator.isComplete() ? newLoadExecutor() : null;
+    this.inUseCheck = new RegionInUseCheck(logger, saveQueue, journal != null);
+    var loadFunction = new RegionLoadFunction(this, backend, logger, saveQueue);
+    cacheBuilder
         .withRetention(Math.max(autoSave * 60_000L, 60_000L))
-        .withInUseCheck(new RegionInUseCheck(logger))
-        .withLoadFunction(new RegionLoadFunction(this, dataDir, logger)).build();
+        // Most regions have no data. Remember them briefly to avoid repeated lookups.
+        .withAbsentRetention(ABSENT_REGION_RETENTION)
+        .withInUseCheck(inUseCheck)
+        .withWeigher(EnchantableBlockManager::weigh)
+        .withLoadFunction(loadFunction);
+    if (chunkDataKey == null && loadExecutor != null) {
+      cacheBuilder
+          .withExecutor(loadExecutor)
+          .withAsyncLoadFunction(new AsyncRegionLoadFunction(loadFunction, loadExecutor));
+    }
+    this.saveFileCache = cacheBuilder.build();
+
+    if (chunkDataKey == null) {
+      this.chunkDataStorage = null;
+    } else {
+      this.chunkDataStorage = new ChunkDataStorage(
+          chunkDataKey,
+          logger,
+          chunk -> blockIndex.get(chunk.getWorld().getName(), chunk.getX(), chunk.getZ()),
+          migrator == null || migrator.isComplete() ? null : migrator);
+    }
+  }
+
+  /**
+   * Create an {@link ExecutorService} for reading region data off the main thread.
+   *
+   * @return the {@code ExecutorService}
+   */
+  private static @NotNull ExecutorService newLoadExecutor() {
+    // Regions are independent, so batches of reads may run in parallel.
+    int threads = Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, MAX_LOAD_THREADS);
+    AtomicInteger count = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(
+          runnable,
+          "EnchantableBlocks Region Load " + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Weigh region data for the save file cache by the number of blocks stored or loaded.
+   *
+   * @param region the {@link Region}
+   * @param data the data
+   * @return the weight
+   */
+  @VisibleForTesting
+  static int weigh(@NotNull Region region, @NotNull RegionStorageData data) {
+    int blocks = data.getLoadedBlocks();
+    RegionStorage storage = data.getStorage();
+    for (String chunkPath : storage.getKeys(false)) {
+      ConfigurationSection chunkSection = storage.getConfigurationSection(chunkPath);
+      if (chunkSection != null) {
+        blocks += chunkSection.getKeys(false).size();
+      }
+    }
+    // Regions without blocks still cost memory.
+    return 1 + blocks;
+  }
+
+  /**
+   * Create a {@link MutationLog} for a {@link Plugin} if enabled.
+   *
+   * @param plugin the {@code Plugin}
+   * @return the {@code MutationLog} or {@code null} if disabled or unavailable
+   */
+  private static @Nullable MutationLog newMutationLog(@NotNull Plugin plugin) {
+    if (!plugin.getConfig().getBoolean("mutationLog", true)) {
+      return null;
+    }
+
+    try {
+      return new MutationLog(
+          plugin.getDataFolder().toPath().resolve("journal"),
+          MUTATION_LOG_SYNC_INTERVAL,
+          plugin.getLogger());
+    } catch (IOException e) {
+      plugin.getLogger().log(
+          Level.WARNING,
+          e,
+          () -> "Unable to open mutation log: " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Check if a {@link Plugin} is configured to store data in chunks rather than region files.
+   *
+   * @param plugin the {@code Plugin}
+   * @return true if data is stored in chunks
+   */
+  private static boolean isChunkMode(@NotNull Plugin plugin) {
+    String value = plugin.getConfig().getString("storageMode", "region");
+    if (value.equalsIgnoreCase("chunk")) {
+      return true;
+    }
+    if (!value.equalsIgnoreCase("region")) {
+      plugin.getLogger().warning(() -> "Invalid storageMode " + value + ", defaulting to region");
+    }
+    return false;
+  }
+
+  /**
+   * Get the configured {@link RegionStorage.Format} for a {@link Plugin}.
+   *
+   * @param plugin the {@code Plugin}
+   * @return the configured format or {@link RegionStorage.Format#YAML} if invalid
+   */
+  private static @NotNull RegionStorage.Format getFormat(@NotNull Plugin plugin) {
+    String value = plugin.getConfig().getString("storageFormat", "yaml");
+    try {
+      return RegionStorage.Format.valueOf(value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      plugin.getLogger().warning(() -> "Invalid storageFormat " + value + ", defaulting to yaml");
+      return RegionStorage.Format.YAML;
+    }
   }
 
   /**
@@ -76,9 +319,12 @@ public class EnchantableBlockManager {
    */
   public @Nullable EnchantableBlock getBlock(@NotNull final Block block) {
 
-    EnchantableBlock enchantableBlock = this.blockMap.get(block);
+    EnchantableBlock enchantableBlock = this.blockIndex.get(block);
+    if (enchantableBlock == null && loadPendingChunk(block)) {
+      enchantableBlock = this.blockIndex.get(block);
+    }
     if (enchantableBlock != null
-        && enchantableBlock.getConfig().enabled().get(block.getWorld().getName())) {
+        && isEnabled(enchantableBlock.getRegistration(), block.getWorld())) {
       return enchantableBlock;
     }
 
@@ -86,6 +332,104 @@ public class EnchantableBlockManager {
 
   }
 
+  /**
+   * Check if the chunk containing a {@link Location} may contain any {@link EnchantableBlock
+   * EnchantableBlocks}. This is a cheap pre-check for hot paths that would otherwise need to do
+   * expensive work, like snapshotting a block's state, before looking up the block itself.
+   *
+   * <p>If the chunk is still queued to be loaded, its blocks are loaded immediately.
+   *
+   * @param location the {@code Location}
+   * @return false if the chunk is known to contain no {@code EnchantableBlocks}
+   */
+  public boolean hasChunkBlocks(@NotNull final Location location) {
+    World world = location.getWorld();
+    if (world == null) {
+      return false;
+    }
+
+    String worldName = world.getName();
+    int chunkX = Coords.blockToChunk(location.getBlockX());
+    int chunkZ = Coords.blockToChunk(location.getBlockZ());
+    if (this.blockIndex.contains(worldName, chunkX, chunkZ)) {
+      return true;
+    }
+
+    // Blocks in chunks that are still queued have not been indexed yet.
+    return loadPendingChunk(location.getBlock())
+        && this.blockIndex.contains(worldName, chunkX, chunkZ);
+  }
+
+  /**
+   * Check if an {@link EnchantableRegistration} is enabled in a {@link World}.
+   *
+   * <p>Flags are compiled when worlds are loaded, when registrations are added, and when the
+   * configuration is reloaded, so checking never reads configuration. Worlds that have not been
+   * loaded have no blocks enabled.
+   *
+   * @param registration the {@code EnchantableRegistration}
+   * @param world the {@code World}
+   * @return true if the registration's blocks are enabled in the world
+   */
+  private boolean isEnabled(@NotNull EnchantableRegistration registration, @NotNull World world) {
+    Map<EnchantableRegistration, Boolean> flags = enabledWorlds.get(world);
+    return flags != null && Boolean.TRUE.equals(flags.get(registration));
+  }
+
+  /**
+   * Compile whether a newly added {@link EnchantableRegistration} is enabled in each loaded
+   * {@link World}.
+   *
+   * @param registration the {@code EnchantableRegistration}
+   */
+  private void compileRegistration(@NotNull EnchantableRegistration registration) {
+    enabledWorlds.forEach((world, flags) ->
+        flags.put(registration, registration.getConfig().enabled().get(world.getName())));
+  }
+
+  /**
+   * Compile whether each {@link EnchantableRegistration} is enabled in a {@link World}.
+   *
+   * @param world the {@code World}
+   * @return the flags for each registration
+   */
+  private @NotNull Map<EnchantableRegistration, Boolean> compileWorld(@NotNull World world) {
+    Map<EnchantableRegistration, Boolean> flags = new IdentityHashMap<>();
+    for (EnchantableRegistration registration : blockRegistry.getRegistrations()) {
+      flags.put(registration, registration.getConfig().enabled().get(world.getName()));
+    }
+    enabledWorlds.put(world, flags);
+    return flags;
+  }
+
+  /**
+   * Prepare per-world settings for a newly loaded {@link World}.
+   *
+   * @param world the {@code World}
+   */
+  public void loadWorld(@NotNull World world) {
+    compileWorld(world);
+  }
+
+  /**
+   * Release per-world settings for an unloaded {@link World}.
+   *
+   * @param world the {@code World}
+   */
+  public void unloadWorld(@NotNull World world) {
+    enabledWorlds.remove(world);
+  }
+
+  /**
+   * Reload all registrations and recompile per-world settings.
+   */
+  public void reload() {
+    blockRegistry.reload();
+    List<World> worlds = new ArrayList<>(enabledWorlds.keySet());
+    enabledWorlds.clear();
+    worlds.forEach(this::compileWorld);
+  }
+
   /**
    * Create an {@link EnchantableBlock} for a {@link Block} from an {@link ItemStack}.
    *
@@ -104,13 +448,42 @@ public class EnchantableBlockManager {
       return null;
     }
 
-    final EnchantableBlock enchantableBlock = this.newBlock(block, itemStack);
+    // Stored data loaded later would replace the new block.
+    loadPendingChunk(block);
+
+    final EnchantableBlock enchantableBlock = this.newBlock(block, itemStack, null);
 
     if (enchantableBlock == null) {
       return null;
     }
 
-    this.blockMap.put(block, enchantableBlock);
+    String chunkPath = getChunkPath(block);
+    String blockPath = getBlockPath(block);
+    boolean added = this.blockIndex.put(block, enchantableBlock) == null;
+
+    // Stored data is replaced by the new block's state when saved.
+    if (chunkDataStorage != null) {
+      // Chunk data must be present for the block to be written with the chunk.
+      removeStoredBlock(
+          Objects.requireNonNull(chunkDataStorage.getSection(block.getChunk(), chunkPath, true)),
+          blockPath);
+    } else {
+      RegionStorageData saveData = Objects.requireNonNull(saveFileCache.get(new Region(block)));
+      ConfigurationSection chunkStorage = saveData.getStorage().getConfigurationSection(chunkPath);
+      if (chunkStorage != null) {
+        removeStoredBlock(chunkStorage, blockPath);
+      }
+      if (added) {
+        saveData.addLoadedBlocks(1);
+      }
+    }
+
+    if (listenForChanges()) {
+      enchantableBlock.setChangeListener(this::onChange);
+      // New blocks always need to be saved.
+      trackChange(enchantableBlock);
+      recordSet(enchantableBlock);
+    }
 
     return enchantableBlock;
   }
@@ -135,59 +508,56 @@ public class EnchantableBlockManager {
    *
    * @param block the {@code Block}
    * @param itemStack the {@code ItemStack}
+   * @param savedState the {@link ConfigurationSection} containing saved state or {@code null} if
+   *     the block is new
    * @return the {@code EnchantableBlock} or {@code null} if no registration matches
    */
   private @Nullable EnchantableBlock newBlock(
       @NotNull Block block,
-      @NotNull ItemStack itemStack) {
+      @NotNull ItemStack itemStack,
+      @Nullable ConfigurationSection savedState) {
     var registration = blockRegistry.get(itemStack.getType());
 
     if (registration == null) {
       return null;
     }
 
-    if (!registration.getConfig().enabled().get(block.getWorld().getName())) {
+    if (!isEnabled(registration, block.getWorld())) {
       return null;
     }
 
-    return registration.newBlock(block, itemStack, getBlockStorage(block));
+    return registration.newBlock(block, itemStack, savedState);
   }
 
   /**
-   * Helper method for getting a non-null {@link ConfigurationSection} for a {@link Block}, creating
-   * as needed.
+   * Remove a {@link Block Block's} stored data from its chunk's {@link ConfigurationSection},
+   * removing the chunk's section as well if it is left empty.
    *
-   * @param block the {@code Block}
-   * @return the {@code ConfigurationSection}
+   * @param chunkStorage the chunk's {@code ConfigurationSection}
+   * @param blockPath the path of the block's data
    */
-  private @NotNull ConfigurationSection getBlockStorage(@NotNull Block block) {
-    var chunkStorage = this.getChunkStorage(block);
-    var blockPath = getBlockPath(block);
-
-    if (chunkStorage.isConfigurationSection(blockPath)) {
-      return Objects.requireNonNull(chunkStorage.getConfigurationSection(blockPath));
+  private static void removeStoredBlock(
+      @NotNull ConfigurationSection chunkStorage,
+      @NotNull String blockPath) {
+    chunkStorage.set(blockPath, null);
+    ConfigurationSection parent = chunkStorage.getParent();
+    if (parent != null && chunkStorage.getKeys(false).isEmpty()) {
+      parent.set(chunkStorage.getName(), null);
     }
-
-    return chunkStorage.createSection(blockPath);
   }
 
   /**
-   * Helper method for getting a non-null {@link ConfigurationSection} for a {@link Chunk}, creating
-   * as needed.
+   * Write the full state of an {@link EnchantableBlock} to the storage containing its chunk.
    *
-   * @param block a {@link Block} in the {@link Chunk}
-   * @return the {@code ConfigurationSection}
+   * @param storage the storage
+   * @param enchantableBlock the {@code EnchantableBlock}
    */
-  private @NotNull ConfigurationSection getChunkStorage(@NotNull Block block) {
-    var storagePair = saveFileCache.get(new Region(block));
-    var regionStorage = Objects.requireNonNull(storagePair).getStorage();
-    var chunkPath = getChunkPath(block);
-
-    if (regionStorage.isConfigurationSection(chunkPath)) {
-      return Objects.requireNonNull(regionStorage.getConfigurationSection(chunkPath));
-    }
-
-    return regionStorage.createSection(chunkPath);
+  static void writeBlock(
+      @NotNull ConfigurationSection storage,
+      @NotNull EnchantableBlock enchantableBlock) {
+    Block block = enchantableBlock.getBlock();
+    enchantableBlock.updateStorage(
+        storage.createSection(getChunkPath(block) + '.' + getBlockPath(block)));
   }
 
   /**
@@ -206,10 +576,10 @@ public class EnchantableBlockManager {
       return null;
     }
 
-    EnchantableBlock enchantableBlock = this.newBlock(block, itemStack);
+    EnchantableBlock enchantableBlock = this.newBlock(block, itemStack, storage);
 
-    if (enchantableBlock == null || !enchantableBlock.isCorrectBlockType()
-        || !enchantableBlock.getConfig().enabled().get(block.getWorld().getName())) {
+    // Blocks are only created for registrations enabled in the world.
+    if (enchantableBlock == null || !enchantableBlock.isCorrectBlockType()) {
       return null;
     }
 
@@ -223,18 +593,36 @@ public class EnchantableBlockManager {
    * @return the {@link ItemStack} representation or {@code null} if not valid
    */
   public @Nullable ItemStack destroyBlock(@NotNull final Block block) {
-    EnchantableBlock enchantableBlock = this.blockMap.remove(block);
+    loadPendingChunk(block);
+    EnchantableBlock enchantableBlock = this.blockIndex.remove(block);
 
     if (enchantableBlock == null) {
       return null;
     }
 
+    if (chunkDataStorage != null) {
+      Chunk chunk = block.getChunk();
+      String chunkPath = getChunkPath(block);
+      var chunkSection = chunkDataStorage.getSection(chunk, chunkPath, false);
+      if (chunkSection != null) {
+        removeStoredBlock(chunkSection, getBlockPath(block));
+      }
+      chunkDataStorage.setDirty(chunk);
+
+      if (!enchantableBlock.isCorrectType(block.getType())) {
+        return null;
+      }
+
+      return enchantableBlock.getItemStack();
+    }
+
     var saveData = this.saveFileCache.get(new Region(block));
 
     if (saveData == null) {
       return null;
     }
 
+    saveData.addLoadedBlocks(-1);
     var chunkPath = getChunkPath(block);
 
     ItemStack itemStack = enchantableBlock.getItemStack();
@@ -242,6 +630,7 @@ public class EnchantableBlockManager {
     if (!saveData.getStorage().isConfigurationSection(chunkPath)) {
       saveData.getStorage().set(chunkPath, null);
       saveData.setDirty();
+      recordRemove(enchantableBlock);
 
       if (!enchantableBlock.isCorrectType(block.getType())) {
         return null;
@@ -251,19 +640,14 @@ public class EnchantableBlockManager {
     }
 
     var chunkSection = saveData.getStorage().getConfigurationSection(chunkPath);
-    var blockPath = getBlockPath(block.getX(), block.getY(), block.getZ());
 
     if (chunkSection != null) {
-      // Delete block data.
-      chunkSection.set(blockPath, null);
-
-      // If chunk section is now empty, also delete chunk section.
-      if (chunkSection.getKeys(false).isEmpty()) {
-        saveData.getStorage().set(chunkPath, null);
-      }
+      // Stored data is only present if the region was reloaded while the block was loaded.
+      removeStoredBlock(chunkSection, getBlockPath(block));
     }
 
     saveData.setDirty();
+    recordRemove(enchantableBlock);
 
     if (!enchantableBlock.isCorrectType(block.getType())) {
       return null;
@@ -272,34 +656,318 @@ public class EnchantableBlockManager {
     return itemStack;
   }
 
+  /**
+   * Check if {@link EnchantableBlock EnchantableBlocks} need to report changes. Changes are
+   * tracked per region in region mode and recorded if changes are journaled.
+   *
+   * @return true if a change listener is required
+   */
+  private boolean listenForChanges() {
+    return chunkDataStorage == null || journal != null;
+  }
+
+  /**
+   * Handle an {@link EnchantableBlock} being modified.
+   *
+   * @param enchantableBlock the {@code EnchantableBlock}
+   */
+  private void onChange(@NotNull EnchantableBlock enchantableBlock) {
+    trackChange(enchantableBlock);
+    recordChange(enchantableBlock);
+  }
+
+  /**
+   * Track a modified {@link EnchantableBlock} so that it is written when its region is saved.
+   *
+   * @param enchantableBlock the {@code EnchantableBlock}
+   */
+  private void trackChange(@NotNull EnchantableBlock enchantableBlock) {
+    if (chunkDataStorage == null) {
+      dirtyBlocks
+          .computeIfAbsent(new Region(enchantableBlock.getBlock()), key -> newDirtySet())
+          .add(enchantableBlock);
+    }
+  }
+
+  /**
+   * Create a thread-safe set for tracking modified {@link EnchantableBlock EnchantableBlocks}.
+   *
+   * @return the set
+   */
+  private static @NotNull Set<EnchantableBlock> newDirtySet() {
+    return ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Record the full state of an {@link EnchantableBlock}, including its item, in the mutation
+   * journal.
+   *
+   * @param enchantableBlock the {@code EnchantableBlock}
+   */
+  private void recordSet(@NotNull EnchantableBlock enchantableBlock) {
+    if (journal == null) {
+      return;
+    }
+
+    MemoryConfiguration values = new MemoryConfiguration();
+    enchantableBlock.updateStorage(values);
+    journal.recordSet(enchantableBlock.getBlock(), values);
+    compactJournalIfNeeded();
+  }
+
+  /**
+   * Record a change to an {@link EnchantableBlock} in the mutation journal. Only the block's state
+   * other than its item is recorded, so the item is not serialized and storage is not touched.
+   *
+   * @param enchantableBlock the {@code EnchantableBlock}
+   */
+  private void recordChange(@NotNull EnchantableBlock enchantableBlock) {
+    if (journal == null) {
+      return;
+    }
+
+    MemoryConfiguration values = new MemoryConfiguration();
+    enchantableBlock.writeState(values);
+    journal.recordUpdate(enchantableBlock.getBlock(), values);
+    compactJournalIfNeeded();
+  }
+
+  /**
+   * Record the removal of an {@link EnchantableBlock} in the mutation journal.
+   *
+   * @param enchantableBlock the {@code EnchantableBlock}
+   */
+  private void recordRemove(@NotNull EnchantableBlock enchantableBlock) {
+    enchantableBlock.setChangeListener(null);
+
+    if (journal == null) {
+      return;
+    }
+
+    journal.recordRemove(enchantableBlock.getBlock());
+    compactJournalIfNeeded();
+  }
+
+  /**
+   * Compact the mutation journal into region files if it has grown too large. Records must be
+   * appended after the change they represent is made in memory, so compaction only captures
+   * changes that are already recorded.
+   */
+  private void compactJournalIfNeeded() {
+    if (journal != null && journal.needsCompaction()) {
+      compactJournal();
+    }
+  }
+
+  /**
+   * Compact the mutation journal by saving all modified region data.
+   */
+  private void compactJournal() {
+    if (journal != null) {
+      journal.compact(() -> saveFileCache.forEach(inUseCheck::save));
+    }
+  }
+
+  /**
+   * Queue stored {@link EnchantableBlock EnchantableBlocks} for a {@link Chunk} to be loaded by
+   * {@link #loadPrefetchedChunks()}. If data is stored in region files, the region is loaded into
+   * the cache off the main thread in the meantime. If data is stored in chunks, any legacy region
+   * data still being migrated is read off the main thread instead.
+   *
+   * @param chunk the {@code Chunk}
+   */
+  public void prefetchChunkBlocks(@NotNull final Chunk chunk) {
+    CompletableFuture<?> loading;
+    if (chunkDataStorage == null) {
+      loading = saveFileCache.getAsync(new Region(chunk), false);
+    } else if (loadExecutor != null) {
+      loading = chunkDataStorage.prefetch(chunk, loadExecutor);
+    } else {
+      loading = CompletableFuture.completedFuture(null);
+    }
+    pendingChunks.put(chunk, loading);
+  }
+
+  /**
+   * Load {@link EnchantableBlock EnchantableBlocks} for queued {@link Chunk Chunks} whose data
+   * has been read. To spread the cost of loading over time, a limited number of chunks containing
+   * blocks are loaded per call. Chunks without stored blocks are skipped without counting against
+   * the limit. This should be called every tick.
+   */
+  public void loadPrefetchedChunks() {
+    int loaded = 0;
+    Iterator<Map.Entry<Chunk, CompletableFuture<?>>> iterator =
+        pendingChunks.entrySet().iterator();
+    while (loaded < CHUNK_LOADS_PER_TICK && iterator.hasNext()) {
+      Map.Entry<Chunk, CompletableFuture<?>> entry = iterator.next();
+      CompletableFuture<?> loading = entry.getValue();
+      if (!loading.isDone()) {
+        continue;
+      }
+
+      iterator.remove();
+      // If the chunk was unloaded in the meantime, its data is already cached for later use.
+      Chunk chunk = entry.getKey();
+      if (!chunk.isLoaded()) {
+        continue;
+      }
+
+      try {
+        loading.join();
+      } catch (CompletionException | CancellationException e) {
+        // Failures only affect their own chunk. Loading again retries the read.
+        logger.log(Level.WARNING, e, e::getMessage);
+      }
+
+      if (loadPrefetchedChunk(chunk)) {
+        ++loaded;
+      }
+    }
+  }
+
+  /**
+   * Load {@link EnchantableBlock EnchantableBlocks} for a prefetched {@link Chunk}.
+   *
+   * @param chunk the {@code Chunk}
+   * @return true if the chunk had stored blocks
+   */
+  private boolean loadPrefetchedChunk(@NotNull Chunk chunk) {
+    if (chunkDataStorage != null) {
+      if (!chunkDataStorage.hasData(chunk)) {
+        return false;
+      }
+      loadChunkBlocks(chunk, null);
+      return true;
+    }
+
+    RegionStorageData saveData = saveFileCache.get(new Region(chunk), false);
+    if (saveData == null || !saveData.getStorage().isConfigurationSection(getChunkPath(chunk))) {
+      return false;
+    }
+    loadChunkBlocks(chunk, saveData);
+    return true;
+  }
+
+  /**
+   * Immediately load {@link EnchantableBlock EnchantableBlocks} for the {@link Chunk} containing
+   * a {@link Block} if it is still queued to be loaded.
+   *
+   * @param block the {@code Block}
+   * @return true if the chunk was loaded
+   */
+  private boolean loadPendingChunk(@NotNull Block block) {
+    if (pendingChunks.isEmpty()) {
+      return false;
+    }
+
+    Chunk chunk = block.getChunk();
+    if (pendingChunks.remove(chunk) == null) {
+      return false;
+    }
+
+    // Waits for an in-progress read rather than starting another.
+    loadChunkBlocks(chunk);
+    return true;
+  }
+
   /**
    * Load all stored {@link EnchantableBlock EnchantableBlocks} for a {@link Chunk}.
    *
    * @param chunk the {@code Chunk}
    */
   public void loadChunkBlocks(@NotNull final Chunk chunk) {
+    if (chunkDataStorage != null) {
+      loadChunkBlocks(chunk, null);
+      return;
+    }
 
-    RegionStorageData saveData = this.saveFileCache.get(new Region(chunk), false);
+    loadChunkBlocks(chunk, this.saveFileCache.get(new Region(chunk), false));
+  }
 
-    if (saveData == null) {
+  /**
+   * Load all stored {@link EnchantableBlock EnchantableBlocks} for several {@link Chunk Chunks}.
+   * If data is stored in region files, all required regions are requested from the cache at once
+   * so that missing regions are read in parallel.
+   *
+   * @param chunks the {@code Chunks}
+   */
+  public void loadAllChunkBlocks(@NotNull final Collection<@NotNull Chunk> chunks) {
+    if (chunkDataStorage != null) {
+      chunks.forEach(chunk -> loadChunkBlocks(chunk, null));
       return;
     }
 
+    Map<Region, List<Chunk>> regions = new HashMap<>();
+    for (Chunk chunk : chunks) {
+      regions.computeIfAbsent(new Region(chunk), region -> new ArrayList<>()).add(chunk);
+    }
+
+    Map<Region, RegionStorageData> loaded = this.saveFileCache.getAll(regions.keySet(), false);
+    loaded.forEach((region, saveData) -> {
+      for (Chunk chunk : regions.get(region)) {
+        loadChunkBlocks(chunk, saveData);
+      }
+    });
+  }
+
+  /**
+   * Load all stored {@link EnchantableBlock EnchantableBlocks} for a {@link Chunk} from its
+   * region data, or from chunk data if data is stored in chunks.
+   *
+   * @param chunk the {@code Chunk}
+   * @param saveData the region data or {@code null} if the region has none
+   */
+  private void loadChunkBlocks(@NotNull Chunk chunk, @Nullable RegionStorageData saveData) {
     String path = getChunkPath(chunk);
+
+    if (chunkDataStorage != null) {
+      ConfigurationSection chunkStorage = chunkDataStorage.getSection(chunk, path, false);
+      if (chunkStorage != null) {
+        loadChunkBlocks(chunk, chunkStorage, () -> chunkDataStorage.setDirty(chunk));
+      }
+      return;
+    }
+
+    if (saveData == null) {
+      return;
+    }
+
     ConfigurationSection chunkStorage = saveData.getStorage().getConfigurationSection(path);
 
     if (chunkStorage == null) {
       return;
     }
 
+    saveData.addLoadedBlocks(loadChunkBlocks(chunk, chunkStorage, saveData::setDirty));
+  }
+
+  /**
+   * Load all {@link EnchantableBlock EnchantableBlocks} for a {@link Chunk} from its
+   * {@link ConfigurationSection}, removing invalid entries.
+   *
+   * <p>Loaded blocks hold their own state, so their data is released from storage. It is written
+   * again whenever the storage is saved and when the blocks are unloaded.
+   *
+   * @param chunk the {@code Chunk}
+   * @param chunkStorage the chunk's {@code ConfigurationSection}
+   * @param markDirty a callback flagging the storage as having unsaved changes
+   * @return the number of blocks loaded
+   */
+  private int loadChunkBlocks(
+      @NotNull Chunk chunk,
+      @NotNull ConfigurationSection chunkStorage,
+      @NotNull Runnable markDirty) {
+    int loaded = 0;
+
     for (String xyz : chunkStorage.getKeys(false)) {
       if (!chunkStorage.isConfigurationSection(xyz)) {
-        chunkStorage.set(path, null);
-        saveData.setDirty();
+        Object value = chunkStorage.get(xyz);
+        chunkStorage.set(xyz, null);
+        markDirty.run();
         this.logger.warning(() -> String.format(
             "Invalid ConfigurationSection %s: %s",
             xyz,
-            chunkStorage.get(xyz)));
+            value));
         continue;
       }
 
@@ -309,7 +977,7 @@ public class EnchantableBlockManager {
 
       if (split.length != 3) {
         chunkStorage.set(xyz, null);
-        saveData.setDirty();
+        markDirty.run();
         this.logger.warning(() -> String.format(
             "Unparseable coordinates in %s: %s representing %s",
             chunk.getWorld().getName(),
@@ -326,7 +994,7 @@ public class EnchantableBlockManager {
                 Integer.parseInt(split[2]));
       } catch (@NotNull NumberFormatException e) {
         chunkStorage.set(xyz, null);
-        saveData.setDirty();
+        markDirty.run();
         this.logger.warning(() -> String.format(
             "Unparseable coordinates in %s: %s representing %s",
             chunk.getWorld().getName(),
@@ -342,7 +1010,7 @@ public class EnchantableBlockManager {
       if (enchantableBlock == null) {
         // Invalid EnchantableBlock, could not load.
         chunkStorage.set(xyz, null);
-        saveData.setDirty();
+        markDirty.run();
         this.logger.warning(() -> String.format(
             "Removed invalid save in %s at %s: %s",
             chunk.getWorld().getName(),
@@ -351,8 +1019,22 @@ public class EnchantableBlockManager {
         continue;
       }
 
-      this.blockMap.put(block, enchantableBlock);
+      removeStoredBlock(chunkStorage, xyz);
+      if (this.blockIndex.put(block, enchantableBlock) == null) {
+        ++loaded;
+      }
+
+      if (listenForChanges()) {
+        enchantableBlock.setChangeListener(this::onChange);
+        if (enchantableBlock.isDirty()) {
+          // Blocks are only modified while loading if their item was converted.
+          trackChange(enchantableBlock);
+          recordSet(enchantableBlock);
+        }
+      }
     }
+
+    return loaded;
   }
 
   /**
@@ -361,15 +1043,130 @@ public class EnchantableBlockManager {
    * @param chunk the {@code Chunk}
    */
   public void unloadChunkBlocks(@NotNull final Chunk chunk) {
+    if (chunkDataStorage != null) {
+      // Write data before blocks are released so that pending changes are included.
+      chunkDataStorage.unload(chunk);
+    }
+
     // Clear out and clean up loaded EnchantableBlocks.
-    this.blockMap.remove(chunk);
+    Collection<EnchantableBlock> unloaded = this.blockIndex.remove(chunk);
+
+    if (chunkDataStorage == null && !unloaded.isEmpty()) {
+      flushUnloaded(new Region(chunk), unloaded);
+    }
+  }
+
+  /**
+   * Write the state of {@link EnchantableBlock EnchantableBlocks} that are being unloaded to their
+   * region data. Released blocks must not be written later, as the same blocks may be loaded again
+   * as new instances in the meantime.
+   *
+   * @param region the {@link Region} containing the blocks
+   * @param unloaded the unloaded {@code EnchantableBlocks}
+   */
+  private void flushUnloaded(
+      @NotNull Region region,
+      @NotNull Collection<EnchantableBlock> unloaded) {
+    Set<EnchantableBlock> modified = dirtyBlocks.get(region);
+    // Loaded blocks are not kept in storage, so the region is read again if it has been released.
+    RegionStorageData saveData = saveFileCache.get(region);
+    boolean flushed = false;
+
+    for (EnchantableBlock enchantableBlock : unloaded) {
+      enchantableBlock.setChangeListener(null);
+      if (saveData != null) {
+        writeBlock(saveData.getStorage(), enchantableBlock);
+      }
+      if (modified != null && modified.remove(enchantableBlock)) {
+        enchantableBlock.setDirty(false);
+        flushed = true;
+      }
+    }
+
+    if (saveData == null) {
+      return;
+    }
+
+    saveData.addLoadedBlocks(-unloaded.size());
+    if (flushed) {
+      // The region must still be saved with the flushed state.
+      saveData.setDirty();
+    }
+  }
+
+  /**
+   * Expire due values in the save file cache within a small time budget. Work that does not fit in
+   * the budget is continued by the next sweep. Should be run every tick.
+   */
+  public void sweepCache() {
+    saveFileCache.sweep(CACHE_SWEEP_BUDGET);
+  }
+
+  /**
+   * Get statistics for the save file cache.
+   *
+   * @return the {@link CacheStats}
+   */
+  public @NotNull CacheStats getCacheStats() {
+    return saveFileCache.getStats();
   }
 
   /**
-   * Expire all values in the save file cache.
+   * Get the number of regions with data in region storage. If data is stored in chunks, this is
+   * the number of regions with data remaining to be migrated.
+   *
+   * @return the number of regions or {@code -1} if unknown
+   */
+  public int getStoredRegionCount() {
+    return backend.getRegionCount();
+  }
+
+  /**
+   * Expire all values in the save file cache. If data is stored in chunks, all modified chunk data
+   * is written. If changes are journaled, data still in use is not written.
    */
   public void expireCache() {
     saveFileCache.expireAll();
+    if (chunkDataStorage != null) {
+      chunkDataStorage.saveAll();
+    }
+  }
+
+  /**
+   * Write modified data for a {@link World} to its chunks before the world is saved. Region files
+   * are saved independently of world saves, so this only affects chunk storage.
+   *
+   * @param world the {@code World}
+   */
+  public void saveWorld(@NotNull World world) {
+    if (chunkDataStorage != null) {
+      chunkDataStorage.save(world.getName());
+    }
+  }
+
+  /**
+   * Save all data and wait for pending writes to complete. The manager should not be used after
+   * shutting down.
+   */
+  public void shutdown() {
+    pendingChunks.clear();
+    if (loadExecutor != null) {
+      loadExecutor.shutdownNow();
+    }
+    // Sync the directory entries of all remaining writes together rather than individually.
+    backend.beginGroupCommit();
+    expireCache();
+    // Write data still in use so that the journal can be discarded.
+    compactJournal();
+    saveQueue.shutdown(1, TimeUnit.MINUTES);
+    try {
+      backend.commit();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+    }
+    if (journal != null) {
+      journal.close();
+    }
   }
 
   /**
@@ -400,7 +1197,7 @@ public class EnchantableBlockManager {
    * @param chunkZ the chunk Z coordinate
    * @return the path
    */
-  private static @NotNull String getChunkPath(int chunkX, int chunkZ) {
+  static @NotNull String getChunkPath(int chunkX, int chunkZ) {
     return chunkX + "_" + chunkZ;
   }
 
@@ -423,7 +1220,6 @@ public class EnchantableBlockManager {
    * @param z the Z coordinate
    * @return the path
    */
-  @VisibleForTesting
   static @NotNull String getBlockPath(int x, int y, int z) {
     return x + "_" + y + "_" + z;
   }
@@ -434,7 +1230,8 @@ public class EnchantableBlockManager {
   class RegionStorageData {
 
     private final @NotNull RegionStorage storage;
-    private boolean dirty = false;
+    private final @NotNull AtomicInteger loadedBlocks = new AtomicInteger();
+    private volatile boolean dirty = false;
 
     /**
      * Construct a new {@code RegionStorageData}.
@@ -454,20 +1251,35 @@ public class EnchantableBlockManager {
       return storage;
     }
 
+    /**
+     * Get the number of loaded {@link EnchantableBlock EnchantableBlocks} in the region. Loaded
+     * blocks hold their own state and are not present in the {@link RegionStorage}.
+     *
+     * @return the number of loaded blocks
+     */
+    int getLoadedBlocks() {
+      return loadedBlocks.get();
+    }
+
+    /**
+     * Adjust the number of loaded {@link EnchantableBlock EnchantableBlocks} in the region.
+     *
+     * @param count the number of blocks loaded, or negative if unloaded
+     */
+    void addLoadedBlocks(int count) {
+      loadedBlocks.addAndGet(count);
+    }
+
     /**
      * Check if the {@link RegionStorage} has unsaved changes.
      *
+     * <p>Modified {@link EnchantableBlock EnchantableBlocks} report themselves to their region, so
+     * this does not need to visit the region's chunks.
+     *
      * @return true if the {@code RegionStorage} needs to be saved
      */
     boolean isDirty() {
-      if (dirty) {
-        return true;
-      }
-      final String worldName = storage.getRegion().worldName();
-      dirty = storage.getRegion().anyChunkMatch((chunkX, chunkZ) ->
-          blockMap.get(worldName, chunkX, chunkZ).stream()
-              .anyMatch(EnchantableBlock::isDirty));
-      return dirty;
+      return dirty || dirtyBlocks.containsKey(storage.getRegion());
     }
 
     /**
@@ -478,15 +1290,31 @@ public class EnchantableBlockManager {
     }
 
     /**
-     * Mark the {@link RegionStorage} and all contained {@link EnchantableBlock EnchantableBlocks}
-     * as having been saved since last modification.
+     * Mark everything as having been saved since last modification. A {@link #snapshot()} must be
+     * saved afterwards.
      */
     void clean() {
       this.dirty = false;
-      final String worldName = storage.getRegion().worldName();
-      this.storage.getRegion().forEachChunk((chunkX, chunkZ) ->
-          blockMap.get(worldName, chunkX, chunkZ)
-              .forEach(enchantableBlock -> enchantableBlock.setDirty(false)));
+      Set<EnchantableBlock> modified = dirtyBlocks.remove(storage.getRegion());
+      if (modified != null) {
+        modified.forEach(enchantableBlock -> enchantableBlock.setDirty(false));
+      }
+    }
+
+    /**
+     * Create a detached copy of the {@link RegionStorage} including the current state of all
+     * loaded {@link EnchantableBlock EnchantableBlocks} in the region.
+     *
+     * @return the copy
+     * @see RegionStorage#snapshot()
+     */
+    @NotNull RegionStorage snapshot() {
+      RegionStorage snapshot = storage.snapshot();
+      Region region = storage.getRegion();
+      region.forEachChunk((chunkX, chunkZ) ->
+          blockIndex.get(region.worldName(), chunkX, chunkZ)
+              .forEach(enchantableBlock -> writeBlock(snapshot, enchantableBlock)));
+      return snapshot;
     }
   }
 
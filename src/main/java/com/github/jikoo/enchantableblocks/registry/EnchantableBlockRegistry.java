@@ -1,8 +1,10 @@
 package com.github.jikoo.enchantableblocks.registry;
 
 import com.github.jikoo.enchantableblocks.block.EnchantableBlock;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import org.bukkit.Material;
 import org.jetbrains.annotations.NotNull;
@@ -15,6 +17,7 @@ public final class EnchantableBlockRegistry {
 
   private final @NotNull Logger logger;
   private final @NotNull Map<Material, EnchantableRegistration> materialRegistry;
+  private @Nullable Consumer<@NotNull EnchantableRegistration> registrationListener;
 
   /**
    * Create a new {@code EnchantableBlockRegistry} for the given {@link Logger}.
@@ -26,6 +29,16 @@ public final class EnchantableBlockRegistry {
     materialRegistry = new HashMap<>();
   }
 
+  /**
+   * Set a listener to be notified when an {@link EnchantableRegistration} is registered.
+   *
+   * @param registrationListener the listener or {@code null} to remove the current listener
+   */
+  void setRegistrationListener(
+      @Nullable Consumer<@NotNull EnchantableRegistration> registrationListener) {
+    this.registrationListener = registrationListener;
+  }
+
   /**
    * Register an {@link EnchantableBlock} implementation.
    *
@@ -47,6 +60,9 @@ public final class EnchantableBlockRegistry {
                     material.getKey()));
           }
         });
+    if (registrationListener != null) {
+      registrationListener.accept(registration);
+    }
   }
 
   /**
@@ -59,11 +75,20 @@ public final class EnchantableBlockRegistry {
     return materialRegistry.get(material);
   }
 
+  /**
+   * Get all registered {@link EnchantableRegistration EnchantableRegistrations}.
+   *
+   * @return the registrations
+   */
+  public @NotNull Collection<@NotNull EnchantableRegistration> getRegistrations() {
+    return materialRegistry.values().stream().distinct().toList();
+  }
+
   /**
    * Reload all registered {@link EnchantableRegistration EnchantableRegistrations}.
    */
   public void reload() {
-    materialRegistry.values().stream().distinct().forEach(EnchantableRegistration::reload);
+    getRegistrations().forEach(EnchantableRegistration::reload);
   }
 
 }
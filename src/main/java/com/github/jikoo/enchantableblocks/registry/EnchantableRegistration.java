@@ -50,13 +50,14 @@ public abstract class EnchantableRegistration {
    *
    * @param block     the in-world {@link Block}
    * @param itemStack the {@link ItemStack} representation of the object
-   * @param storage   the {@link ConfigurationSection} used to store any necessary data
+   * @param savedState the {@link ConfigurationSection} containing saved state or {@code null} if
+   *     the block is new
    * @return the {@code EnchantableBlock}
    */
   protected abstract @NotNull EnchantableBlock newBlock(
       @NotNull final Block block,
       @NotNull final ItemStack itemStack,
-      @NotNull ConfigurationSection storage);
+      @Nullable ConfigurationSection savedState);
 
   public @NotNull EnchantableBlockConfig getConfig() {
     if (config == null) {
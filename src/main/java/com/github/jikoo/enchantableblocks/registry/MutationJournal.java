@@ -0,0 +1,278 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import com.github.jikoo.enchantableblocks.storage.MutationLog;
+import com.github.jikoo.enchantableblocks.storage.MutationLog.Mutation;
+import com.github.jikoo.enchantableblocks.storage.StorageBackend;
+import com.github.jikoo.enchantableblocks.util.BinaryRegionFormat;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import com.github.jikoo.planarwrappers.util.Coords;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A journal recording block mutations to a {@link MutationLog} so that changes are durable
+ * between region saves.
+ *
+ * <p>A block is recorded in full when created, including its serialized item. Later changes only
+ * record the block's remaining state, which is small and cheap to encode. Each record still
+ * contains the full state of what it covers, so replaying the log in order over region data at
+ * least as new as the start of the log always produces the latest state. Compaction
+ * rotates the log, saves all modified regions, and deletes the rotated segments once the saves
+ * have completed.
+ */
+final class MutationJournal {
+
+  private final @NotNull MutationLog log;
+  private final @NotNull StorageBackend backend;
+  private final @NotNull RegionSaveQueue saveQueue;
+  private final @NotNull Logger logger;
+  private final long compactionThreshold;
+  private volatile boolean compacting = false;
+
+  /**
+   * Construct a new {@code MutationJournal}.
+   *
+   * @param log the {@link MutationLog} to record to
+   * @param backend the {@link StorageBackend} containing region data
+   * @param saveQueue the {@link RegionSaveQueue} region data is written by
+   * @param logger the {@link Logger} used to report errors
+   * @param compactionThreshold the log size in bytes after which compaction is required
+   */
+  MutationJournal(
+      @NotNull MutationLog log,
+      @NotNull StorageBackend backend,
+      @NotNull RegionSaveQueue saveQueue,
+      @NotNull Logger logger,
+      long compactionThreshold) {
+    this.log = log;
+    this.backend = backend;
+    this.saveQueue = saveQueue;
+    this.logger = logger;
+    this.compactionThreshold = compactionThreshold;
+  }
+
+  /**
+   * Apply all logged mutations to region data and clear the log. This must be done before any
+   * region data is loaded.
+   *
+   * <p>The log is always cleared so that new entries are never appended after an incomplete entry
+   * left by a crash.
+   */
+  void replay() {
+    Map<Region, RegionStorage> regions = new LinkedHashMap<>();
+    int[] count = { 0 };
+
+    try {
+      log.replay(mutation -> {
+        Region region = new Region(
+            mutation.worldName(),
+            Coords.blockToRegion(mutation.x()),
+            Coords.blockToRegion(mutation.z()));
+        RegionStorage storage = regions.computeIfAbsent(region, this::load);
+        apply(storage, mutation);
+        ++count[0];
+      });
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+    }
+
+    for (RegionStorage storage : regions.values()) {
+      try {
+        if (storage.getKeys(false).isEmpty()) {
+          backend.delete(storage.getRegion());
+        } else {
+          backend.save(storage);
+        }
+      } catch (IOException e) {
+        // Keep the log so that the mutations can be replayed again later.
+        logger.log(Level.WARNING, e, e::getMessage);
+        return;
+      }
+    }
+
+    if (count[0] > 0) {
+      logger.info(() -> "Recovered " + count[0] + " block changes from mutation log.");
+    }
+
+    try {
+      log.clear();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+    }
+  }
+
+  private @NotNull RegionStorage load(@NotNull Region region) {
+    try {
+      RegionStorage storage = backend.load(region);
+      if (storage != null) {
+        return storage;
+      }
+    } catch (IOException | InvalidConfigurationException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+    }
+    return backend.create(region);
+  }
+
+  private void apply(@NotNull RegionStorage storage, @NotNull Mutation mutation) {
+    String chunkPath = EnchantableBlockManager.getChunkPath(
+        Coords.blockToChunk(mutation.x()),
+        Coords.blockToChunk(mutation.z()));
+    String blockPath = chunkPath + '.'
+        + EnchantableBlockManager.getBlockPath(mutation.x(), mutation.y(), mutation.z());
+
+    byte[] data = mutation.data();
+    if (data == null) {
+      storage.set(blockPath, null);
+      ConfigurationSection chunkSection = storage.getConfigurationSection(chunkPath);
+      if (chunkSection != null && chunkSection.getKeys(false).isEmpty()) {
+        storage.set(chunkPath, null);
+      }
+      return;
+    }
+
+    try {
+      if (BinaryRegionFormat.isValuesOnly(data)) {
+        // Updates only apply to blocks that exist.
+        ConfigurationSection blockSection = storage.getConfigurationSection(blockPath);
+        if (blockSection != null) {
+          BinaryRegionFormat.decodeBlock(data, blockSection);
+        }
+      } else {
+        // Full records contain the entire block, replacing any existing values.
+        BinaryRegionFormat.decodeBlock(data, storage.createSection(blockPath));
+      }
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+    }
+  }
+
+  /**
+   * Record the full state of a block, including its item.
+   *
+   * @param block the {@link Block}
+   * @param blockSection the {@link ConfigurationSection} containing the block's data
+   */
+  void recordSet(@NotNull Block block, @NotNull ConfigurationSection blockSection) {
+    byte[] data;
+    try {
+      data = BinaryRegionFormat.encodeBlock(blockSection);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+      return;
+    }
+    append(block, data);
+  }
+
+  /**
+   * Record a change to an existing block's state other than its item.
+   *
+   * @param block the {@link Block}
+   * @param values the block's state
+   */
+  void recordUpdate(@NotNull Block block, @NotNull ConfigurationSection values) {
+    if (values.getKeys(false).isEmpty()) {
+      return;
+    }
+
+    byte[] data;
+    try {
+      data = BinaryRegionFormat.encodeValues(values);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+      return;
+    }
+    append(block, data);
+  }
+
+  private void append(@NotNull Block block, byte @NotNull [] data) {
+    log.append(new Mutation(
+        block.getWorld().getName(),
+        block.getX(),
+        block.getY(),
+        block.getZ(),
+        data));
+  }
+
+  /**
+   * Record the removal of a block.
+   *
+   * @param block the {@link Block}
+   */
+  void recordRemove(@NotNull Block block) {
+    log.append(new Mutation(
+        block.getWorld().getName(),
+        block.getX(),
+        block.getY(),
+        block.getZ(),
+        null));
+  }
+
+  /**
+   * Check if the log has grown large enough to require compaction.
+   *
+   * @return true if compaction is required
+   */
+  boolean needsCompaction() {
+    return !compacting && log.size() >= compactionThreshold;
+  }
+
+  /**
+   * Compact the log into region data.
+   *
+   * @param saveModified a task queueing saves for all modified region data
+   */
+  void compact(@NotNull Runnable saveModified) {
+    long segment;
+    try {
+      segment = log.rotate();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+      return;
+    }
+
+    // All changes up to this point are in the rotated segment and in memory.
+    saveModified.run();
+
+    if (segment < 0) {
+      return;
+    }
+
+    compacting = true;
+    saveQueue.flush().whenComplete((ignored, throwable) -> {
+      compacting = false;
+      if (throwable != null) {
+        // Failed saves are logged and retried by the next compaction.
+        return;
+      }
+      try {
+        // Region data must be durable before the log entries are discarded. This runs on the I/O
+        // thread, which also completes the rotation before deleting it. Any group commit in
+        // progress is left open for later saves.
+        backend.sync();
+        log.deleteSegments(segment);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, e, e::getMessage);
+      }
+    });
+  }
+
+  /**
+   * Sync and close the log.
+   */
+  void close() {
+    try {
+      log.close();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+    }
+  }
+
+}
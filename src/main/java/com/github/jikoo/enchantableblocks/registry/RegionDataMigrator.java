@@ -0,0 +1,311 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import com.github.jikoo.enchantableblocks.storage.StorageBackend;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.Chunk;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * A one-shot migration of region data out of a {@link StorageBackend} as chunks load.
+ *
+ * <p>Each region's data is read when the first of its chunks loads, ideally ahead of time off the
+ * main thread via {@link #prefetch(Chunk, Executor)}. Chunk data is handed off as chunks are
+ * taken. A limited number of regions are held in memory at once.
+ *
+ * <p>Taken data is only written to the chunk, which the server persists when the world is saved.
+ * Stored data is left unchanged until then: taken chunks are removed from a region's stored data
+ * on the world save after the one that persisted them, and the region's data is deleted once all
+ * of its chunks have been removed. If the server stops first, chunks are taken again on restart
+ * and chunk data takes precedence. The migration is complete when no region has data remaining.
+ */
+final class RegionDataMigrator {
+
+  private static final int MAX_OPEN_REGIONS = 16;
+
+  private final @NotNull StorageBackend source;
+  private final @NotNull RegionSaveQueue saveQueue;
+  private final @NotNull Logger logger;
+  private final int maxOpenRegions;
+  private final @NotNull Set<Region> pending = new HashSet<>();
+  private final @NotNull Map<Region, Progress> progress = new HashMap<>();
+  private final @NotNull Map<Region, CompletableFuture<@Nullable RegionStorage>> loading =
+      new HashMap<>();
+  private final @NotNull LinkedHashMap<Region, RegionStorage> open =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Construct a new {@code RegionDataMigrator}.
+   *
+   * @param source the {@link StorageBackend} to migrate data out of
+   * @param saveQueue the {@link RegionSaveQueue} used to remove migrated data
+   * @param logger the {@link Logger} used to report progress and errors
+   */
+  RegionDataMigrator(
+      @NotNull StorageBackend source,
+      @NotNull RegionSaveQueue saveQueue,
+      @NotNull Logger logger) {
+    this(source, saveQueue, logger, MAX_OPEN_REGIONS);
+  }
+
+  @VisibleForTesting
+  RegionDataMigrator(
+      @NotNull StorageBackend source,
+      @NotNull RegionSaveQueue saveQueue,
+      @NotNull Logger logger,
+      int maxOpenRegions) {
+    this.source = source;
+    this.saveQueue = saveQueue;
+    this.logger = logger;
+    this.maxOpenRegions = maxOpenRegions;
+
+    try {
+      pending.addAll(source.listRegions());
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+    }
+
+    if (!pending.isEmpty()) {
+      logger.info(() -> "Migrating block data from " + pending.size() + " regions to chunks.");
+    }
+  }
+
+  /**
+   * Check if all data has been migrated.
+   *
+   * @return true if no data remains to be migrated
+   */
+  boolean isComplete() {
+    return pending.isEmpty();
+  }
+
+  /**
+   * Check if a {@link Chunk Chunk's} region still has stored data.
+   *
+   * @param chunk the {@code Chunk}
+   * @return true if the region has data remaining
+   */
+  boolean isPending(@NotNull Chunk chunk) {
+    return pending.contains(new Region(chunk));
+  }
+
+  /**
+   * Start reading the stored data for a {@link Chunk Chunk's} region off the main thread so that
+   * {@link #take(Chunk, String)} does not need to read it.
+   *
+   * @param chunk the {@code Chunk}
+   * @param executor the {@link Executor} to read data with
+   * @return a future completing when the data has been read
+   */
+  @NotNull CompletableFuture<?> prefetch(@NotNull Chunk chunk, @NotNull Executor executor) {
+    Region region = new Region(chunk);
+    if (!pending.contains(region) || open.containsKey(region)) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    // Migrated data may still be being removed from storage.
+    return loading.computeIfAbsent(region, key -> saveQueue.pendingWrites(key)
+        .thenApplyAsync(ignored -> load(key), executor));
+  }
+
+  /**
+   * Take the stored data for a {@link Chunk}. Once taken, data is no longer available.
+   *
+   * <p>The data must be written to the chunk before the world is next saved.
+   *
+   * @param chunk the {@code Chunk}
+   * @param chunkPath the path of the chunk's data in its region
+   * @return the chunk's data or {@code null} if there is none
+   */
+  @Nullable ConfigurationSection take(@NotNull Chunk chunk, @NotNull String chunkPath) {
+    Region region = new Region(chunk);
+    if (!pending.contains(region)) {
+      return null;
+    }
+
+    RegionStorage storage = open(region);
+    if (storage == null) {
+      progress.remove(region);
+      finish(region);
+      return null;
+    }
+
+    Progress regionProgress = progress.get(region);
+    if (!regionProgress.untaken.remove(chunkPath)) {
+      return null;
+    }
+
+    ConfigurationSection chunkSection = storage.getConfigurationSection(chunkPath);
+    // Stored data is not written from memory, so taken data can be released immediately.
+    storage.set(chunkPath, null);
+    regionProgress.unsaved.add(chunkPath);
+    return chunkSection;
+  }
+
+  /**
+   * Remove data from storage for a world's chunks that were persisted by its previous save. This
+   * should be called when the world is saved, after taken data has been written to chunks.
+   *
+   * @param worldName the name of the world
+   */
+  void save(@NotNull String worldName) {
+    for (Iterator<Map.Entry<Region, Progress>> iterator = progress.entrySet().iterator();
+        iterator.hasNext(); ) {
+      Map.Entry<Region, Progress> entry = iterator.next();
+      Region region = entry.getKey();
+      if (!region.worldName().equals(worldName)) {
+        continue;
+      }
+
+      Progress regionProgress = entry.getValue();
+      if (commit(region, regionProgress)) {
+        iterator.remove();
+        continue;
+      }
+
+      // Data taken since the last save is persisted by this one.
+      regionProgress.saving.addAll(regionProgress.unsaved);
+      regionProgress.unsaved.clear();
+    }
+  }
+
+  /**
+   * Release all regions held in memory. Progress is kept, and released regions are read again if
+   * more of their chunks are taken.
+   */
+  void saveAll() {
+    open.clear();
+    loading.clear();
+  }
+
+  private boolean commit(@NotNull Region region, @NotNull Progress regionProgress) {
+    if (regionProgress.saving.isEmpty()) {
+      return false;
+    }
+
+    if (regionProgress.untaken.isEmpty() && regionProgress.unsaved.isEmpty()) {
+      saveQueue.delete(region);
+      finish(region);
+      return true;
+    }
+
+    Set<String> persisted = Set.copyOf(regionProgress.saving);
+    regionProgress.saving.clear();
+    saveQueue.update(region, storage -> {
+      persisted.forEach(chunkPath -> storage.set(chunkPath, null));
+      return !storage.getKeys(false).isEmpty();
+    });
+    return false;
+  }
+
+  private @Nullable RegionStorage open(@NotNull Region region) {
+    RegionStorage storage = open.get(region);
+    if (storage != null) {
+      return storage;
+    }
+
+    storage = read(region);
+    if (storage == null) {
+      return null;
+    }
+
+    Progress regionProgress = progress.get(region);
+    if (regionProgress == null) {
+      if (storage.getKeys(false).isEmpty()) {
+        // Nothing to migrate, so there is no need to wait for a save.
+        saveQueue.delete(region);
+        return null;
+      }
+      progress.put(region, new Progress(storage.getKeys(false)));
+    } else {
+      // Storage still contains data that has been taken but not yet removed.
+      for (String chunkPath : storage.getKeys(false)) {
+        if (!regionProgress.untaken.contains(chunkPath)) {
+          storage.set(chunkPath, null);
+        }
+      }
+    }
+
+    open.put(region, storage);
+    releaseExcess();
+    return storage;
+  }
+
+  private @Nullable RegionStorage read(@NotNull Region region) {
+    CompletableFuture<@Nullable RegionStorage> future = loading.remove(region);
+    if (future != null) {
+      try {
+        return future.join();
+      } catch (CompletionException e) {
+        // Executor may have been shut down; fall through to read on this thread.
+        logger.log(Level.FINE, e, e::getMessage);
+      }
+    }
+
+    saveQueue.awaitPending(region);
+    return load(region);
+  }
+
+  private @Nullable RegionStorage load(@NotNull Region region) {
+    try {
+      return source.load(region);
+    } catch (IOException | InvalidConfigurationException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+      return null;
+    }
+  }
+
+  private void releaseExcess() {
+    Iterator<RegionStorage> iterator = open.values().iterator();
+    while (open.size() > maxOpenRegions && iterator.hasNext()) {
+      // Stored data is unchanged, so released regions do not need to be written.
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  private void finish(@NotNull Region region) {
+    pending.remove(region);
+    open.remove(region);
+    loading.remove(region);
+
+    if (pending.isEmpty()) {
+      logger.info("Finished migrating block data to chunks.");
+    }
+  }
+
+  /**
+   * The progress of a region whose data is being migrated.
+   */
+  private static final class Progress {
+
+    /** Chunks whose data has not been taken. */
+    private final @NotNull Set<String> untaken;
+    /** Chunks taken since the last world save. */
+    private final @NotNull Set<String> unsaved = new HashSet<>();
+    /** Chunks taken before the last world save, persisted once it completes. */
+    private final @NotNull Set<String> saving = new HashSet<>();
+
+    private Progress(@NotNull Set<String> untaken) {
+      this.untaken = new HashSet<>(untaken);
+    }
+
+  }
+
+}
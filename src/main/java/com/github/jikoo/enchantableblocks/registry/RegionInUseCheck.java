@@ -3,11 +3,8 @@ package com.github.jikoo.enchantableblocks.registry;
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager.RegionStorageData;
 import com.github.jikoo.enchantableblocks.util.Region;
 import com.github.jikoo.enchantableblocks.util.RegionStorage;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.util.Collection;
 import java.util.function.BiPredicate;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -16,10 +13,27 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * A {@link BiPredicate} used to periodically save data and determine if it is still in use.
+ *
+ * <p>Saving is performed by taking a snapshot of the data and handing it off to a
+ * {@link RegionSaveQueue} to be written. If changes are journaled, data that is still in use is
+ * not saved; it is instead written when the journal is compacted.
  */
-record RegionInUseCheck(@NotNull Logger logger)
+record RegionInUseCheck(
+    @NotNull Logger logger,
+    @NotNull RegionSaveQueue saveQueue,
+    boolean journaled)
     implements BiPredicate<@NotNull Region, @Nullable RegionStorageData> {
 
+  /**
+   * Construct a new {@code RegionInUseCheck} for data that is not journaled.
+   *
+   * @param logger the {@link Logger} used to report errors
+   * @param saveQueue the {@link RegionSaveQueue} used to write data
+   */
+  RegionInUseCheck(@NotNull Logger logger, @NotNull RegionSaveQueue saveQueue) {
+    this(logger, saveQueue, false);
+  }
+
   @Override
   public boolean test(@NotNull Region key, @Nullable RegionStorageData value) {
     if (value == null) {
@@ -29,12 +43,33 @@ record RegionInUseCheck(@NotNull Logger logger)
     RegionStorage storage = value.getStorage();
     World world = Bukkit.getWorld(storage.getRegion().worldName());
     boolean loaded = world != null && storage.getRegion().anyChunkMatch(world::isChunkLoaded);
-    boolean dirty = value.isDirty();
 
-    if (!dirty) {
-      return loaded;
+    // Journaled changes are already durable, defer writing until the data is no longer in use.
+    if (loaded && journaled()) {
+      return true;
     }
 
+    save(key, value);
+
+    return loaded;
+  }
+
+  /**
+   * Save data if it has been modified.
+   *
+   * @param key the {@link Region}
+   * @param value the data
+   */
+  void save(@NotNull Region key, @NotNull RegionStorageData value) {
+    if (!value.isDirty()) {
+      return;
+    }
+
+    // Mark clean before handing off. Any further changes will re-dirty the data.
+    value.clean();
+
+    // Loaded blocks hold their own state, which is only written to the snapshot.
+    RegionStorage storage = value.snapshot();
     Collection<String> keys = storage.getKeys(true);
     boolean delete = true;
     for (String path : keys) {
@@ -45,23 +80,22 @@ record RegionInUseCheck(@NotNull Logger logger)
     }
 
     if (delete) {
-      try {
-        Files.deleteIfExists(storage.getDataFile().toPath());
-        value.clean();
-      } catch (IOException e) {
-        logger().log(Level.WARNING, e, e::getMessage);
-      }
-      return loaded;
+      saveQueue().delete(key).exceptionally(throwable -> redirty(value));
+      return;
     }
 
-    try {
-      storage.save();
-      value.clean();
-    } catch (IOException e) {
-      logger().log(Level.WARNING, e, e::getMessage);
-    }
+    saveQueue().save(storage).exceptionally(throwable -> redirty(value));
+  }
 
-    return loaded;
+  /**
+   * Mark data as needing to be saved again after a failed write.
+   *
+   * @param value the data
+   * @return {@code null} for use as a fallback value
+   */
+  private @Nullable Void redirty(@NotNull RegionStorageData value) {
+    value.setDirty();
+    return null;
   }
 
 }
@@ -1,6 +1,7 @@
 package com.github.jikoo.enchantableblocks.registry;
 
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager.RegionStorageData;
+import com.github.jikoo.enchantableblocks.storage.StorageBackend;
 import com.github.jikoo.enchantableblocks.util.Region;
 import com.github.jikoo.enchantableblocks.util.RegionStorage;
 import org.bukkit.configuration.InvalidConfigurationException;
@@ -8,32 +9,63 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.function.BiFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * A {@link BiFunction} used to load data from disk.
+ * A {@link BiFunction} used to load data from a {@link StorageBackend}.
+ *
+ * @see AsyncRegionLoadFunction
  */
 record RegionLoadFunction(
     @NotNull EnchantableBlockManager manager,
-    @NotNull Path dataDir,
-    @NotNull Logger logger)
+    @NotNull StorageBackend backend,
+    @NotNull Logger logger,
+    @NotNull RegionSaveQueue saveQueue)
     implements BiFunction<@NotNull Region, @NotNull Boolean, @Nullable RegionStorageData> {
 
   @Override
   public @Nullable RegionStorageData apply(@NotNull Region region, @NotNull Boolean create) {
-    RegionStorage storage = new RegionStorage(dataDir(), region);
+    // If the region was recently expired, make sure its final save has been written.
+    saveQueue().awaitPending(region);
 
-    if (!storage.getDataFile().exists() && !create) {
-      return null;
-    }
+    return wrap(region, read(region), create);
+  }
 
+  /**
+   * Read a {@link Region} from storage. Pending writes for the region must have completed.
+   *
+   * @param region the {@code Region}
+   * @return the stored data or {@code null} if the region has no stored data
+   */
+  @Nullable RegionStorage read(@NotNull Region region) {
     try {
-      storage.load();
+      return backend().load(region);
     } catch (@NotNull IOException | InvalidConfigurationException e) {
       logger().log(Level.WARNING, e, e::getMessage);
+      // Data exists but is unreadable, start fresh.
+      return backend().create(region);
+    }
+  }
+
+  /**
+   * Wrap read data for use in the cache.
+   *
+   * @param region the {@link Region}
+   * @param storage the read data or {@code null} if the region has no stored data
+   * @param create whether to create data if the region has no stored data
+   * @return the data or {@code null} if the region has no stored data and none was created
+   */
+  @Nullable RegionStorageData wrap(
+      @NotNull Region region,
+      @Nullable RegionStorage storage,
+      boolean create) {
+    if (storage == null) {
+      if (!create) {
+        return null;
+      }
+      storage = backend().create(region);
     }
 
     return manager().new RegionStorageData(storage);
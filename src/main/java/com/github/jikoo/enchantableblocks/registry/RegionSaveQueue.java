@@ -0,0 +1,212 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import com.github.jikoo.enchantableblocks.storage.StorageBackend;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * A queue for writing {@link RegionStorage} to a {@link StorageBackend} off the main thread.
+ *
+ * <p>Writes for the same {@link Region} are always performed in the order they were submitted.
+ */
+final class RegionSaveQueue {
+
+  private final @NotNull Logger logger;
+  private final @NotNull StorageBackend backend;
+  private final @NotNull ExecutorService executor;
+  private final @NotNull Map<Region, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+  /**
+   * Construct a new {@code RegionSaveQueue} backed by a dedicated I/O thread.
+   *
+   * @param logger the {@link Logger} used to report failed writes
+   * @param backend the {@link StorageBackend} to write to
+   */
+  RegionSaveQueue(@NotNull Logger logger, @NotNull StorageBackend backend) {
+    this(logger, backend, Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "EnchantableBlocks Region I/O");
+      thread.setDaemon(true);
+      return thread;
+    }));
+  }
+
+  @VisibleForTesting
+  RegionSaveQueue(
+      @NotNull Logger logger,
+      @NotNull StorageBackend backend,
+      @NotNull ExecutorService executor) {
+    this.logger = logger;
+    this.backend = backend;
+    this.executor = executor;
+  }
+
+  /**
+   * Queue a snapshot of a {@link RegionStorage} to be written.
+   *
+   * <p>The snapshot must not be modified after submission.
+   *
+   * @param snapshot the detached {@code RegionStorage}
+   * @return a future completing when the write finishes
+   * @see RegionStorage#snapshot()
+   */
+  @NotNull CompletableFuture<Void> save(@NotNull RegionStorage snapshot) {
+    return submit(snapshot.getRegion(), () -> backend.save(snapshot));
+  }
+
+  /**
+   * Queue deletion of a {@link Region Region's} stored data.
+   *
+   * @param region the {@code Region}
+   * @return a future completing when the deletion finishes
+   */
+  @NotNull CompletableFuture<Void> delete(@NotNull Region region) {
+    return submit(region, () -> backend.delete(region));
+  }
+
+  /**
+   * Queue a change to a {@link Region Region's} stored data. The data is read, changed, and written
+   * back on the I/O thread after any writes already queued for the region. Regions with no stored
+   * data are not changed.
+   *
+   * @param region the {@code Region}
+   * @param update a function changing the stored data, returning false if the data should be
+   *     deleted instead of written
+   * @return a future completing when the change finishes
+   */
+  @NotNull CompletableFuture<Void> update(
+      @NotNull Region region,
+      @NotNull Predicate<@NotNull RegionStorage> update) {
+    return submit(region, () -> {
+      RegionStorage storage;
+      try {
+        storage = backend.load(region);
+      } catch (InvalidConfigurationException e) {
+        throw new IOException(e);
+      }
+      if (storage == null) {
+        return;
+      }
+      if (update.test(storage)) {
+        backend.save(storage);
+      } else {
+        backend.delete(region);
+      }
+    });
+  }
+
+  /**
+   * Block until all writes queued for a {@link Region} have completed.
+   *
+   * <p>This must be used before reading a region from storage to prevent loading stale data.
+   *
+   * @param region the {@code Region}
+   */
+  void awaitPending(@NotNull Region region) {
+    pendingWrites(region).join();
+  }
+
+  /**
+   * Get a future completing when all writes queued for a {@link Region} have completed. The future
+   * completes normally even if writes fail.
+   *
+   * <p>Reads of the region from storage must not begin until the future completes to prevent
+   * loading stale data.
+   *
+   * @param region the {@code Region}
+   * @return the future
+   */
+  @NotNull CompletableFuture<Void> pendingWrites(@NotNull Region region) {
+    CompletableFuture<Void> future = pending.get(region);
+    if (future == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    // Failures are already logged by the write itself.
+    return future.handle((ignored, throwable) -> null);
+  }
+
+  /**
+   * Get a future completing when all currently queued writes have completed. The future completes
+   * exceptionally if any of the writes failed.
+   *
+   * <p>The future is completed by the I/O thread, so dependent actions do not run on the calling
+   * thread even if nothing is queued.
+   *
+   * @return the future
+   */
+  @NotNull CompletableFuture<Void> flush() {
+    return CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new))
+        .thenRunAsync(() -> {}, executor);
+  }
+
+  /**
+   * Stop accepting writes and wait for all queued writes to complete.
+   *
+   * @param timeout the maximum time to wait
+   * @param unit the unit of the timeout
+   */
+  void shutdown(long timeout, @NotNull TimeUnit unit) {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(timeout, unit)) {
+        logger.warning(() -> String.format(
+            "Timed out waiting for region saves! %s regions may not have been written.",
+            pending.size()));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.log(Level.WARNING, e, () -> "Interrupted waiting for region saves!");
+    }
+  }
+
+  /**
+   * Chain a task after any other pending tasks for the same {@link Region}.
+   *
+   * @param region the {@code Region} the task affects
+   * @param task the task
+   * @return a future completing when the task finishes
+   */
+  private @NotNull CompletableFuture<Void> submit(@NotNull Region region, @NotNull IoTask task) {
+    CompletableFuture<Void> future = pending.compute(region, (key, previous) -> {
+      CompletableFuture<Void> base = previous == null
+          ? CompletableFuture.completedFuture(null)
+          // Don't allow a failed write to prevent later writes.
+          : previous.handle((ignored, throwable) -> null);
+      return base.thenRunAsync(() -> run(task), executor);
+    });
+    // Clean up once the latest task for the region is done.
+    future.whenComplete((ignored, throwable) -> pending.remove(region, future));
+    return future;
+  }
+
+  private void run(@NotNull IoTask task) {
+    try {
+      task.run();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+      throw new CompletionException(e);
+    }
+  }
+
+  /**
+   * An I/O operation that may fail.
+   */
+  @FunctionalInterface
+  private interface IoTask {
+    void run() throws IOException;
+  }
+
+}
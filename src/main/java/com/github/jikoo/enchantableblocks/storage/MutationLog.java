@@ -0,0 +1,466 @@
+package com.github.jikoo.enchantableblocks.storage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * An append-only log of block mutations.
+ *
+ * <p>Mutations are buffered in memory and written sequentially to the active log file, which is
+ * synced to disk in batches on a fixed interval. Each entry is checksummed, so a write torn by a
+ * crash is detected and discarded on replay. Appending never waits for disk I/O; buffered entries
+ * are handed off before being written.
+ *
+ * <p>The active file may be rotated into a numbered segment. Rotation only marks the end of the
+ * segment; it is written and moved into place by the next sync. Once the data in a segment has been
+ * persisted elsewhere, the segment can be deleted.
+ */
+public final class MutationLog implements Closeable {
+
+  private static final String ACTIVE_NAME = "mutations.log";
+  private static final Pattern SEGMENT_NAME = Pattern.compile("^mutations\\.(\\d+)\\.log$");
+  private static final int MAX_ENTRY_LENGTH = 1 << 24;
+
+  private final @NotNull Path directory;
+  private final @NotNull Logger logger;
+  private final @Nullable ScheduledExecutorService syncExecutor;
+  // Guards buffered entries. Never held during disk I/O.
+  private final @NotNull Object lock = new Object();
+  private final @NotNull ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  private final @NotNull DataOutputStream bufferOutput = new DataOutputStream(buffer);
+  private final @NotNull ByteArrayOutputStream entry = new ByteArrayOutputStream();
+  private final @NotNull DataOutputStream entryOutput = new DataOutputStream(entry);
+  private final @NotNull CRC32 crc = new CRC32();
+  private final @NotNull Deque<Rotation> rotations = new ArrayDeque<>();
+  private long size;
+  private long nextSegment;
+  // Guards log files.
+  private final @NotNull Object writeLock = new Object();
+  private final @NotNull ByteArrayOutputStream unwritten = new ByteArrayOutputStream();
+  private @Nullable FileChannel channel;
+
+  /**
+   * Construct a new {@code MutationLog} synced on a dedicated thread.
+   *
+   * @param directory the directory containing log files
+   * @param syncInterval the interval between syncs in milliseconds
+   * @param logger the {@link Logger} used to report failed syncs
+   * @throws IOException if existing log files cannot be read
+   */
+  public MutationLog(
+      @NotNull Path directory,
+      long syncInterval,
+      @NotNull Logger logger) throws IOException {
+    this(directory, logger, Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "EnchantableBlocks Mutation Log");
+      thread.setDaemon(true);
+      return thread;
+    }));
+    syncExecutor.scheduleWithFixedDelay(
+        this::syncQuietly,
+        syncInterval,
+        syncInterval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @VisibleForTesting
+  MutationLog(
+      @NotNull Path directory,
+      @NotNull Logger logger,
+      @Nullable ScheduledExecutorService syncExecutor) throws IOException {
+    this.directory = directory;
+    this.logger = logger;
+    this.syncExecutor = syncExecutor;
+
+    List<Long> segments = listSegments();
+    this.nextSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1;
+
+    Path active = getActiveFile();
+    this.size = Files.exists(active) ? Files.size(active) : 0;
+  }
+
+  /**
+   * Append a {@link Mutation}. The mutation is persisted by the next sync.
+   *
+   * @param mutation the {@code Mutation}
+   */
+  public void append(@NotNull Mutation mutation) {
+    synchronized (lock) {
+      try {
+        entry.reset();
+        entryOutput.writeUTF(mutation.worldName());
+        entryOutput.writeInt(mutation.x());
+        entryOutput.writeInt(mutation.y());
+        entryOutput.writeInt(mutation.z());
+        byte[] data = mutation.data();
+        if (data == null) {
+          entryOutput.writeInt(-1);
+        } else {
+          entryOutput.writeInt(data.length);
+          entryOutput.write(data);
+        }
+        entryOutput.flush();
+
+        crc.reset();
+        crc.update(entry.toByteArray());
+
+        bufferOutput.writeInt(entry.size());
+        bufferOutput.writeInt((int) crc.getValue());
+        entry.writeTo(bufferOutput);
+        bufferOutput.flush();
+        size += 8L + entry.size();
+      } catch (IOException e) {
+        // In-memory streams do not throw.
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  /**
+   * Get the size of the active log in bytes, including entries not yet synced.
+   *
+   * @return the size of the active log
+   */
+  public long size() {
+    synchronized (lock) {
+      return size;
+    }
+  }
+
+  /**
+   * Write all buffered entries and force them to disk, completing any pending rotations.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void sync() throws IOException {
+    synchronized (writeLock) {
+      // Entries left by a failed write precede any rotation requested since.
+      if (unwritten.size() > 0) {
+        write(unwritten.toByteArray());
+        unwritten.reset();
+      }
+
+      Rotation rotation;
+      while ((rotation = peekRotation()) != null) {
+        write(rotation.data);
+        rotation.data = new byte[0];
+        closeChannel();
+        Path active = getActiveFile();
+        if (Files.exists(active)) {
+          Files.move(active, getSegmentFile(rotation.segment), StandardCopyOption.ATOMIC_MOVE);
+        }
+        synchronized (lock) {
+          rotations.poll();
+        }
+      }
+
+      synchronized (lock) {
+        // Hand off buffered entries so that appending does not wait for the write.
+        buffer.writeTo(unwritten);
+        buffer.reset();
+      }
+      if (unwritten.size() > 0) {
+        write(unwritten.toByteArray());
+        unwritten.reset();
+      }
+    }
+  }
+
+  private @Nullable Rotation peekRotation() {
+    synchronized (lock) {
+      return rotations.peek();
+    }
+  }
+
+  private void write(byte @NotNull [] data) throws IOException {
+    if (data.length == 0) {
+      return;
+    }
+
+    FileChannel fileChannel = channel;
+    if (fileChannel == null) {
+      Files.createDirectories(directory);
+      fileChannel = FileChannel.open(
+          getActiveFile(),
+          StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.APPEND);
+      channel = fileChannel;
+    }
+
+    ByteBuffer bytes = ByteBuffer.wrap(data);
+    while (bytes.hasRemaining()) {
+      fileChannel.write(bytes);
+    }
+    fileChannel.force(false);
+  }
+
+  private void syncQuietly() {
+    try {
+      sync();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, e, e::getMessage);
+    }
+  }
+
+  /**
+   * End the active log, moving it into a new segment. Later entries are written to a new active
+   * log. The segment is written by the next sync, which is started immediately.
+   *
+   * @return the number of the new segment or {@code -1} if the active log was empty
+   * @throws IOException if an I/O error occurs while syncing without a sync thread
+   */
+  public long rotate() throws IOException {
+    long segment;
+    synchronized (lock) {
+      if (size == 0) {
+        return -1;
+      }
+
+      segment = nextSegment++;
+      rotations.add(new Rotation(segment, buffer.toByteArray()));
+      buffer.reset();
+      size = 0;
+    }
+
+    if (syncExecutor == null) {
+      sync();
+    } else {
+      try {
+        syncExecutor.execute(this::syncQuietly);
+      } catch (RejectedExecutionException e) {
+        // Shutting down; the segment is written when the log is closed.
+      }
+    }
+    return segment;
+  }
+
+  /**
+   * Delete all segments up to and including the specified segment. Pending rotations are
+   * completed first so that no deleted segment is written later.
+   *
+   * @param segment the number of the last segment to delete
+   * @throws IOException if an I/O error occurs
+   */
+  public void deleteSegments(long segment) throws IOException {
+    sync();
+    deleteSegmentFiles(segment);
+  }
+
+  private void deleteSegmentFiles(long segment) throws IOException {
+    for (long existing : listSegments()) {
+      if (existing <= segment) {
+        Files.deleteIfExists(getSegmentFile(existing));
+      }
+    }
+  }
+
+  /**
+   * Read all logged {@link Mutation Mutations} in the order they were appended. Entries not yet
+   * synced are not included.
+   *
+   * <p>Reading a file stops at the first incomplete or corrupt entry.
+   *
+   * @param consumer the consumer of {@code Mutations}
+   * @throws IOException if an I/O error occurs
+   */
+  public void replay(@NotNull Consumer<@NotNull Mutation> consumer) throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (long segment : listSegments()) {
+      files.add(getSegmentFile(segment));
+    }
+    Path active = getActiveFile();
+    if (Files.exists(active)) {
+      files.add(active);
+    }
+
+    for (Path file : files) {
+      try (InputStream stream = new BufferedInputStream(Files.newInputStream(file))) {
+        replay(file, new DataInputStream(stream), consumer);
+      }
+    }
+  }
+
+  private void replay(
+      @NotNull Path file,
+      @NotNull DataInputStream input,
+      @NotNull Consumer<@NotNull Mutation> consumer) throws IOException {
+    CRC32 checksum = new CRC32();
+    while (true) {
+      byte[] data;
+      try {
+        int length = input.readInt();
+        int expected = input.readInt();
+        if (length < 0 || length > MAX_ENTRY_LENGTH) {
+          logger.warning(() -> "Discarding corrupt entries at end of " + file);
+          return;
+        }
+        data = new byte[length];
+        input.readFully(data);
+        checksum.reset();
+        checksum.update(data);
+        if ((int) checksum.getValue() != expected) {
+          logger.warning(() -> "Discarding corrupt entries at end of " + file);
+          return;
+        }
+      } catch (EOFException e) {
+        // End of log, possibly with an incomplete entry from an interrupted write.
+        return;
+      }
+
+      consumer.accept(readMutation(new DataInputStream(new ByteArrayInputStream(data))));
+    }
+  }
+
+  private static @NotNull Mutation readMutation(@NotNull DataInputStream input)
+      throws IOException {
+    String worldName = input.readUTF();
+    int x = input.readInt();
+    int y = input.readInt();
+    int z = input.readInt();
+    int length = input.readInt();
+    byte[] data = null;
+    if (length >= 0) {
+      data = new byte[length];
+      input.readFully(data);
+    }
+    return new Mutation(worldName, x, y, z, data);
+  }
+
+  /**
+   * Delete all log files. Buffered entries are discarded.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void clear() throws IOException {
+    synchronized (writeLock) {
+      synchronized (lock) {
+        buffer.reset();
+        rotations.clear();
+        size = 0;
+      }
+      unwritten.reset();
+      closeChannel();
+      deleteSegmentFiles(Long.MAX_VALUE);
+      Files.deleteIfExists(getActiveFile());
+    }
+  }
+
+  /**
+   * Stop syncing, then sync and close the active log.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void close() throws IOException {
+    if (syncExecutor != null) {
+      syncExecutor.shutdown();
+    }
+    synchronized (writeLock) {
+      sync();
+      closeChannel();
+    }
+  }
+
+  private void closeChannel() throws IOException {
+    if (channel != null) {
+      channel.close();
+      channel = null;
+    }
+  }
+
+  private @NotNull List<Long> listSegments() throws IOException {
+    List<Long> segments = new ArrayList<>();
+    if (!Files.isDirectory(directory)) {
+      return segments;
+    }
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        if (matcher.matches()) {
+          try {
+            segments.add(Long.parseLong(matcher.group(1)));
+          } catch (NumberFormatException e) {
+            // Not a segment we created.
+          }
+        }
+      }
+    }
+
+    segments.sort(Comparator.naturalOrder());
+    return segments;
+  }
+
+  private @NotNull Path getActiveFile() {
+    return directory.resolve(ACTIVE_NAME);
+  }
+
+  private @NotNull Path getSegmentFile(long segment) {
+    return directory.resolve("mutations." + segment + ".log");
+  }
+
+  /**
+   * A change to a single block.
+   *
+   * @param worldName the name of the world containing the block
+   * @param x the X coordinate of the block
+   * @param y the Y coordinate of the block
+   * @param z the Z coordinate of the block
+   * @param data the encoded block data or {@code null} if the block was removed
+   */
+  public record Mutation(
+      @NotNull String worldName,
+      int x,
+      int y,
+      int z,
+      byte @Nullable [] data) {}
+
+  /**
+   * Entries ending the active log that are to be moved into a segment.
+   */
+  private static final class Rotation {
+
+    private final long segment;
+    private byte @NotNull [] data;
+
+    private Rotation(long segment, byte @NotNull [] data) {
+      this.segment = segment;
+      this.data = data;
+    }
+
+  }
+
+}
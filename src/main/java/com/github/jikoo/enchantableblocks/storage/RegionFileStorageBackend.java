@@ -0,0 +1,250 @@
+package com.github.jikoo.enchantableblocks.storage;
+
+import com.github.jikoo.enchantableblocks.util.AtomicFileWriter;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import com.google.common.util.concurrent.Striped;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The default {@link StorageBackend}, storing each {@link Region} in its own file at
+ * {@code <dataDir>/<world>/<x>_<z>.<extension>}.
+ *
+ * <p>Files may be written in any {@link RegionStorage.Format}. Files in other formats are read
+ * transparently and replaced when next saved. Files are replaced atomically with an
+ * {@link AtomicFileWriter}, so an interrupted save never corrupts existing data.
+ *
+ * <p>The data directory is scanned on construction to build a {@link RegionIndex}, which is then
+ * kept up to date by saves and deletions. Checking for data in a region without any only probes
+ * the index. Files added to the data directory by other means are not detected.
+ */
+public class RegionFileStorageBackend implements StorageBackend {
+
+  private static final Pattern FILE_NAME = Pattern.compile("^(-?\\d+)_(-?\\d+)\\.(\\w+)$");
+
+  private final @NotNull Path dataDir;
+  private final @NotNull RegionStorage.Format format;
+  private final @NotNull Striped<ReadWriteLock> locks = Striped.readWriteLock(64);
+  private final @NotNull AtomicFileWriter writer = new AtomicFileWriter();
+  private final @NotNull Object indexLock = new Object();
+  private volatile @Nullable RegionIndex index;
+
+  /**
+   * Construct a new {@code RegionFileStorageBackend}.
+   *
+   * @param dataDir the directory containing data
+   * @param format the format used to write data
+   */
+  public RegionFileStorageBackend(@NotNull Path dataDir, @NotNull RegionStorage.Format format) {
+    this.dataDir = dataDir;
+    this.format = format;
+
+    // Build the index up front so that the first loads do not pay for the scan.
+    try {
+      this.index = scan();
+    } catch (IOException e) {
+      // The scan is retried and the failure reported when the index is first needed.
+    }
+  }
+
+  /**
+   * Get the directory containing data.
+   *
+   * @return the data directory
+   */
+  public @NotNull Path getDataDir() {
+    return dataDir;
+  }
+
+  /**
+   * Get the {@link RegionStorage.Format} used to write data.
+   *
+   * @return the format
+   */
+  public @NotNull RegionStorage.Format getFormat() {
+    return format;
+  }
+
+  @Override
+  public @NotNull RegionStorage create(@NotNull Region region) {
+    return new RegionStorage(dataDir, region, format, writer);
+  }
+
+  @Override
+  public @Nullable RegionStorage load(@NotNull Region region)
+      throws IOException, InvalidConfigurationException {
+    RegionIndex regionIndex = getIndex();
+    if (!regionIndex.contains(region)) {
+      return null;
+    }
+
+    Lock lock = locks.get(region).readLock();
+    lock.lock();
+    try {
+      // The index is authoritative, so read directly rather than probing for files first.
+      RegionStorage storage = create(region);
+      if (!storage.loadIfPresent()) {
+        // Removed by other means.
+        regionIndex.remove(region);
+        return null;
+      }
+      return storage;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void save(@NotNull RegionStorage storage) throws IOException {
+    Lock lock = locks.get(storage.getRegion()).writeLock();
+    lock.lock();
+    try {
+      storage.save();
+      updateIndex(storage.getRegion(), true);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void delete(@NotNull Region region) throws IOException {
+    Lock lock = locks.get(region).writeLock();
+    lock.lock();
+    try {
+      create(region).delete();
+      updateIndex(region, false);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public @NotNull Collection<@NotNull Region> listRegions() throws IOException {
+    return getIndex().getRegions();
+  }
+
+  @Override
+  public int getRegionCount() {
+    RegionIndex value = index;
+    return value == null ? -1 : value.size();
+  }
+
+  /**
+   * Get the {@link RegionIndex} of regions with stored data, building it if the initial scan
+   * failed.
+   *
+   * @return the {@code RegionIndex}
+   * @throws IOException if there is an issue scanning the data directory
+   */
+  public @NotNull RegionIndex getIndex() throws IOException {
+    RegionIndex value = index;
+    if (value != null) {
+      return value;
+    }
+
+    synchronized (indexLock) {
+      value = index;
+      if (value == null) {
+        value = scan();
+        index = value;
+      }
+      return value;
+    }
+  }
+
+  private void updateIndex(@NotNull Region region, boolean present) {
+    // Saves and deletions wait for a scan in progress so that changes are not lost.
+    synchronized (indexLock) {
+      RegionIndex value = index;
+      if (value == null) {
+        // Changes are picked up when the index is built.
+        return;
+      }
+      if (present) {
+        value.add(region);
+      } else {
+        value.remove(region);
+      }
+    }
+  }
+
+  private @NotNull RegionIndex scan() throws IOException {
+    RegionIndex regions = new RegionIndex();
+    if (!Files.isDirectory(dataDir)) {
+      return regions;
+    }
+
+    try (DirectoryStream<Path> worldDirs = Files.newDirectoryStream(dataDir, Files::isDirectory)) {
+      for (Path worldDir : worldDirs) {
+        String worldName = worldDir.getFileName().toString();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(worldDir)) {
+          for (Path file : files) {
+            Region region = parseRegion(worldName, file.getFileName().toString());
+            if (region != null) {
+              regions.add(region);
+            }
+          }
+        }
+      }
+    }
+    return regions;
+  }
+
+  @Override
+  public void beginGroupCommit() {
+    writer.beginGroupCommit();
+  }
+
+  @Override
+  public void commit() {
+    writer.commit();
+  }
+
+  @Override
+  public void sync() {
+    writer.sync();
+  }
+
+  /**
+   * Parse a {@link Region} from a file name.
+   *
+   * @param worldName the name of the world the file belongs to
+   * @param fileName the name of the file
+   * @return the {@code Region} or {@code null} if the file is not region data
+   */
+  static @Nullable Region parseRegion(@NotNull String worldName, @NotNull String fileName) {
+    Matcher matcher = FILE_NAME.matcher(fileName);
+    if (!matcher.matches()) {
+      return null;
+    }
+
+    String extension = matcher.group(3);
+    for (RegionStorage.Format value : RegionStorage.Format.values()) {
+      if (value.getExtension().equals(extension)) {
+        try {
+          return new Region(
+              worldName,
+              Integer.parseInt(matcher.group(1)),
+              Integer.parseInt(matcher.group(2)));
+        } catch (NumberFormatException e) {
+          // Out of range for an integer.
+          return null;
+        }
+      }
+    }
+
+    return null;
+  }
+
+}
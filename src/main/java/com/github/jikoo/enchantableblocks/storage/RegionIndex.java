@@ -0,0 +1,87 @@
+package com.github.jikoo.enchantableblocks.storage;
+
+import com.github.jikoo.enchantableblocks.util.Region;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An in-memory index of the {@link Region Regions} with stored data, grouped by world.
+ *
+ * <p>The index is thread-safe. It is maintained by its {@link StorageBackend}, so checking for
+ * data does not require accessing storage.
+ */
+public final class RegionIndex {
+
+  private final @NotNull Map<String, Set<Region>> worlds = new ConcurrentHashMap<>();
+
+  RegionIndex() {}
+
+  /**
+   * Check if a {@link Region} has stored data.
+   *
+   * @param region the {@code Region}
+   * @return true if data is stored
+   */
+  public boolean contains(@NotNull Region region) {
+    Set<Region> regions = worlds.get(region.worldName());
+    return regions != null && regions.contains(region);
+  }
+
+  /**
+   * Get the total number of {@link Region Regions} with stored data.
+   *
+   * @return the number of regions
+   */
+  public int size() {
+    return worlds.values().stream().mapToInt(Set::size).sum();
+  }
+
+  /**
+   * Get the number of {@link Region Regions} with stored data in a world.
+   *
+   * @param worldName the name of the world
+   * @return the number of regions
+   */
+  public int size(@NotNull String worldName) {
+    Set<Region> regions = worlds.get(worldName);
+    return regions == null ? 0 : regions.size();
+  }
+
+  /**
+   * Get the names of all worlds that have had stored data. The returned set is an unmodifiable
+   * view.
+   *
+   * @return the world names
+   */
+  public @NotNull Set<String> getWorlds() {
+    return Collections.unmodifiableSet(worlds.keySet());
+  }
+
+  /**
+   * Get a copy of all {@link Region Regions} with stored data.
+   *
+   * @return the regions
+   */
+  public @NotNull Collection<@NotNull Region> getRegions() {
+    Collection<Region> regions = new ArrayList<>();
+    worlds.values().forEach(regions::addAll);
+    return regions;
+  }
+
+  void add(@NotNull Region region) {
+    worlds.computeIfAbsent(region.worldName(), key -> ConcurrentHashMap.newKeySet()).add(region);
+  }
+
+  void remove(@NotNull Region region) {
+    Set<Region> regions = worlds.get(region.worldName());
+    if (regions != null) {
+      regions.remove(region);
+    }
+  }
+
+}
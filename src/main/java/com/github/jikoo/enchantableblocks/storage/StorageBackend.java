@@ -0,0 +1,106 @@
+package com.github.jikoo.enchantableblocks.storage;
+
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import java.io.IOException;
+import java.util.Collection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A persistent store for per-{@link Region} block data.
+ *
+ * <p>Implementations must be thread-safe. Operations on different regions must not interfere
+ * with each other, and a load running concurrently with a save of the same region must observe
+ * either the previous or the new data in full, never a mix of the two.
+ *
+ * <p>Implementations should be verified against the contract test suite.
+ */
+public interface StorageBackend {
+
+  /**
+   * Create a new empty {@link RegionStorage} for a {@link Region}. Nothing is persisted until the
+   * storage is {@link #save saved}.
+   *
+   * @param region the {@code Region}
+   * @return the empty {@code RegionStorage}
+   */
+  @NotNull RegionStorage create(@NotNull Region region);
+
+  /**
+   * Load stored data for a {@link Region}.
+   *
+   * @param region the {@code Region}
+   * @return the {@link RegionStorage} or {@code null} if no data is stored
+   * @throws IOException if there is an issue reading the data
+   * @throws InvalidConfigurationException if the stored data is not valid
+   */
+  @Nullable RegionStorage load(@NotNull Region region)
+      throws IOException, InvalidConfigurationException;
+
+  /**
+   * Save data for a {@link Region}, replacing any existing data.
+   *
+   * <p>The {@link RegionStorage} must have been obtained from this backend.
+   *
+   * @param storage the {@code RegionStorage} to save
+   * @throws IOException if there is an issue writing the data
+   */
+  void save(@NotNull RegionStorage storage) throws IOException;
+
+  /**
+   * Delete stored data for a {@link Region}. Deleting a region with no data does nothing.
+   *
+   * @param region the {@code Region}
+   * @throws IOException if there is an issue deleting the data
+   */
+  void delete(@NotNull Region region) throws IOException;
+
+  /**
+   * List all {@link Region Regions} with stored data.
+   *
+   * @return the {@code Regions}
+   * @throws IOException if there is an issue listing the data
+   */
+  @NotNull Collection<@NotNull Region> listRegions() throws IOException;
+
+  /**
+   * Get the number of {@link Region Regions} with stored data if it is known without accessing
+   * storage.
+   *
+   * <p>By default, the number is not known.
+   *
+   * @return the number of {@code Regions} or {@code -1} if unknown
+   */
+  default int getRegionCount() {
+    return -1;
+  }
+
+  /**
+   * Begin a group commit. Until {@link #commit()} is called, saves and deletions may be deferred
+   * from being made durable so that a batch of regions can be synced to disk together.
+   *
+   * <p>Data written during a group commit must still be visible to subsequent loads.
+   *
+   * <p>By default, every write is durable on completion and this does nothing.
+   */
+  default void beginGroupCommit() {}
+
+  /**
+   * Make all writes since the group commit began durable and end the group commit. If no group
+   * commit is in progress, this does nothing.
+   *
+   * @throws IOException if there is an issue syncing the data
+   */
+  default void commit() throws IOException {}
+
+  /**
+   * Make all writes made so far durable. Unlike {@link #commit()}, a group commit in progress
+   * continues, and later writes are still grouped.
+   *
+   * @throws IOException if there is an issue syncing the data
+   */
+  default void sync() throws IOException {}
+
+}
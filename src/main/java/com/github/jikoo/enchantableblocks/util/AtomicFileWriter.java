@@ -0,0 +1,194 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A writer that replaces files atomically.
+ *
+ * <p>Content is written to a temporary file in the same directory, synced to disk, and then moved
+ * over the destination. A crash at any point leaves either the previous or the new file intact.
+ *
+ * <p>During a group commit, syncing directories is deferred until {@link #sync()} or
+ * {@link #commit()} so that a large number of files in the same directory share a single directory
+ * sync. File content is always synced before it replaces the destination.
+ */
+public final class AtomicFileWriter {
+
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private final @NotNull Set<Path> directories = ConcurrentHashMap.newKeySet();
+  private final @NotNull Object lock = new Object();
+  private final @NotNull Set<Path> uncommittedDirectories = new LinkedHashSet<>();
+  private boolean grouping = false;
+
+  /**
+   * Atomically replace the content of a file.
+   *
+   * @param file the file to write
+   * @param content the writer of the new content
+   * @throws IOException if there is an issue writing the file
+   */
+  public void write(@NotNull Path file, @NotNull ContentWriter content) throws IOException {
+    Path target = file.toAbsolutePath().normalize();
+    Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+
+    try (FileChannel channel = openTemp(temp)) {
+      OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel));
+      content.write(output);
+      output.flush();
+      // Content must be durable before it replaces the previous file.
+      channel.force(true);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+
+    move(temp, target);
+    syncDirectoryLater(target.getParent());
+  }
+
+  /**
+   * Delete a file.
+   *
+   * @param file the file to delete
+   * @throws IOException if there is an issue deleting the file
+   */
+  public void delete(@NotNull Path file) throws IOException {
+    Path target = file.toAbsolutePath().normalize();
+    if (!Files.deleteIfExists(target)) {
+      return;
+    }
+
+    syncDirectoryLater(target.getParent());
+  }
+
+  /**
+   * Begin a group commit. Directory entries are not synced to disk until the group is
+   * {@link #sync() synced} or {@link #commit() committed}.
+   *
+   * <p>Written files are immediately readable. Until synced, a crash may leave either the previous
+   * or the new file in place, but never a partial file.
+   */
+  public void beginGroupCommit() {
+    synchronized (lock) {
+      grouping = true;
+    }
+  }
+
+  /**
+   * Sync all writes made since the group commit began to disk and end the group commit. If no
+   * group commit is in progress, this does nothing.
+   */
+  public void commit() {
+    synchronized (lock) {
+      grouping = false;
+    }
+    sync();
+  }
+
+  /**
+   * Sync all writes made so far to disk. Unlike {@link #commit()}, a group commit in progress
+   * continues.
+   */
+  public void sync() {
+    Set<Path> parents;
+    synchronized (lock) {
+      parents = new LinkedHashSet<>(uncommittedDirectories);
+      uncommittedDirectories.clear();
+    }
+
+    for (Path parent : parents) {
+      syncDirectory(parent);
+    }
+  }
+
+  private void syncDirectoryLater(@NotNull Path directory) {
+    synchronized (lock) {
+      if (grouping) {
+        uncommittedDirectories.add(directory);
+        return;
+      }
+    }
+    syncDirectory(directory);
+  }
+
+  private @NotNull FileChannel openTemp(@NotNull Path temp) throws IOException {
+    Path directory = temp.getParent();
+    if (directories.add(directory)) {
+      try {
+        Files.createDirectories(directory);
+      } catch (IOException e) {
+        directories.remove(directory);
+        throw e;
+      }
+    }
+
+    try {
+      return openTruncated(temp);
+    } catch (NoSuchFileException e) {
+      // Directory was removed since it was created.
+      Files.createDirectories(directory);
+      return openTruncated(temp);
+    }
+  }
+
+  private static @NotNull FileChannel openTruncated(@NotNull Path file) throws IOException {
+    return FileChannel.open(
+        file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE);
+  }
+
+  private static void move(@NotNull Path source, @NotNull Path target) throws IOException {
+    try {
+      Files.move(
+          source,
+          target,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      // Best effort for file systems that cannot replace atomically.
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static void syncDirectory(@NotNull Path directory) {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // Not all platforms support syncing directories. Entries are still persisted by the OS.
+    }
+  }
+
+  /**
+   * A writer of file content.
+   */
+  @FunctionalInterface
+  public interface ContentWriter {
+
+    /**
+     * Write content.
+     *
+     * @param output the {@link OutputStream} to write to
+     * @throws IOException if there is an issue writing
+     */
+    void write(@NotNull OutputStream output) throws IOException;
+
+  }
+
+}
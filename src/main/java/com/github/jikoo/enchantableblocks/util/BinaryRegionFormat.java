@@ -0,0 +1,420 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import com.github.jikoo.planarwrappers.util.Coords;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * A compact binary encoding for region data.
+ *
+ * <p>Data is expected to be laid out the same as the YAML format, i.e. chunk sections keyed by
+ * {@code <chunkX>_<chunkZ>} containing block sections keyed by {@code <x>_<y>_<z>}. Each block
+ * section contains an {@link ItemStack} at {@code itemstack} and any number of
+ * implementation-specific values.
+ *
+ * <p>The file consists of a header, a table of the distinct items in the region, and one
+ * length-prefixed record per block. A record contains the packed block coordinates, the index of
+ * its item in the table, and the remaining block values. Most blocks are created from a handful of
+ * identical items, so each item is only stored once per file. Entries that do not follow the
+ * expected layout cannot be represented and are not written.
+ *
+ * <p>Files written before the item table was introduced store the serialized item in each record
+ * and remain readable.
+ */
+public final class BinaryRegionFormat {
+
+  private static final int MAGIC = 0x45425247; // "EBRG"
+  private static final int VERSION = 2;
+  private static final int VERSION_INLINE_ITEMS = 1;
+  private static final String PATH_ITEM = "itemstack";
+  private static final int NO_ITEM = -1;
+  private static final int VALUES_ONLY = -2;
+
+  private static final byte TYPE_BOOLEAN = 0;
+  private static final byte TYPE_INT = 1;
+  private static final byte TYPE_LONG = 2;
+  private static final byte TYPE_DOUBLE = 3;
+  private static final byte TYPE_STRING = 4;
+  private static final byte TYPE_OBJECT = 5;
+
+  /**
+   * Write region data.
+   *
+   * @param root the root section of the region data
+   * @param outputStream the stream to write to
+   * @throws IOException if an I/O error occurs
+   */
+  public static void write(
+      @NotNull ConfigurationSection root,
+      @NotNull OutputStream outputStream) throws IOException {
+    List<Map.Entry<Long, ConfigurationSection>> blocks = new ArrayList<>();
+    Map<ItemStack, Integer> items = new LinkedHashMap<>();
+
+    for (String chunkKey : root.getKeys(false)) {
+      ConfigurationSection chunkSection = root.getConfigurationSection(chunkKey);
+      if (chunkSection == null) {
+        continue;
+      }
+
+      for (String blockKey : chunkSection.getKeys(false)) {
+        ConfigurationSection blockSection = chunkSection.getConfigurationSection(blockKey);
+        int[] coords = parseBlockKey(blockKey);
+        if (blockSection == null || coords == null) {
+          continue;
+        }
+
+        blocks.add(Map.entry(pack(coords[0], coords[1], coords[2]), blockSection));
+        ItemStack itemStack = blockSection.getItemStack(PATH_ITEM);
+        if (itemStack != null) {
+          items.putIfAbsent(itemStack, items.size());
+        }
+      }
+    }
+
+    DataOutputStream output = new DataOutputStream(outputStream);
+    output.writeInt(MAGIC);
+    output.writeByte(VERSION);
+
+    output.writeInt(items.size());
+    for (ItemStack itemStack : items.keySet()) {
+      byte[] itemBytes = serialize(itemStack);
+      output.writeInt(itemBytes.length);
+      output.write(itemBytes);
+    }
+
+    ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+    DataOutputStream record = new DataOutputStream(recordBytes);
+
+    for (Map.Entry<Long, ConfigurationSection> block : blocks) {
+      recordBytes.reset();
+      record.writeLong(block.getKey());
+      ItemStack itemStack = block.getValue().getItemStack(PATH_ITEM);
+      record.writeInt(itemStack == null ? -1 : items.get(itemStack));
+      writeValues(record, block.getValue());
+      record.flush();
+
+      output.writeInt(recordBytes.size());
+      recordBytes.writeTo(output);
+    }
+
+    output.flush();
+  }
+
+  /**
+   * Encode the values of a single block section without its coordinates.
+   *
+   * @param blockSection the block section
+   * @return the encoded block
+   * @throws IOException if a value cannot be serialized
+   */
+  public static byte @NotNull [] encodeBlock(@NotNull ConfigurationSection blockSection)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(bytes);
+    writeBlock(output, blockSection);
+    output.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Encode the values of a single block section other than its item. Unlike a block encoded by
+   * {@link #encodeBlock}, the values are meant to be merged over existing block data.
+   *
+   * @param blockSection the block section
+   * @return the encoded values
+   * @throws IOException if a value cannot be serialized
+   * @see #isValuesOnly(byte[])
+   */
+  public static byte @NotNull [] encodeValues(@NotNull ConfigurationSection blockSection)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream output = new DataOutputStream(bytes);
+    output.writeInt(VALUES_ONLY);
+    writeValues(output, blockSection);
+    output.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Check if data was encoded by {@link #encodeValues} rather than {@link #encodeBlock}. Either
+   * may be decoded by {@link #decodeBlock}.
+   *
+   * @param data the encoded data
+   * @return true if the data only contains values to be merged over existing block data
+   */
+  public static boolean isValuesOnly(byte @NotNull [] data) {
+    return data.length >= Integer.BYTES
+        && ((data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16 | (data[2] & 0xFF) << 8
+            | data[3] & 0xFF) == VALUES_ONLY;
+  }
+
+  private static void writeBlock(
+      @NotNull DataOutputStream record,
+      @NotNull ConfigurationSection blockSection) throws IOException {
+    ItemStack itemStack = blockSection.getItemStack(PATH_ITEM);
+    if (itemStack == null) {
+      record.writeInt(NO_ITEM);
+    } else {
+      byte[] itemBytes = serialize(itemStack);
+      record.writeInt(itemBytes.length);
+      record.write(itemBytes);
+    }
+
+    writeValues(record, blockSection);
+  }
+
+  private static void writeValues(
+      @NotNull DataOutputStream record,
+      @NotNull ConfigurationSection blockSection) throws IOException {
+    Map<String, Object> values = blockSection.getValues(true);
+    values.remove(PATH_ITEM);
+    values.values().removeIf(value -> value == null || value instanceof ConfigurationSection);
+
+    record.writeShort(values.size());
+    for (Map.Entry<String, Object> entry : values.entrySet()) {
+      record.writeUTF(entry.getKey());
+      writeValue(record, entry.getValue());
+    }
+  }
+
+  private static void writeValue(
+      @NotNull DataOutputStream record,
+      @NotNull Object value) throws IOException {
+    if (value instanceof Boolean bool) {
+      record.writeByte(TYPE_BOOLEAN);
+      record.writeBoolean(bool);
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      record.writeByte(TYPE_INT);
+      record.writeInt(((Number) value).intValue());
+    } else if (value instanceof Long longValue) {
+      record.writeByte(TYPE_LONG);
+      record.writeLong(longValue);
+    } else if (value instanceof Double || value instanceof Float) {
+      record.writeByte(TYPE_DOUBLE);
+      record.writeDouble(((Number) value).doubleValue());
+    } else if (value instanceof String string) {
+      record.writeByte(TYPE_STRING);
+      record.writeUTF(string);
+    } else {
+      byte[] bytes = serialize(value);
+      record.writeByte(TYPE_OBJECT);
+      record.writeInt(bytes.length);
+      record.write(bytes);
+    }
+  }
+
+  /**
+   * Read region data.
+   *
+   * @param inputStream the stream to read from
+   * @param root the root section to populate
+   * @throws IOException if an I/O error occurs or the data is not valid
+   */
+  public static void read(
+      @NotNull InputStream inputStream,
+      @NotNull ConfigurationSection root) throws IOException {
+    DataInputStream input = new DataInputStream(inputStream);
+
+    if (input.readInt() != MAGIC) {
+      throw new IOException("Not a binary region file!");
+    }
+    int version = input.readUnsignedByte();
+    if (version != VERSION && version != VERSION_INLINE_ITEMS) {
+      throw new IOException("Unsupported binary region version " + version);
+    }
+
+    ItemStack[] items = null;
+    if (version == VERSION) {
+      items = new ItemStack[input.readInt()];
+      for (int i = 0; i < items.length; ++i) {
+        byte[] itemBytes = new byte[input.readInt()];
+        input.readFully(itemBytes);
+        if (deserialize(itemBytes) instanceof ItemStack itemStack) {
+          items[i] = itemStack;
+        }
+      }
+    }
+
+    while (true) {
+      int length;
+      try {
+        length = input.readInt();
+      } catch (EOFException e) {
+        // End of records.
+        return;
+      }
+
+      byte[] recordBytes = new byte[length];
+      input.readFully(recordBytes);
+      readRecord(new DataInputStream(new ByteArrayInputStream(recordBytes)), root, items);
+    }
+  }
+
+  private static void readRecord(
+      @NotNull DataInputStream record,
+      @NotNull ConfigurationSection root,
+      @Nullable ItemStack @Nullable [] items) throws IOException {
+    long packed = record.readLong();
+    int x = unpackX(packed);
+    int y = unpackY(packed);
+    int z = unpackZ(packed);
+    String path = Coords.blockToChunk(x) + "_" + Coords.blockToChunk(z)
+        + '.' + x + '_' + y + '_' + z;
+    ConfigurationSection blockSection = root.createSection(path);
+
+    if (items == null) {
+      readBlock(record, blockSection);
+      return;
+    }
+
+    int itemIndex = record.readInt();
+    if (itemIndex >= items.length) {
+      throw new IOException("Unknown item " + itemIndex);
+    }
+    if (itemIndex >= 0 && items[itemIndex] != null) {
+      blockSection.set(PATH_ITEM, items[itemIndex]);
+    }
+    readValues(record, blockSection);
+  }
+
+  /**
+   * Decode the values of a single block section encoded by {@link #encodeBlock} or
+   * {@link #encodeValues}.
+   *
+   * @param data the encoded block
+   * @param blockSection the block section to populate
+   * @throws IOException if the data is not valid
+   */
+  public static void decodeBlock(
+      byte @NotNull [] data,
+      @NotNull ConfigurationSection blockSection) throws IOException {
+    readBlock(new DataInputStream(new ByteArrayInputStream(data)), blockSection);
+  }
+
+  private static void readBlock(
+      @NotNull DataInputStream record,
+      @NotNull ConfigurationSection blockSection) throws IOException {
+    int itemLength = record.readInt();
+    if (itemLength >= 0) {
+      byte[] itemBytes = new byte[itemLength];
+      record.readFully(itemBytes);
+      if (deserialize(itemBytes) instanceof ItemStack itemStack) {
+        blockSection.set(PATH_ITEM, itemStack);
+      }
+    }
+
+    readValues(record, blockSection);
+  }
+
+  private static void readValues(
+      @NotNull DataInputStream record,
+      @NotNull ConfigurationSection blockSection) throws IOException {
+    int valueCount = record.readUnsignedShort();
+    for (int i = 0; i < valueCount; ++i) {
+      String key = record.readUTF();
+      blockSection.set(key, readValue(record));
+    }
+  }
+
+  private static @Nullable Object readValue(@NotNull DataInputStream record) throws IOException {
+    byte type = record.readByte();
+    return switch (type) {
+      case TYPE_BOOLEAN -> record.readBoolean();
+      case TYPE_INT -> record.readInt();
+      case TYPE_LONG -> record.readLong();
+      case TYPE_DOUBLE -> record.readDouble();
+      case TYPE_STRING -> record.readUTF();
+      case TYPE_OBJECT -> {
+        byte[] bytes = new byte[record.readInt()];
+        record.readFully(bytes);
+        yield deserialize(bytes);
+      }
+      default -> throw new IOException("Unknown value type " + type);
+    };
+  }
+
+  private static byte @NotNull [] serialize(@NotNull Object value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (BukkitObjectOutputStream output = new BukkitObjectOutputStream(bytes)) {
+      output.writeObject(value);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static @Nullable Object deserialize(byte @NotNull [] bytes) throws IOException {
+    try (BukkitObjectInputStream input =
+        new BukkitObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return input.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Parse block coordinates from a block section key.
+   *
+   * @param blockKey the key in the format {@code <x>_<y>_<z>}
+   * @return the coordinates or {@code null} if the key is not valid
+   */
+  private static int @Nullable [] parseBlockKey(@NotNull String blockKey) {
+    String[] split = blockKey.split("_");
+    if (split.length != 3) {
+      return null;
+    }
+    try {
+      return new int[] {
+          Integer.parseInt(split[0]), Integer.parseInt(split[1]), Integer.parseInt(split[2]) };
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Pack block coordinates into a single {@code long}. X and Z use 26 bits and Y uses 12 bits,
+   * which covers the full range of valid block positions.
+   *
+   * @param x the X coordinate
+   * @param y the Y coordinate
+   * @param z the Z coordinate
+   * @return the packed coordinates
+   */
+  @VisibleForTesting
+  static long pack(int x, int y, int z) {
+    return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFFL);
+  }
+
+  @VisibleForTesting
+  static int unpackX(long packed) {
+    return (int) (packed >> 38);
+  }
+
+  @VisibleForTesting
+  static int unpackY(long packed) {
+    return (int) (packed << 52 >> 52);
+  }
+
+  @VisibleForTesting
+  static int unpackZ(long packed) {
+    return (int) (packed << 26 >> 38);
+  }
+
+  private BinaryRegionFormat() {}
+
+}
@@ -0,0 +1,181 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import com.github.jikoo.planarwrappers.util.Coords;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.bukkit.Chunk;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+/**
+ * A mapping of {@link Block Blocks} to values.
+ *
+ * <p>Each world maps packed chunk coordinates to a small open-addressed map of packed in-chunk
+ * block coordinates, so lookups do not box coordinates or allocate keys.
+ *
+ * <p>The index is not thread-safe.
+ *
+ * @param <V> the type of value
+ */
+public final class BlockIndex<V> {
+
+  private static final int EXPECTED_BLOCKS_PER_CHUNK = 4;
+
+  private final @NotNull Map<String, Long2ObjectOpenHashMap<Int2ObjectOpenHashMap<V>>> worlds =
+      new HashMap<>();
+
+  /**
+   * Get the value for a {@link Block}.
+   *
+   * @param block the {@code Block}
+   * @return the value or {@code null} if not set
+   */
+  public @Nullable V get(@NotNull Block block) {
+    Int2ObjectOpenHashMap<V> blocks = getChunk(
+        block.getWorld().getName(),
+        Coords.blockToChunk(block.getX()),
+        Coords.blockToChunk(block.getZ()));
+    if (blocks == null) {
+      return null;
+    }
+    return blocks.get(blockKey(block.getX(), block.getY(), block.getZ()));
+  }
+
+  /**
+   * Get all values in a chunk. The returned collection is an unmodifiable view.
+   *
+   * @param worldName the name of the world
+   * @param chunkX the chunk X coordinate
+   * @param chunkZ the chunk Z coordinate
+   * @return the values
+   */
+  public @NotNull Collection<V> get(
+      @NotNull String worldName,
+      int chunkX,
+      int chunkZ) {
+    Int2ObjectOpenHashMap<V> blocks = getChunk(worldName, chunkX, chunkZ);
+    if (blocks == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableCollection(blocks.values());
+  }
+
+  /**
+   * Check if a chunk contains any values. Chunks are dropped from the index as soon as their last
+   * value is removed, so this is a single lookup per level.
+   *
+   * @param worldName the name of the world
+   * @param chunkX the chunk X coordinate
+   * @param chunkZ the chunk Z coordinate
+   * @return true if the chunk contains at least one value
+   */
+  public boolean contains(@NotNull String worldName, int chunkX, int chunkZ) {
+    return getChunk(worldName, chunkX, chunkZ) != null;
+  }
+
+  /**
+   * Set the value for a {@link Block}.
+   *
+   * @param block the {@code Block}
+   * @param value the value
+   * @return the previous value or {@code null} if not set
+   */
+  public @Nullable V put(@NotNull Block block, @NotNull V value) {
+    Int2ObjectOpenHashMap<V> blocks = worlds
+        .computeIfAbsent(block.getWorld().getName(), name -> new Long2ObjectOpenHashMap<>())
+        .computeIfAbsent(
+            chunkKey(Coords.blockToChunk(block.getX()), Coords.blockToChunk(block.getZ())),
+            key -> new Int2ObjectOpenHashMap<>(EXPECTED_BLOCKS_PER_CHUNK));
+    return blocks.put(blockKey(block.getX(), block.getY(), block.getZ()), value);
+  }
+
+  /**
+   * Remove the value for a {@link Block}.
+   *
+   * @param block the {@code Block}
+   * @return the removed value or {@code null} if not set
+   */
+  public @Nullable V remove(@NotNull Block block) {
+    Long2ObjectOpenHashMap<Int2ObjectOpenHashMap<V>> chunks =
+        worlds.get(block.getWorld().getName());
+    if (chunks == null) {
+      return null;
+    }
+
+    long chunkKey =
+        chunkKey(Coords.blockToChunk(block.getX()), Coords.blockToChunk(block.getZ()));
+    Int2ObjectOpenHashMap<V> blocks = chunks.get(chunkKey);
+    if (blocks == null) {
+      return null;
+    }
+
+    V removed = blocks.remove(blockKey(block.getX(), block.getY(), block.getZ()));
+    if (blocks.isEmpty()) {
+      chunks.remove(chunkKey);
+    }
+    return removed;
+  }
+
+  /**
+   * Remove all values in a {@link Chunk}.
+   *
+   * @param chunk the {@code Chunk}
+   * @return the removed values
+   */
+  public @NotNull Collection<V> remove(@NotNull Chunk chunk) {
+    Long2ObjectOpenHashMap<Int2ObjectOpenHashMap<V>> chunks =
+        worlds.get(chunk.getWorld().getName());
+    if (chunks == null) {
+      return Collections.emptyList();
+    }
+
+    Int2ObjectOpenHashMap<V> blocks = chunks.remove(chunkKey(chunk.getX(), chunk.getZ()));
+    if (blocks == null) {
+      return Collections.emptyList();
+    }
+    return blocks.values();
+  }
+
+  private @Nullable Int2ObjectOpenHashMap<V> getChunk(
+      @NotNull String worldName,
+      int chunkX,
+      int chunkZ) {
+    Long2ObjectOpenHashMap<Int2ObjectOpenHashMap<V>> chunks = worlds.get(worldName);
+    if (chunks == null) {
+      return null;
+    }
+    return chunks.get(chunkKey(chunkX, chunkZ));
+  }
+
+  /**
+   * Pack chunk coordinates into a single key.
+   *
+   * @param chunkX the chunk X coordinate
+   * @param chunkZ the chunk Z coordinate
+   * @return the key
+   */
+  @VisibleForTesting
+  static long chunkKey(int chunkX, int chunkZ) {
+    return (long) chunkZ << 32 | chunkX & 0xFFFFFFFFL;
+  }
+
+  /**
+   * Pack block coordinates into a key unique within the block's chunk.
+   *
+   * @param x the block X coordinate
+   * @param y the block Y coordinate
+   * @param z the block Z coordinate
+   * @return the key
+   */
+  @VisibleForTesting
+  static int blockKey(int x, int y, int z) {
+    return y << 8 | (z & 0xF) << 4 | x & 0xF;
+  }
+
+}
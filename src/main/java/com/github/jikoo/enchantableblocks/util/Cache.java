@@ -1,24 +1,48 @@
 package com.github.jikoo.enchantableblocks.util;
 
-import com.google.common.collect.TreeMultimap;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
+import java.util.function.ToIntBiFunction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 import org.jetbrains.annotations.TestOnly;
+import org.jetbrains.annotations.VisibleForTesting;
 
 /**
- * A minimal thread-safe time-based cache implementation backed by a HashMap and TreeMultimap.
+ * A minimal thread-safe time-based cache implementation backed by a ConcurrentHashMap and
+ * {@link TimingWheel}.
+ *
+ * <p>Reads of present values do not lock. Values are loaded outside of any lock, so loads for
+ * different keys run in parallel and never block reads of other keys. Concurrent requests for the
+ * same missing key share a single load.
+ *
+ * <p>Each key occupies a single slot in the timing wheel regardless of how often it is read, so
+ * expiration bookkeeping is bounded by the number of keys rather than the number of reads.
+ *
+ * <p>A cache may optionally be bounded by a maximum weight, in which case values not considered
+ * in use are evicted by a {@link SegmentedLru} before they expire.
+ *
+ * <p>Usage statistics are recorded with striped counters and can be read with
+ * {@link #getStats()}.
  *
  * @param <K> the type of key
  * @param <V> the type of value
@@ -35,7 +59,13 @@ public class Cache<K, V> {
     private @NotNull Clock clock = Clock.systemUTC();
     private long retention = 300_000L;
     private long lazyFrequency = 10_000L;
+    private long absentRetention = 0L;
+    private boolean sweeper = false;
+    private long maximumWeight = 0L;
+    private @Nullable ToIntBiFunction<K, V> weigher;
     private @Nullable BiFunction<K, Boolean, V> load;
+    private @Nullable BiFunction<K, Boolean, CompletableFuture<V>> asyncLoad;
+    private @NotNull Executor executor = ForkJoinPool.commonPool();
     private @Nullable BiPredicate<K, V> inUseCheck;
     private @Nullable BiConsumer<K, V> postRemoval;
 
@@ -62,6 +92,32 @@ public class Cache<K, V> {
       return this;
     }
 
+    /**
+     * Set the asynchronous loading function used by the {@link Cache} to provide new values for
+     * {@link Cache#getAsync}. If not set, {@code getAsync} uses the loading function on the
+     * executor instead.
+     *
+     * @param asyncLoad the asynchronous loading function
+     * @return the modified builder
+     */
+    public CacheBuilder<K, V> withAsyncLoadFunction(
+        final @Nullable BiFunction<K, Boolean, CompletableFuture<V>> asyncLoad) {
+      this.asyncLoad = asyncLoad;
+      return this;
+    }
+
+    /**
+     * Set the {@link Executor} used by the {@link Cache} to run the loading function for
+     * {@link Cache#getAsync}. Defaults to the common pool.
+     *
+     * @param executor the {@code Executor}
+     * @return the modified builder
+     */
+    public CacheBuilder<K, V> withExecutor(final @NotNull Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
     /**
      * Set the in use function used by the {@link Cache} to see if values should not expire.
      *
@@ -96,6 +152,20 @@ public class Cache<K, V> {
       return this;
     }
 
+    /**
+     * Set the retention duration used by the {@link Cache} for keys the load function provided no
+     * value for. While retained, requests for these keys that do not create values return null
+     * without using the load function. If 0, absent values are not retained.
+     *
+     * @param absentRetention the absent value retention duration
+     * @return the modified builder
+     */
+    public CacheBuilder<K, V> withAbsentRetention(
+        @Range(from = 0, to = Long.MAX_VALUE) final long absentRetention) {
+      this.absentRetention = Math.max(0, absentRetention);
+      return this;
+    }
+
     /**
      * Set the lazy check frequency used by the {@link Cache}.
      *
@@ -108,6 +178,53 @@ public class Cache<K, V> {
       return this;
     }
 
+    /**
+     * Set whether the {@link Cache} expires keys only when {@link Cache#sweep swept}. If false,
+     * keys are expired by whichever access next passes the lazy check frequency.
+     *
+     * <p>Sweeping keeps the in use check and post-removal consumer off the access path so that
+     * their cost can be spread over scheduled runs.
+     *
+     * @param sweeper whether to expire keys only when swept
+     * @return the modified builder
+     */
+    public CacheBuilder<K, V> withSweeper(final boolean sweeper) {
+      this.sweeper = sweeper;
+      return this;
+    }
+
+    /**
+     * Set the maximum total weight of values retained by the {@link Cache}. When exceeded, the
+     * least valuable values not considered in use are evicted before they expire. Values are
+     * evicted by a segmented LRU, so values used repeatedly outlast values used once. If 0, values
+     * are only removed when they expire.
+     *
+     * <p>Eviction checks values with the in use function before removing them and runs the
+     * post-removal consumer for evicted values, the same as expiration. If the cache is a
+     * {@link #withSweeper sweeper}, eviction only occurs when swept.
+     *
+     * @param maximumWeight the maximum total weight
+     * @return the modified builder
+     */
+    public CacheBuilder<K, V> withMaximumWeight(
+        @Range(from = 0, to = Long.MAX_VALUE) final long maximumWeight) {
+      this.maximumWeight = Math.max(0, maximumWeight);
+      return this;
+    }
+
+    /**
+     * Set the weigher used by the {@link Cache} to determine the weight of values. Weights are
+     * calculated when values are added and recalculated when values are kept due to being in use.
+     * Weights are at least 1. If not set, all values weigh 1.
+     *
+     * @param weigher the weigher
+     * @return the modified builder
+     */
+    public CacheBuilder<K, V> withWeigher(final @Nullable ToIntBiFunction<K, V> weigher) {
+      this.weigher = weigher;
+      return this;
+    }
+
     /**
      * Construct a {@link Cache} with the given setting.
      *
@@ -117,19 +234,41 @@ public class Cache<K, V> {
       return new Cache<>(
           this.clock,
           this.retention,
+          this.absentRetention,
           this.lazyFrequency,
-          this.load, this.inUseCheck,
+          this.sweeper,
+          this.maximumWeight,
+          this.weigher,
+          this.load, this.asyncLoad, this.executor, this.inUseCheck,
           this.postRemoval);
     }
   }
 
   private final @NotNull Clock clock;
-  private final @NotNull Map<K, V> internal;
-  private final @NotNull TreeMultimap<Long, K> expiry;
+  private final @NotNull ConcurrentHashMap<K, Node<K, V>> internal;
+  private final @NotNull ConcurrentHashMap<K, Long> absent;
+  private final @NotNull ConcurrentHashMap<K, CompletableFuture<V>> loading;
+  private final @NotNull TimingWheel<K> expiry;
+  private final @NotNull Queue<TimingWheel.Entry<K>> due;
   private final long retention;
+  private final long absentRetention;
   private final long lazyFrequency;
+  private final boolean sweeper;
+  private final long maximumWeight;
+  private final @Nullable ToIntBiFunction<K, V> weigher;
+  private final @Nullable SegmentedLru<K> eviction;
   private final @NotNull AtomicLong lastLazyCheck;
+  private final @NotNull LongAdder hits = new LongAdder();
+  private final @NotNull LongAdder misses = new LongAdder();
+  private final @NotNull LongAdder loads = new LongAdder();
+  private final @NotNull LongAdder loadNanos = new LongAdder();
+  private final @NotNull LongAdder @NotNull [] loadTimes = newAdders(CacheStats.HISTOGRAM_BUCKETS);
+  private final @NotNull LongAdder expirations = new LongAdder();
+  private final @NotNull LongAdder evictions = new LongAdder();
+  private final @NotNull LongAdder inUseRetentions = new LongAdder();
   private final @Nullable BiFunction<K, Boolean, V> load;
+  private final @Nullable BiFunction<K, Boolean, CompletableFuture<V>> asyncLoad;
+  private final @NotNull Executor executor;
   private final @Nullable BiPredicate<K, V> inUseCheck;
   private final @Nullable BiConsumer<K, V> postRemoval;
 
@@ -138,21 +277,42 @@ public class Cache<K, V> {
    * function.
    *
    * @param retention duration after which keys are automatically invalidated if not in use
+   * @param absentRetention duration for which keys without loaded values are remembered
+   * @param sweeper whether keys are only expired when swept
+   * @param maximumWeight the maximum total weight of values or 0 if unbounded
+   * @param weigher Function used to calculate the weight of values
+   * @param load Function used to load values
+   * @param asyncLoad Function used to load values asynchronously
+   * @param executor Executor used to run the load function asynchronously
    * @param inUseCheck Function used to check if a key is considered in use
    * @param postRemoval Function used to perform any operations required when a key is invalidated
    */
-  private Cache(final @NotNull Clock clock, final long retention, long lazyFrequency,
-      final @Nullable BiFunction<K, Boolean, V> load, final @Nullable BiPredicate<K, V> inUseCheck,
+  private Cache(final @NotNull Clock clock, final long retention, final long absentRetention,
+      long lazyFrequency, boolean sweeper,
+      long maximumWeight, final @Nullable ToIntBiFunction<K, V> weigher,
+      final @Nullable BiFunction<K, Boolean, V> load,
+      final @Nullable BiFunction<K, Boolean, CompletableFuture<V>> asyncLoad,
+      final @NotNull Executor executor,
+      final @Nullable BiPredicate<K, V> inUseCheck,
       final @Nullable BiConsumer<K, V> postRemoval) {
-    this.internal = new HashMap<>();
+    this.internal = new ConcurrentHashMap<>();
+    this.absent = new ConcurrentHashMap<>();
+    this.loading = new ConcurrentHashMap<>();
     this.clock = clock;
 
-    this.expiry = TreeMultimap.create(
-        Comparator.naturalOrder(), (k1, k2) -> k1 == k2 || k1.equals(k2) ? 0 : 1);
+    this.expiry = new TimingWheel<>(retention, clock.millis());
+    this.due = new ArrayDeque<>();
 
     this.load = load;
+    this.asyncLoad = asyncLoad;
+    this.executor = executor;
     this.retention = retention;
+    this.absentRetention = absentRetention;
     this.lazyFrequency = lazyFrequency;
+    this.sweeper = sweeper;
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+    this.eviction = maximumWeight > 0 ? new SegmentedLru<>(maximumWeight) : null;
     this.lastLazyCheck = new AtomicLong(0);
     this.inUseCheck = inUseCheck;
     this.postRemoval = postRemoval;
@@ -169,10 +329,74 @@ public class Cache<K, V> {
     // Run lazy check to clean cache
     this.lazyCheck();
 
-    synchronized (this.internal) {
-      this.internal.put(key, value);
-      this.expiry.put(clock.millis() + this.retention, key);
+    Node<K, V> node = new Node<>(key, value);
+    Node<K, V> previous = this.internal.put(key, node);
+    this.absent.remove(key);
+    if (previous != null) {
+      previous.removed = true;
+    }
+
+    node.deadline = clock.millis() + this.retention;
+    this.weigh(node);
+    synchronized (this.expiry) {
+      if (previous != null) {
+        this.unlink(previous);
+      }
+      // Node may have been invalidated already.
+      if (!node.removed) {
+        this.link(node);
+      }
+    }
+
+    this.evictIfOverweight();
+  }
+
+  /**
+   * Set several key and value pairs. Behaves as {@link #put(Object, Object)} for each pair, but
+   * starts tracking all new values in a single step.
+   *
+   * @param values the key and value pairs
+   */
+  public void putAll(final @NotNull Map<? extends @NotNull K, ? extends @Nullable V> values) {
+    // Run lazy check to clean cache
+    this.lazyCheck();
+
+    List<Node<K, V>> added = new ArrayList<>(values.size());
+    List<Node<K, V>> replaced = new ArrayList<>();
+    long deadline = clock.millis() + this.retention;
+    values.forEach((key, value) -> {
+      Node<K, V> node = new Node<>(key, value);
+      Node<K, V> previous = this.internal.put(key, node);
+      this.absent.remove(key);
+      if (previous != null) {
+        previous.removed = true;
+        replaced.add(previous);
+      }
+      node.deadline = deadline;
+      added.add(node);
+    });
+
+    // Weights are calculated outside the lock; new nodes are not linked yet.
+    int[] weights = new int[added.size()];
+    for (int i = 0; i < weights.length; ++i) {
+      weights[i] = this.weightOf(added.get(i));
     }
+
+    synchronized (this.expiry) {
+      replaced.forEach(this::unlink);
+      for (int i = 0; i < weights.length; ++i) {
+        Node<K, V> node = added.get(i);
+        if (this.eviction != null) {
+          this.eviction.reweigh(node, weights[i]);
+        }
+        // Node may have been replaced or invalidated already.
+        if (!node.removed) {
+          this.link(node);
+        }
+      }
+    }
+
+    this.evictIfOverweight();
   }
 
   /**
@@ -196,7 +420,8 @@ public class Cache<K, V> {
    * create a new value if requested. The load function may return null values.
    *
    * <p>N.B. If a load function is provided, it will always be used to attempt to load existing
-   * values.
+   * values unless the key is retained as absent. Absent keys are not retained when a value is
+   * created.
    *
    * @param key the key whose associated value is to be returned
    * @param create whether the load function should create a new value if none exists to be loaded
@@ -206,25 +431,386 @@ public class Cache<K, V> {
     // Run lazy check to clean cache
     this.lazyCheck();
 
-    synchronized (this.internal) {
-      V value;
-      if (!this.internal.containsKey(key) && this.load != null) {
-        value = this.load.apply(key, create);
-        if (value != null) {
-          this.internal.put(key, value);
+    boolean missed = false;
+    while (true) {
+      Node<K, V> node = this.internal.get(key);
+      if (node != null) {
+        if (!this.hit(node)) {
+          // Expired concurrently, try again.
+          continue;
         }
-      } else {
-        value = this.internal.get(key);
+        if (!missed) {
+          this.hits.increment();
+        }
+        return node.value;
+      }
+
+      if (!missed) {
+        missed = true;
+        this.misses.increment();
       }
 
-      if (value != null) {
-        this.expiry.put(clock.millis() + this.retention, key);
+      if (this.load == null && this.asyncLoad == null || !create && this.isAbsent(key)) {
+        return null;
       }
 
+      CompletableFuture<V> flight = new CompletableFuture<>();
+      CompletableFuture<V> existing = this.loading.putIfAbsent(key, flight);
+      if (existing != null) {
+        V value = join(existing);
+        if (value != null || !create) {
+          return value;
+        }
+        // The shared load did not create a value, try again.
+        continue;
+      }
+
+      if (this.load == null) {
+        // Only an asynchronous load function is available.
+        this.loadAsync(key, create, flight);
+        return join(flight);
+      }
+
+      V value;
+      try {
+        value = this.load(key, create);
+      } catch (RuntimeException | Error e) {
+        this.loading.remove(key, flight);
+        flight.completeExceptionally(e);
+        throw e;
+      }
+      // Dependents run on completion and may request the key again.
+      this.loading.remove(key, flight);
+      flight.complete(value);
       return value;
     }
   }
 
+  /**
+   * Gets the value for a specific key without blocking.
+   *
+   * <p>If the key is present, the returned future is already complete. Otherwise, the value is
+   * loaded by the asynchronous load function if defined or by the load function on the
+   * executor. Concurrent requests for the same key, synchronous or not, share a single load.
+   * Loaded values are added to the cache before the future completes.
+   *
+   * @param key the key whose associated value is to be returned
+   * @param create whether the load function should create a new value if none exists to be loaded
+   * @return a future completing with the value to which the specified key is mapped or null
+   */
+  public @NotNull CompletableFuture<@Nullable V> getAsync(
+      final @NotNull K key,
+      final boolean create) {
+    // Run lazy check to clean cache
+    this.lazyCheck();
+
+    return this.request(key, create);
+  }
+
+  /**
+   * Gets the values for several keys.
+   *
+   * <p>Present values are collected first. Loads for all missing keys are then started together,
+   * as with {@link #getAsync(Object, boolean)}, so that they may run in parallel before the
+   * results are awaited. Keys that are requested concurrently elsewhere share their load.
+   *
+   * @param keys the keys whose associated values are to be returned
+   * @param create whether the load function should create new values if none exist to be loaded
+   * @return a map of the requested keys to their values, omitting keys mapped to null
+   */
+  public @NotNull Map<@NotNull K, @NotNull V> getAll(
+      final @NotNull Collection<? extends @NotNull K> keys,
+      final boolean create) {
+    // Run lazy check to clean cache once for the whole batch
+    this.lazyCheck();
+
+    Map<K, V> values = new HashMap<>();
+    Map<K, CompletableFuture<V>> requests = new HashMap<>();
+    for (K key : keys) {
+      if (values.containsKey(key) || requests.containsKey(key)) {
+        continue;
+      }
+      CompletableFuture<V> request = this.request(key, create);
+      if (request.isDone()) {
+        putValue(values, key, join(request));
+      } else {
+        requests.put(key, request);
+      }
+    }
+
+    requests.forEach((key, request) -> putValue(values, key, join(request)));
+
+    return values;
+  }
+
+  private static <K, V> void putValue(
+      final @NotNull Map<K, V> values,
+      final @NotNull K key,
+      final @Nullable V value) {
+    if (value != null) {
+      values.put(key, value);
+    }
+  }
+
+  /**
+   * Request the value for a key, starting a load if it is not present.
+   *
+   * @param key the key
+   * @param create whether the load function should create a new value
+   * @return a future completing with the value or null
+   */
+  private @NotNull CompletableFuture<@Nullable V> request(
+      final @NotNull K key,
+      final boolean create) {
+    Node<K, V> node = this.internal.get(key);
+    if (node != null && this.hit(node)) {
+      this.hits.increment();
+      return CompletableFuture.completedFuture(node.value);
+    }
+
+    this.misses.increment();
+
+    if (this.load == null && this.asyncLoad == null || !create && this.isAbsent(key)) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> existing = this.loading.putIfAbsent(key, flight);
+    if (existing != null) {
+      if (!create) {
+        return existing;
+      }
+      // If the shared load did not create a value, try again.
+      return existing.thenCompose(value -> value != null
+          ? CompletableFuture.completedFuture(value)
+          : this.request(key, true));
+    }
+
+    this.loadAsync(key, create, flight);
+    return flight;
+  }
+
+  /**
+   * Record a hit on a present node.
+   *
+   * @param node the node
+   * @return false if the node was removed concurrently
+   */
+  private boolean hit(final @NotNull Node<K, V> node) {
+    if (node.value == null) {
+      return true;
+    }
+
+    this.touch(node);
+    if (this.eviction != null && !node.accessed) {
+      node.accessed = true;
+    }
+    return !node.removed;
+  }
+
+  /**
+   * Load a value for a key asynchronously and complete its load in progress. Only one load may run
+   * for a key at a time.
+   *
+   * @param key the key
+   * @param create whether the load function should create a new value
+   * @param flight the load in progress
+   */
+  private void loadAsync(
+      final @NotNull K key,
+      final boolean create,
+      final @NotNull CompletableFuture<V> flight) {
+    long start = System.nanoTime();
+    CompletableFuture<V> future;
+    try {
+      if (this.asyncLoad != null) {
+        future = this.asyncLoad.apply(key, create);
+      } else {
+        BiFunction<K, Boolean, V> loadFunction = Objects.requireNonNull(this.load);
+        future = CompletableFuture.supplyAsync(
+            () -> loadFunction.apply(key, create),
+            this.executor);
+      }
+    } catch (RuntimeException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+
+    future.whenComplete((value, throwable) -> {
+      V result;
+      try {
+        if (throwable != null) {
+          throw throwable;
+        }
+        this.recordLoad(System.nanoTime() - start);
+        // Value may have been set during the load.
+        result = this.insert(key, value);
+      } catch (Throwable e) {
+        this.loading.remove(key, flight);
+        flight.completeExceptionally(e);
+        return;
+      }
+      // Dependents run on completion and may request the key again.
+      this.loading.remove(key, flight);
+      flight.complete(result);
+    });
+  }
+
+  /**
+   * Load a value for a key. Only one load may run for a key at a time.
+   *
+   * @param key the key
+   * @param create whether the load function should create a new value
+   * @return the loaded value or null
+   */
+  private @Nullable V load(final @NotNull K key, final boolean create) {
+    // Value may have been set since the load was requested.
+    Node<K, V> node = this.internal.get(key);
+    if (node != null) {
+      return node.value;
+    }
+
+    long start = System.nanoTime();
+    V value = Objects.requireNonNull(this.load).apply(key, create);
+    this.recordLoad(System.nanoTime() - start);
+
+    return this.insert(key, value);
+  }
+
+  /**
+   * Record the duration of a load.
+   *
+   * @param elapsed the duration in nanoseconds
+   */
+  private void recordLoad(final long elapsed) {
+    this.loads.increment();
+    this.loadNanos.add(elapsed);
+    this.loadTimes[CacheStats.bucket(elapsed)].increment();
+  }
+
+  /**
+   * Add a loaded value unless a value has been set since loading began.
+   *
+   * @param key the key
+   * @param value the loaded value
+   * @return the current value
+   */
+  private @Nullable V insert(final @NotNull K key, final @Nullable V value) {
+    if (value == null) {
+      if (this.absentRetention > 0) {
+        this.absent.put(key, clock.millis() + this.absentRetention);
+      }
+      return null;
+    }
+
+    Node<K, V> node = new Node<>(key, value);
+    node.deadline = clock.millis() + this.retention;
+    this.weigh(node);
+    Node<K, V> existing = this.internal.putIfAbsent(key, node);
+    if (existing != null) {
+      // Value was set during the load.
+      return existing.value;
+    }
+
+    this.absent.remove(key);
+    synchronized (this.expiry) {
+      if (!node.removed) {
+        this.link(node);
+      }
+    }
+
+    this.evictIfOverweight();
+    return value;
+  }
+
+  private static <V> @Nullable V join(@NotNull CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Reset the expiration time for a present key. The node is not moved in the timing wheel; it is
+   * relocated when its current slot is next visited.
+   *
+   * @param node the key's current node
+   */
+  private void touch(final @NotNull Node<K, V> node) {
+    node.deadline = clock.millis() + this.retention;
+  }
+
+  /**
+   * Schedule a node in the timing wheel unless it has been removed.
+   *
+   * @param node the node
+   */
+  private void schedule(final @NotNull Node<K, V> node) {
+    synchronized (this.expiry) {
+      // Removal marks the node before unscheduling it, so a removed node is never left behind.
+      if (!node.removed) {
+        this.expiry.schedule(node);
+      }
+    }
+  }
+
+  /**
+   * Start tracking a new node for expiration and eviction. Must be called holding the expiry lock.
+   *
+   * @param node the node
+   */
+  private void link(final @NotNull Node<K, V> node) {
+    this.expiry.schedule(node);
+    if (this.eviction != null) {
+      this.eviction.add(node);
+    }
+  }
+
+  /**
+   * Stop tracking a removed node. Must be called holding the expiry lock.
+   *
+   * @param node the node
+   */
+  private void unlink(final @NotNull Node<K, V> node) {
+    this.expiry.unschedule(node);
+    if (this.eviction != null) {
+      this.eviction.remove(node);
+    }
+  }
+
+  /**
+   * Calculate the weight of a node if the cache is bounded. Must not be called holding the expiry
+   * lock.
+   *
+   * @param node the node
+   */
+  private void weigh(final @NotNull Node<K, V> node) {
+    if (this.eviction == null) {
+      return;
+    }
+
+    int weight = this.weightOf(node);
+    synchronized (this.expiry) {
+      this.eviction.reweigh(node, weight);
+    }
+  }
+
+  /**
+   * Calculate the weight of a node's value.
+   *
+   * @param node the node
+   * @return the weight
+   */
+  private int weightOf(final @NotNull Node<K, V> node) {
+    if (this.weigher == null || node.value == null) {
+      return 1;
+    }
+    return Math.max(1, this.weigher.applyAsInt(node.key, node.value));
+  }
+
   /**
    * Returns true if the specified key is mapped to a value.
    *
@@ -235,9 +821,28 @@ public class Cache<K, V> {
     // Run lazy check to clean cache
     this.lazyCheck();
 
-    synchronized (this.internal) {
-      return this.internal.containsKey(key);
-    }
+    return this.internal.containsKey(key);
+  }
+
+  /**
+   * Returns true if the load function recently provided no value for the specified key.
+   *
+   * @param key key to check
+   * @return true if the key is retained as absent
+   */
+  public boolean isAbsent(final @NotNull K key) {
+    Long absentExpiry = this.absent.get(key);
+    return absentExpiry != null && absentExpiry > clock.millis();
+  }
+
+  /**
+   * Perform an action for each key and value pair currently present. Values are not loaded and
+   * expiration times are not modified.
+   *
+   * @param action the action to perform
+   */
+  public void forEach(final @NotNull BiConsumer<? super K, ? super V> action) {
+    this.internal.forEach((key, node) -> action.accept(key, node.value));
   }
 
   /**
@@ -247,18 +852,18 @@ public class Cache<K, V> {
    * @param key key to invalidate
    */
   public void invalidate(final @NotNull K key) {
-    synchronized (this.internal) {
-      if (!this.internal.containsKey(key)) {
-        // Value either not present or cleaned by lazy check. Either way, we're good
-        return;
-      }
+    this.absent.remove(key);
 
-      // Remove stored object
-      this.internal.remove(key);
+    Node<K, V> node = this.internal.remove(key);
+    if (node == null) {
+      // Value either not present or cleaned by lazy check. Either way, we're good
+      return;
+    }
+    node.removed = true;
 
-      // Remove expiration entry - prevents more work later, plus prevents issues with values
-      // invalidating early
-      this.expiry.entries().removeIf(entry -> entry.getValue().equals(key));
+    // Remove expiration entry - prevents more work later
+    synchronized (this.expiry) {
+      this.unlink(node);
     }
 
     // Run lazy check to clean cache
@@ -269,14 +874,47 @@ public class Cache<K, V> {
    * Forcibly expire all keys, requiring them to be in use to be kept.
    */
   public void expireAll() {
-    synchronized (this.internal) {
-      this.expiry.clear();
-      this.internal.keySet().forEach(key -> this.expiry.put(0L, key));
+    this.absent.clear();
+
+    synchronized (this.expiry) {
+      this.internal.values().forEach(node -> {
+        node.deadline = 0L;
+        if (!node.removed) {
+          // Overdue nodes are moved to the next visited slot.
+          this.expiry.schedule(node);
+        }
+      });
     }
 
-    this.lastLazyCheck.set(0);
+    // Expire immediately even if keys are normally only expired when swept.
+    long now = clock.millis();
+    this.lastLazyCheck.set(now);
+    this.advance(now);
+    this.expire(now, Long.MAX_VALUE);
+  }
 
-    this.lazyCheck();
+  /**
+   * Expire keys within a time budget. Keys that are due but not handled within the budget are
+   * carried over to the next sweep. At least one due key is handled per sweep.
+   *
+   * <p>Sweeps advance expiration no more often than the lazy check frequency, but always continue
+   * carried over work. If the cache is over its maximum weight, values are also evicted. This may
+   * be used whether or not the cache is a {@link CacheBuilder#withSweeper sweeper}.
+   *
+   * @param budget the maximum duration to spend expiring keys
+   * @return true if due keys remain
+   */
+  public boolean sweep(final @NotNull Duration budget) {
+    long now = clock.millis();
+    if (this.startCheck(now)) {
+      this.advance(now);
+    }
+    long start = System.nanoTime();
+    long budgetNanos = budget.toNanos();
+    boolean remaining = this.expire(now, budgetNanos);
+    long elapsed = System.nanoTime() - start;
+    // Eviction uses whatever remains of the budget, but always makes progress.
+    return this.evict(System.nanoTime(), Math.max(0, budgetNanos - elapsed)) || remaining;
   }
 
   /**
@@ -284,43 +922,271 @@ public class Cache<K, V> {
    * considered in use by the provided Function, its expiration time is reset.
    */
   private void lazyCheck() {
+    if (this.sweeper) {
+      return;
+    }
+
     long now = clock.millis();
+    if (this.startCheck(now)) {
+      this.advance(now);
+      this.expire(now, Long.MAX_VALUE);
+    }
+  }
+
+  /**
+   * Claim an expiration check if the lazy check frequency has elapsed.
+   *
+   * @param now the current time
+   * @return true if the check should run
+   */
+  private boolean startCheck(final long now) {
+    long lastCheck = lastLazyCheck.get();
+    return lastCheck <= now - lazyFrequency && lastLazyCheck.compareAndSet(lastCheck, now);
+  }
+
+  /**
+   * Collect keys whose expiration time has passed.
+   *
+   * @param now the current time
+   */
+  private void advance(final long now) {
+    this.absent.values().removeIf(absentExpiry -> absentExpiry <= now);
+
+    synchronized (this.expiry) {
+      this.expiry.advance(now, this.due);
+    }
+  }
+
+  /**
+   * Expire collected keys.
+   *
+   * @param now the current time
+   * @param budgetNanos the maximum duration to spend in nanoseconds
+   * @return true if collected keys remain
+   */
+  private boolean expire(final long now, final long budgetNanos) {
+    long start = System.nanoTime();
+    long nextExpiry = now + this.retention;
+
+    while (true) {
+      TimingWheel.Entry<K> entry;
+      synchronized (this.expiry) {
+        entry = this.due.poll();
+      }
+      if (entry == null) {
+        return false;
+      }
+
+      expire(entry, now, nextExpiry);
+
+      if (System.nanoTime() - start >= budgetNanos) {
+        synchronized (this.expiry) {
+          return !this.due.isEmpty();
+        }
+      }
+    }
+  }
 
-    if (lastLazyCheck.get() > now - lazyFrequency) {
+  /**
+   * Expire a collected key unless it has been used or is in use.
+   *
+   * @param entry the collected entry
+   * @param now the current time
+   * @param nextExpiry the expiration time for keys that are in use
+   */
+  private void expire(
+      final @NotNull TimingWheel.Entry<K> entry,
+      final long now,
+      final long nextExpiry) {
+    K key = entry.key;
+    Node<K, V> node = this.internal.get(key);
+    if (node != entry) {
+      // Already removed.
       return;
     }
 
-    lastLazyCheck.set(now);
+    if (node.deadline > now) {
+      // Used since expiring.
+      this.schedule(node);
+      return;
+    }
 
-    synchronized (this.internal) {
-      SortedMap<Long, Collection<K>> subMap = this.expiry.asMap().headMap(now);
-      Collection<K> keys = subMap.values().stream()
-          .collect(ArrayList::new, ArrayList::addAll, ArrayList::addAll);
+    if (this.isInUse(node)) {
+      this.inUseRetentions.increment();
+      node.deadline = nextExpiry;
+      this.schedule(node);
+      // Weight may have changed while in use.
+      this.weigh(node);
+      return;
+    }
 
-      // Wipe original map
-      subMap.clear();
+    node.removed = true;
+    if (node.deadline > now) {
+      // Used while checking, keep.
+      node.removed = false;
+      this.schedule(node);
+      return;
+    }
 
-      long nextExpiry = now + this.retention;
+    if (this.remove(node)) {
+      this.expirations.increment();
+    }
+  }
 
-      keys.forEach(key -> {
+  /**
+   * Evict values until the cache is within its maximum weight if it is not a sweeper.
+   */
+  private void evictIfOverweight() {
+    if (!this.sweeper) {
+      this.evict(System.nanoTime(), Long.MAX_VALUE);
+    }
+  }
 
-        V value = this.internal.get(key);
-        if (value != null && this.inUseCheck != null && this.inUseCheck.test(key, value)) {
-          this.expiry.put(nextExpiry, key);
-          return;
-        }
+  /**
+   * Evict values not considered in use until the cache is within its maximum weight. Each value
+   * is considered at most once.
+   *
+   * @param start the start time in nanoseconds
+   * @param budgetNanos the maximum duration to spend in nanoseconds
+   * @return true if the cache is still over its maximum weight
+   */
+  private boolean evict(final long start, final long budgetNanos) {
+    if (this.eviction == null) {
+      return false;
+    }
 
-        this.internal.remove(key);
+    int candidates;
+    synchronized (this.expiry) {
+      candidates = this.eviction.size();
+    }
 
-        if (value == null) {
-          return;
+    while (candidates-- > 0) {
+      TimingWheel.Entry<K> entry;
+      synchronized (this.expiry) {
+        if (this.eviction.weight() <= this.maximumWeight) {
+          return false;
         }
+        entry = this.eviction.candidate();
+      }
+
+      if (entry == null) {
+        return false;
+      }
 
-        if (this.postRemoval != null) {
-          this.postRemoval.accept(key, value);
+      Node<K, V> node = this.internal.get(entry.key);
+      if (node == entry) {
+        if (this.isInUse(node)) {
+          this.inUseRetentions.increment();
+          // Weight may have changed while in use.
+          this.weigh(node);
+        } else {
+          node.removed = true;
+          if (this.remove(node)) {
+            this.evictions.increment();
+          }
         }
-      });
+      }
+
+      if (System.nanoTime() - start >= budgetNanos) {
+        break;
+      }
     }
+
+    synchronized (this.expiry) {
+      return this.eviction.weight() > this.maximumWeight;
+    }
+  }
+
+  /**
+   * Check if a node's value is considered in use.
+   *
+   * @param node the node
+   * @return true if the value is in use
+   */
+  private boolean isInUse(final @NotNull Node<K, V> node) {
+    return node.value != null && this.inUseCheck != null
+        && this.inUseCheck.test(node.key, node.value);
+  }
+
+  /**
+   * Remove a node marked as removed and run the post-removal function.
+   *
+   * @param node the node
+   * @return true if the node was removed
+   */
+  private boolean remove(final @NotNull Node<K, V> node) {
+    if (!this.internal.remove(node.key, node)) {
+      return false;
+    }
+
+    synchronized (this.expiry) {
+      this.unlink(node);
+    }
+
+    if (node.value != null && this.postRemoval != null) {
+      this.postRemoval.accept(node.key, node.value);
+    }
+    return true;
+  }
+
+  /**
+   * Get a snapshot of the statistics recorded by the cache. Statistics are recorded without
+   * locking, so counts may not reflect concurrent operations in progress.
+   *
+   * @return the statistics
+   */
+  public @NotNull CacheStats getStats() {
+    long[] histogram = new long[this.loadTimes.length];
+    for (int i = 0; i < histogram.length; ++i) {
+      histogram[i] = this.loadTimes[i].sum();
+    }
+    return new CacheStats(
+        this.hits.sum(),
+        this.misses.sum(),
+        this.loads.sum(),
+        this.loadNanos.sum(),
+        histogram,
+        this.expirations.sum(),
+        this.evictions.sum(),
+        this.inUseRetentions.sum());
+  }
+
+  private static @NotNull LongAdder @NotNull [] newAdders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; ++i) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  /**
+   * Get the number of keys tracked for expiration.
+   *
+   * @return the number of keys
+   */
+  @VisibleForTesting
+  int getScheduledCount() {
+    synchronized (this.expiry) {
+      return this.expiry.size();
+    }
+  }
+
+  /**
+   * A value stored in the cache.
+   *
+   * @param <K> the type of key
+   * @param <V> the type of value
+   */
+  private static final class Node<K, V> extends SegmentedLru.Entry<K> {
+
+    private final @Nullable V value;
+    private volatile boolean removed = false;
+
+    private Node(@NotNull K key, @Nullable V value) {
+      super(key);
+      this.value = value;
+    }
+
   }
 
 }
@@ -0,0 +1,113 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A snapshot of the statistics recorded by a {@link Cache}.
+ *
+ * <p>Load times are recorded in a histogram of power-of-two millisecond buckets. Bucket
+ * {@code 0} counts loads taking less than 1ms, bucket {@code i} counts loads taking at least
+ * {@code 2^(i-1)}ms and less than {@code 2^i}ms, and the final bucket counts all longer loads.
+ *
+ * @param hitCount the number of requests for present values
+ * @param missCount the number of requests for values that were not present
+ * @param loadCount the number of times the load function was used
+ * @param totalLoadNanos the total time spent in the load function in nanoseconds
+ * @param loadTimeHistogram the number of loads in each duration bucket
+ * @param expirationCount the number of values removed by expiration
+ * @param evictionCount the number of values removed to reduce weight
+ * @param inUseRetentionCount the number of times expiring or evicting values were kept due to use
+ */
+public record CacheStats(
+    long hitCount,
+    long missCount,
+    long loadCount,
+    long totalLoadNanos,
+    long @NotNull [] loadTimeHistogram,
+    long expirationCount,
+    long evictionCount,
+    long inUseRetentionCount) {
+
+  /** The number of load time histogram buckets. */
+  public static final int HISTOGRAM_BUCKETS = 12;
+
+  public CacheStats {
+    loadTimeHistogram = loadTimeHistogram.clone();
+  }
+
+  @Override
+  public long @NotNull [] loadTimeHistogram() {
+    return loadTimeHistogram.clone();
+  }
+
+  /**
+   * Get the ratio of requests that were for present values.
+   *
+   * @return the hit rate from 0 to 1, or 1 if there have been no requests
+   */
+  public double hitRate() {
+    long requests = hitCount + missCount;
+    return requests == 0 ? 1D : (double) hitCount / requests;
+  }
+
+  /**
+   * Get the average time spent in the load function.
+   *
+   * @return the average load time in milliseconds
+   */
+  public double averageLoadMillis() {
+    return loadCount == 0 ? 0D : totalLoadNanos / 1_000_000D / loadCount;
+  }
+
+  /**
+   * Get the load time histogram bucket for a duration.
+   *
+   * @param nanos the duration in nanoseconds
+   * @return the bucket index
+   */
+  static int bucket(long nanos) {
+    long millis = Math.max(0, nanos / 1_000_000L);
+    return Math.min(HISTOGRAM_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(millis));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || other instanceof CacheStats stats
+        && hitCount == stats.hitCount
+        && missCount == stats.missCount
+        && loadCount == stats.loadCount
+        && totalLoadNanos == stats.totalLoadNanos
+        && Arrays.equals(loadTimeHistogram, stats.loadTimeHistogram)
+        && expirationCount == stats.expirationCount
+        && evictionCount == stats.evictionCount
+        && inUseRetentionCount == stats.inUseRetentionCount;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = Long.hashCode(hitCount);
+    result = 31 * result + Long.hashCode(missCount);
+    result = 31 * result + Long.hashCode(loadCount);
+    result = 31 * result + Long.hashCode(totalLoadNanos);
+    result = 31 * result + Arrays.hashCode(loadTimeHistogram);
+    result = 31 * result + Long.hashCode(expirationCount);
+    result = 31 * result + Long.hashCode(evictionCount);
+    result = 31 * result + Long.hashCode(inUseRetentionCount);
+    return result;
+  }
+
+  @Override
+  public @NotNull String toString() {
+    return "CacheStats[hitCount=" + hitCount
+        + ", missCount=" + missCount
+        + ", loadCount=" + loadCount
+        + ", totalLoadNanos=" + totalLoadNanos
+        + ", loadTimeHistogram=" + Arrays.toString(loadTimeHistogram)
+        + ", expirationCount=" + expirationCount
+        + ", evictionCount=" + evictionCount
+        + ", inUseRetentionCount=" + inUseRetentionCount
+        + ']';
+  }
+
+}
@@ -1,12 +1,18 @@
 package com.github.jikoo.enchantableblocks.util;
 
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.Plugin;
@@ -14,11 +20,16 @@ import org.jetbrains.annotations.NotNull;
 
 /**
  * A simplified way of managing a {@link YamlConfiguration} per Minecraft region.
+ *
+ * <p>Data is always held in memory as YAML, but may be stored on disk in any {@link Format}.
+ * Existing data in a different format is read transparently and replaced on the next save.
  */
 public class RegionStorage extends YamlConfiguration {
 
   private final @NotNull Path dataDir;
   private final @NotNull Region region;
+  private final @NotNull Format format;
+  private final @NotNull AtomicFileWriter writer;
 
   /**
    * Construct a new {@code RegionStorage}.
@@ -27,8 +38,37 @@ public class RegionStorage extends YamlConfiguration {
    * @param region the representation of the Minecraft region
    */
   public RegionStorage(@NotNull Path dataDir, @NotNull Region region) {
+    this(dataDir, region, Format.YAML);
+  }
+
+  /**
+   * Construct a new {@code RegionStorage}.
+   *
+   * @param dataDir the path to the data storage
+   * @param region the representation of the Minecraft region
+   * @param format the format used to write data to disk
+   */
+  public RegionStorage(@NotNull Path dataDir, @NotNull Region region, @NotNull Format format) {
+    this(dataDir, region, format, new AtomicFileWriter());
+  }
+
+  /**
+   * Construct a new {@code RegionStorage}.
+   *
+   * @param dataDir the path to the data storage
+   * @param region the representation of the Minecraft region
+   * @param format the format used to write data to disk
+   * @param writer the {@link AtomicFileWriter} used to write data to disk
+   */
+  public RegionStorage(
+      @NotNull Path dataDir,
+      @NotNull Region region,
+      @NotNull Format format,
+      @NotNull AtomicFileWriter writer) {
     this.dataDir = dataDir;
     this.region = region;
+    this.format = format;
+    this.writer = writer;
   }
 
   /**
@@ -42,12 +82,15 @@ public class RegionStorage extends YamlConfiguration {
   public RegionStorage(@NotNull Plugin plugin, @NotNull Region region) {
     this.dataDir = plugin.getDataFolder().toPath().resolve("data");
     this.region = region;
+    this.format = Format.YAML;
+    this.writer = new AtomicFileWriter();
   }
 
   /**
    * Load the configuration from the default location on disk.
    *
-   * <p>Note that if the file is not present, an empty configuration will be returned instead.
+   * <p>If no file is present in the configured format, files in other formats are checked.
+   * Note that if no file is present, an empty configuration will be returned instead.
    *
    * @throws IOException if there is an issue reading from disk
    * @throws InvalidConfigurationException if the configuration is not valid
@@ -56,24 +99,139 @@ public class RegionStorage extends YamlConfiguration {
   public void load() throws IOException, InvalidConfigurationException {
     File dataFile = getDataFile();
     if (dataFile.exists()) {
-      load(dataFile);
+      load(dataFile, format);
+      return;
+    }
+
+    for (Format other : Format.values()) {
+      if (other == format) {
+        continue;
+      }
+      dataFile = getDataFile(other);
+      if (dataFile.exists()) {
+        load(dataFile, other);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Load the configuration from the default location on disk if present.
+   *
+   * <p>Unlike {@link #load()}, files are opened directly rather than checked for first, so loading
+   * data that is known to exist does not pay for additional file system probes. Files in other
+   * formats are only checked if no file is present in the configured format.
+   *
+   * @return true if data was loaded or false if no file is present
+   * @throws IOException if there is an issue reading from disk
+   * @throws InvalidConfigurationException if the configuration is not valid
+   */
+  public boolean loadIfPresent() throws IOException, InvalidConfigurationException {
+    if (loadIfPresent(format)) {
+      return true;
+    }
+
+    for (Format other : Format.values()) {
+      if (other != format && loadIfPresent(other)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean loadIfPresent(@NotNull Format fileFormat)
+      throws IOException, InvalidConfigurationException {
+    File dataFile = getDataFile(fileFormat);
+    try {
+      load(dataFile, fileFormat);
+      return true;
+    } catch (FileNotFoundException | NoSuchFileException e) {
+      // Files that cannot be opened for other reasons are reported.
+      if (dataFile.exists()) {
+        throw e;
+      }
+      return false;
+    }
+  }
+
+  private void load(@NotNull File file, @NotNull Format fileFormat)
+      throws IOException, InvalidConfigurationException {
+    if (fileFormat == Format.YAML) {
+      load(file);
+      return;
+    }
+
+    // Open before clearing so that a missing file leaves content unchanged.
+    InputStream input = new BufferedInputStream(Files.newInputStream(file.toPath()));
+
+    // Clear existing content to match YAML loading behavior.
+    for (String key : getKeys(false)) {
+      set(key, null);
+    }
+
+    try (input) {
+      BinaryRegionFormat.read(input, this);
+    } catch (IOException e) {
+      throw new InvalidConfigurationException("Unable to read " + file, e);
     }
   }
 
+  /**
+   * Check if data is present on disk in any format.
+   *
+   * @return true if a data file exists
+   */
+  public boolean exists() {
+    for (Format value : Format.values()) {
+      if (getDataFile(value).exists()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Save the configuration to the default location on disk.
    *
+   * <p>The file is replaced atomically. Files in other formats are removed so that stale data
+   * cannot be read later.
+   *
    * @throws IOException if there is an issue writing the file to disk
    */
   public void save() throws IOException {
-    save(getDataFile());
+    File dataFile = getDataFile();
+    if (format == Format.YAML) {
+      save(dataFile);
+    } else {
+      writer.write(dataFile.toPath(), output -> BinaryRegionFormat.write(this, output));
+    }
+
+    deleteOtherFormats();
+  }
+
+  /**
+   * Delete data on disk in all formats.
+   *
+   * @throws IOException if there is an issue deleting a file
+   */
+  public void delete() throws IOException {
+    writer.delete(getDataFile().toPath());
+    deleteOtherFormats();
+  }
+
+  private void deleteOtherFormats() throws IOException {
+    for (Format other : Format.values()) {
+      if (other != format) {
+        writer.delete(getDataFile(other).toPath());
+      }
+    }
   }
 
   /**
    * Save the configuration to disk.
    *
-   * <p>Very similar to the overriden method, however, leverages {@link java.nio} features instead
-   * of beta Google APIs.
+   * <p>Very similar to the overriden method, however, the file is replaced atomically so that an
+   * interrupted write cannot corrupt existing data.
    *
    * @param file the file to save to on disk
    * @throws IOException if there is an issue writing to disk
@@ -81,14 +239,34 @@ public class RegionStorage extends YamlConfiguration {
    */
   @Override
   public void save(@NotNull File file) throws IOException {
-    Files.createDirectories(file.toPath().normalize().getParent());
+    byte[] yamlData = saveToString().getBytes(StandardCharsets.UTF_8);
 
-    String yamlData = saveToString();
+    writer.write(file.toPath(), output -> output.write(yamlData));
+  }
 
-    try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(file),
-        StandardCharsets.UTF_8)) {
-      writer.write(yamlData);
+  /**
+   * Create a detached copy of the current contents.
+   *
+   * <p>Lists are copied so that the snapshot can safely be serialized off the main thread while
+   * the original continues to be modified. Items are the shared templates held by blocks, which are
+   * never modified, so they are not copied.
+   *
+   * @return the copy
+   */
+  public @NotNull RegionStorage snapshot() {
+    RegionStorage snapshot = new RegionStorage(dataDir, region, format, writer);
+    for (Map.Entry<String, Object> entry : getValues(true).entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof ConfigurationSection) {
+        // Sections are created as needed by their contents.
+        continue;
+      }
+      if (value instanceof List<?> list) {
+        value = new ArrayList<>(list);
+      }
+      snapshot.set(entry.getKey(), value);
     }
+    return snapshot;
   }
 
   /**
@@ -97,10 +275,20 @@ public class RegionStorage extends YamlConfiguration {
    * @return the location on disk
    */
   public File getDataFile() {
+    return getDataFile(format);
+  }
+
+  /**
+   * Get the storage location on disk for a specific {@link Format}.
+   *
+   * @param fileFormat the format
+   * @return the location on disk
+   */
+  public File getDataFile(@NotNull Format fileFormat) {
     return dataDir
         .resolve(Path.of(
             region.worldName(),
-            String.format("%1$s_%2$s.yml", region.x(), region.z())
+            String.format("%1$s_%2$s.%3$s", region.x(), region.z(), fileFormat.getExtension())
         )).toFile();
   }
 
@@ -113,4 +301,38 @@ public class RegionStorage extends YamlConfiguration {
     return this.region;
   }
 
+  /**
+   * Get the {@link Format} used to write data to disk.
+   *
+   * @return the format
+   */
+  public @NotNull Format getFormat() {
+    return this.format;
+  }
+
+  /**
+   * Supported on-disk formats.
+   */
+  public enum Format {
+    /** Human-readable YAML. */
+    YAML("yml"),
+    /** Compact binary records. See {@link BinaryRegionFormat}. */
+    BINARY("ebr");
+
+    private final @NotNull String extension;
+
+    Format(@NotNull String extension) {
+      this.extension = extension;
+    }
+
+    /**
+     * Get the file extension used for the format.
+     *
+     * @return the file extension
+     */
+    public @NotNull String getExtension() {
+      return extension;
+    }
+  }
+
 }
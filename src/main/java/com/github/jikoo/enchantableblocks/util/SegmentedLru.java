@@ -0,0 +1,216 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A weighted segmented LRU ordering {@link Entry Entries} for eviction.
+ *
+ * <p>New entries start in a probationary segment. Entries accessed while on probation are
+ * promoted to a protected segment when next considered for eviction, so entries used once are
+ * evicted before entries used repeatedly. Accesses only set a volatile flag, so recording them
+ * does not require a lock. When the protected segment exceeds its share of the maximum weight,
+ * its least recently promoted entries are demoted back to probation.
+ *
+ * <p>The LRU is not thread-safe. Entry access flags may be modified concurrently.
+ *
+ * @param <K> the type of key
+ */
+final class SegmentedLru<K> {
+
+  private static final int NONE = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  private final @NotNull Segment<K> probation = new Segment<>();
+  private final @NotNull Segment<K> protect = new Segment<>();
+  private final long maximumProtectedWeight;
+  private int size;
+
+  /**
+   * Construct a new {@code SegmentedLru}.
+   *
+   * @param maximumWeight the maximum weight of all entries
+   */
+  SegmentedLru(long maximumWeight) {
+    this.maximumProtectedWeight = maximumWeight - maximumWeight / 5;
+  }
+
+  /**
+   * Add an {@link Entry} to the probationary segment.
+   *
+   * @param entry the {@code Entry}
+   */
+  void add(@NotNull Entry<K> entry) {
+    remove(entry);
+    probation.append(entry, PROBATION);
+    ++size;
+  }
+
+  /**
+   * Remove an {@link Entry} if it is present.
+   *
+   * @param entry the {@code Entry}
+   */
+  void remove(@NotNull Entry<K> entry) {
+    Segment<K> segment = segment(entry);
+    if (segment == null) {
+      return;
+    }
+    segment.unlink(entry);
+    --size;
+  }
+
+  /**
+   * Change the weight of an {@link Entry}.
+   *
+   * @param entry the {@code Entry}
+   * @param weight the new weight
+   */
+  void reweigh(@NotNull Entry<K> entry, int weight) {
+    Segment<K> segment = segment(entry);
+    if (segment != null) {
+      segment.weight += weight - entry.weight;
+    }
+    entry.weight = weight;
+  }
+
+  /**
+   * Get the next {@link Entry} to consider for eviction. The entry is moved to the end of the
+   * probationary segment so that subsequent calls offer different entries if it is retained.
+   *
+   * @return the {@code Entry} or {@code null} if empty
+   */
+  @Nullable Entry<K> candidate() {
+    // Each entry may be promoted and demoted once before settling on a candidate.
+    for (int attempt = 2 * size; attempt >= 0; --attempt) {
+      Entry<K> entry = probation.head;
+      if (entry == null) {
+        entry = protect.head;
+        if (entry == null) {
+          return null;
+        }
+        demote(entry);
+        continue;
+      }
+
+      probation.unlink(entry);
+      if (!entry.accessed || attempt == 0) {
+        probation.append(entry, PROBATION);
+        return entry;
+      }
+
+      entry.accessed = false;
+      protect.append(entry, PROTECTED);
+      while (protect.weight > maximumProtectedWeight && protect.head != null) {
+        demote(protect.head);
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Get the total weight of all entries.
+   *
+   * @return the total weight
+   */
+  long weight() {
+    return probation.weight + protect.weight;
+  }
+
+  /**
+   * Get the number of entries.
+   *
+   * @return the number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  private void demote(@NotNull Entry<K> entry) {
+    protect.unlink(entry);
+    entry.accessed = false;
+    probation.append(entry, PROBATION);
+  }
+
+  private @Nullable Segment<K> segment(@NotNull Entry<K> entry) {
+    return switch (entry.segment) {
+      case PROBATION -> probation;
+      case PROTECTED -> protect;
+      default -> null;
+    };
+  }
+
+  /**
+   * A doubly-linked list of entries ordered from least to most recently added.
+   *
+   * @param <K> the type of key
+   */
+  private static final class Segment<K> {
+
+    private @Nullable Entry<K> head;
+    private @Nullable Entry<K> tail;
+    private long weight;
+
+    private void append(@NotNull Entry<K> entry, int id) {
+      entry.segment = id;
+      entry.prev = tail;
+      entry.next = null;
+      if (tail == null) {
+        head = entry;
+      } else {
+        tail.next = entry;
+      }
+      tail = entry;
+      weight += entry.weight;
+    }
+
+    private void unlink(@NotNull Entry<K> entry) {
+      if (entry.prev == null) {
+        head = entry.next;
+      } else {
+        entry.prev.next = entry.next;
+      }
+      if (entry.next == null) {
+        tail = entry.prev;
+      } else {
+        entry.next.prev = entry.prev;
+      }
+      entry.segment = NONE;
+      entry.prev = null;
+      entry.next = null;
+      weight -= entry.weight;
+    }
+
+  }
+
+  /**
+   * An element with a weight that can be ordered by a {@link SegmentedLru}.
+   *
+   * @param <K> the type of key
+   */
+  static class Entry<K> extends TimingWheel.Entry<K> {
+
+    volatile boolean accessed;
+    private int weight = 1;
+    private int segment = NONE;
+    private @Nullable Entry<K> prev;
+    private @Nullable Entry<K> next;
+
+    Entry(@NotNull K key) {
+      super(key);
+    }
+
+    /**
+     * Get the weight of the entry.
+     *
+     * @return the weight
+     */
+    int getWeight() {
+      return weight;
+    }
+
+  }
+
+}
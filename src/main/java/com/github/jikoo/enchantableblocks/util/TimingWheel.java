@@ -0,0 +1,166 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import java.util.Collection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A hashed timing wheel tracking the deadlines of {@link Entry Entries}.
+ *
+ * <p>Entries are hashed into slots by deadline and linked into the slot directly, so each entry
+ * occupies at most one slot and scheduling and unscheduling are O(1). Deadlines may be extended
+ * at any time without rescheduling; entries whose deadlines have moved are relocated when their
+ * slot is next visited. Advancing only visits the slots of elapsed ticks, so expiring an entry is
+ * amortized O(1).
+ *
+ * <p>The wheel is not thread-safe. Entry deadlines are volatile and may be modified concurrently.
+ *
+ * @param <K> the type of key
+ */
+final class TimingWheel<K> {
+
+  private static final long MIN_TICK_DURATION = 1_000L;
+  private static final int MAX_SLOTS = 1_024;
+
+  private final @Nullable Entry<K> @NotNull [] slots;
+  private final long tickDuration;
+  private final int mask;
+  private long lastTick;
+  private int size;
+
+  /**
+   * Construct a new {@code TimingWheel}.
+   *
+   * @param span the maximum duration between now and a deadline
+   * @param now the current time
+   */
+  @SuppressWarnings("unchecked")
+  TimingWheel(long span, long now) {
+    long ticks = span / MIN_TICK_DURATION + 1;
+    int slotCount = (int) Math.min(MAX_SLOTS, Math.max(2, Long.highestOneBit(ticks) << 1));
+    this.slots = (Entry<K>[]) new Entry<?>[slotCount];
+    this.mask = slotCount - 1;
+    // A full rotation covers the span, so most entries are only visited when due.
+    this.tickDuration = Math.max(MIN_TICK_DURATION, Math.ceilDiv(span, slotCount - 1));
+    this.lastTick = now / tickDuration;
+  }
+
+  /**
+   * Add an {@link Entry} to the slot for its deadline. Entries already scheduled are moved.
+   *
+   * @param entry the {@code Entry}
+   */
+  void schedule(@NotNull Entry<K> entry) {
+    unschedule(entry);
+    // Overdue entries are visited on the next advance.
+    long tick = Math.max(entry.deadline / tickDuration, lastTick);
+    link(entry, (int) (tick & mask));
+    ++size;
+  }
+
+  /**
+   * Remove an {@link Entry} from the wheel if it is scheduled.
+   *
+   * @param entry the {@code Entry}
+   */
+  void unschedule(@NotNull Entry<K> entry) {
+    if (entry.slot < 0) {
+      return;
+    }
+    unlink(entry);
+    --size;
+  }
+
+  /**
+   * Advance the wheel, removing all visited {@link Entry Entries} whose deadlines have passed.
+   *
+   * @param now the current time
+   * @param due the collection to add due entries to
+   */
+  void advance(long now, @NotNull Collection<? super Entry<K>> due) {
+    long tick = now / tickDuration;
+    if (tick < lastTick) {
+      // Clock went backwards, nothing new can be due.
+      return;
+    }
+
+    // The last visited slot is revisited in case entries were added for the current tick.
+    long start = tick - lastTick >= slots.length ? tick - mask : lastTick;
+    for (long visit = start; visit <= tick; ++visit) {
+      int slot = (int) (visit & mask);
+      Entry<K> entry = slots[slot];
+      while (entry != null) {
+        Entry<K> next = entry.next;
+        long deadline = entry.deadline;
+        if (deadline <= now) {
+          unlink(entry);
+          --size;
+          due.add(entry);
+        } else {
+          int target = (int) ((deadline / tickDuration) & mask);
+          if (target != slot) {
+            // Deadline was extended, move to the correct slot.
+            unlink(entry);
+            link(entry, target);
+          }
+        }
+        entry = next;
+      }
+    }
+    lastTick = tick;
+  }
+
+  /**
+   * Get the number of scheduled {@link Entry Entries}.
+   *
+   * @return the number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  private void link(@NotNull Entry<K> entry, int slot) {
+    Entry<K> head = slots[slot];
+    entry.slot = slot;
+    entry.prev = null;
+    entry.next = head;
+    if (head != null) {
+      head.prev = entry;
+    }
+    slots[slot] = entry;
+  }
+
+  private void unlink(@NotNull Entry<K> entry) {
+    if (entry.prev == null) {
+      slots[entry.slot] = entry.next;
+    } else {
+      entry.prev.next = entry.next;
+    }
+    if (entry.next != null) {
+      entry.next.prev = entry.prev;
+    }
+    entry.slot = -1;
+    entry.prev = null;
+    entry.next = null;
+  }
+
+  /**
+   * An element with a deadline that can be tracked by a {@link TimingWheel}.
+   *
+   * @param <K> the type of key
+   */
+  static class Entry<K> {
+
+    final @NotNull K key;
+    volatile long deadline;
+    private int slot = -1;
+    private @Nullable Entry<K> prev;
+    private @Nullable Entry<K> next;
+
+    Entry(@NotNull K key) {
+      this.key = key;
+    }
+
+  }
+
+}
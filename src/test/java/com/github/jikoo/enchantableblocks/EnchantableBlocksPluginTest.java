@@ -4,12 +4,14 @@ import com.github.jikoo.enchantableblocks.mock.inventory.ItemFactoryMocks;
 import com.github.jikoo.enchantableblocks.mock.world.WorldMocks;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.Material;
 import org.bukkit.Registry;
 import org.bukkit.Server;
 import org.bukkit.command.Command;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.InvalidDescriptionException;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginDescriptionFile;
@@ -22,6 +24,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.MockedStatic;
 import org.mockito.invocation.InvocationOnMock;
@@ -37,6 +40,9 @@ import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
@@ -143,6 +149,21 @@ class EnchantableBlocksPluginTest {
     verify(plugin.getLogger()).info(any(Supplier.class));
   }
 
+  @DisplayName("Plugin enables blocks in loaded worlds before the first tick.")
+  @Test
+  void testLoadedWorldsEnabled() {
+    var world = WorldMocks.newWorld("world");
+    when(plugin.getServer().getWorlds()).thenReturn(List.of(world));
+
+    plugin.onEnable();
+
+    var block = world.getBlockAt(0, 0, 0);
+    assertThat(
+        "Block must be created",
+        plugin.getBlockManager().createBlock(block, new ItemStack(Material.FURNACE)),
+        is(notNullValue()));
+  }
+
   @DisplayName("Reload command functions as expected.")
   @Test
   void testCommandBase() {
@@ -156,6 +177,23 @@ class EnchantableBlocksPluginTest {
     verify(player).sendMessage(ArgumentMatchers.endsWith("Reloaded config and registry cache."));
   }
 
+  @DisplayName("Stats command displays cache statistics.")
+  @Test
+  void testCommandStats() {
+    plugin.onEnable();
+    var command = mock(Command.class);
+    var player = mock(Player.class);
+
+    boolean success = plugin.onCommand(player, command, "aliasesarebad", new String[] { "stats" });
+
+    assertThat("Stats execution must succeed", success);
+    ArgumentCaptor<String[]> captor = ArgumentCaptor.forClass(String[].class);
+    verify(player).sendMessage(captor.capture());
+    String[] lines = captor.getValue();
+    assertThat("Stats must be displayed", lines.length, is(4));
+    assertThat("Stats must be labeled", lines[0], endsWith("Region cache statistics:"));
+  }
+
   @DisplayName("No argument command displays version and tells server to show help")
   @Test
   void testCommandNoArgs() {
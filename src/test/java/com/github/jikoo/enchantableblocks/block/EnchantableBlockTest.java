@@ -10,6 +10,7 @@ import org.bukkit.Material;
 import org.bukkit.Registry;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemStack;
 import org.junit.jupiter.api.AfterAll;
@@ -26,6 +27,7 @@ import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
@@ -93,13 +95,75 @@ class EnchantableBlockTest {
     when(storage.getItemStack(anyString())).thenReturn(itemStackClone);
     when(itemStackClone.getAmount()).thenReturn(2);
 
+    ItemStack returnedClone = mock(ItemStack.class);
+    doAnswer(invocation -> returnedClone).when(itemStackClone).clone();
+
     var enchantableBlock = new EnchantableBlock(registration, block, itemStack, storage) {};
     verify(itemStack).clone();
-    ItemStack internalStack = enchantableBlock.getItemStack();
-    assertThat("Item is clone", internalStack, is(itemStackClone));
     verify(itemStackClone).setAmount(1);
-    // Directly returning the internal ItemStack instance allows subclasses to manipulate it.
-    assertThat("Same item is returned", enchantableBlock.getItemStack(), is(sameInstance(internalStack)));
+    assertThat("Returned item is copy", enchantableBlock.getItemStack(), is(returnedClone));
+  }
+
+  @DisplayName("Blocks created from identical items share one item.")
+  @Test
+  void testItemStackShared() {
+    var firstStorage = new YamlConfiguration();
+    var secondStorage = new YamlConfiguration();
+    var otherStorage = new YamlConfiguration();
+    var first = new EnchantableBlock(registration, block, new ItemStack(Material.FURNACE), firstStorage) {};
+    var second = new EnchantableBlock(registration, block, new ItemStack(Material.FURNACE, 2), secondStorage) {};
+    var other = new EnchantableBlock(registration, block, new ItemStack(Material.SMOKER), otherStorage) {};
+    first.updateStorage(firstStorage);
+    second.updateStorage(secondStorage);
+    other.updateStorage(otherStorage);
+
+    ItemStack shared = firstStorage.getItemStack("itemstack");
+    assertThat("Identical items are shared", secondStorage.getItemStack("itemstack"), is(sameInstance(shared)));
+    assertThat("Different items are not shared", otherStorage.getItemStack("itemstack"), is(not(sameInstance(shared))));
+  }
+
+  @DisplayName("Returned items are copies of the shared item.")
+  @Test
+  void testItemStackCopied() {
+    var storage = new YamlConfiguration();
+    var enchantableBlock = new EnchantableBlock(registration, block, new ItemStack(Material.FURNACE), storage) {};
+    enchantableBlock.updateStorage(storage);
+
+    ItemStack copy = enchantableBlock.getItemStack();
+    assertThat("Item is equal", copy, is(storage.getItemStack("itemstack")));
+    assertThat("Item is copied", copy, is(not(sameInstance(storage.getItemStack("itemstack")))));
+
+    copy.setAmount(2);
+    assertThat("Shared item is unchanged", enchantableBlock.getItemStack().getAmount(), is(1));
+  }
+
+  @DisplayName("Internal item access does not copy the shared item.")
+  @Test
+  void testItemTemplate() {
+    var storage = new YamlConfiguration();
+    var enchantableBlock = new EnchantableBlock(registration, block, new ItemStack(Material.FURNACE), storage) {};
+    enchantableBlock.updateStorage(storage);
+
+    assertThat("Template is shared item", enchantableBlock.getItemTemplate(), is(sameInstance(storage.getItemStack("itemstack"))));
+  }
+
+  @DisplayName("Loaded blocks save the shared item.")
+  @Test
+  void testStoredItemShared() {
+    var firstStorage = new YamlConfiguration();
+    var first = new EnchantableBlock(registration, block, new ItemStack(Material.FURNACE), firstStorage) {};
+    first.updateStorage(firstStorage);
+    ItemStack loaded = new ItemStack(Material.FURNACE);
+    var loadedStorage = new YamlConfiguration();
+    loadedStorage.set("itemstack", loaded);
+
+    var second = new EnchantableBlock(registration, block, loaded, loadedStorage) {};
+    var savedStorage = new YamlConfiguration();
+    second.updateStorage(savedStorage);
+
+    assertThat("Loaded block is not modified", second.isDirty(), is(false));
+    assertThat("Loaded storage is not modified", loadedStorage.getItemStack("itemstack"), is(sameInstance(loaded)));
+    assertThat("Saved state references shared item", savedStorage.getItemStack("itemstack"), is(sameInstance(firstStorage.getItemStack("itemstack"))));
   }
 
   @DisplayName("Block checks against in-world type.")
@@ -147,24 +211,48 @@ class EnchantableBlockTest {
     var enchantableBlock = spy(new EnchantableBlock(registration, block, itemStack, storage) {});
 
     assertThat("EnchantableBlock is dirty", enchantableBlock.isDirty());
-    verify(enchantableBlock).updateStorage();
+    verify(storage, times(0)).set(anyString(), any());
 
-    enchantableBlock.setDirty(false);
+    enchantableBlock.updateStorage(storage);
 
+    verify(storage).set("itemstack", itemStackClone);
     assertThat("EnchantableBlock is dirty until saved", enchantableBlock.isDirty());
-    verify(enchantableBlock, times(2)).updateStorage();
 
-    doReturn(itemStackClone).when(storage).getItemStack("itemstack");
     enchantableBlock.setDirty(false);
 
+    assertThat("EnchantableBlock is not dirty once saved", enchantableBlock.isDirty(), is(false));
+    verify(enchantableBlock).updateStorage(storage);
+  }
+
+  @DisplayName("Stored item is not rewritten if unchanged.")
+  @Test
+  void testCleanStorage() {
+    var enchantableBlock = new EnchantableBlock(registration, block, itemStack, storage) {};
+
     assertThat("EnchantableBlock is not dirty", enchantableBlock.isDirty(), is(false));
+    verify(storage, times(0)).set(anyString(), any());
   }
 
-  @DisplayName("Enchantable blocks retrieve provided storage.")
+  @DisplayName("Modifications made while saving remain dirty.")
   @Test
-  void testGetStorage() {
+  void testDirtyVersion() {
     var enchantableBlock = new EnchantableBlock(registration, block, itemStack, storage) {};
-    assertThat("Storage is provided value", enchantableBlock.getStorage(), is(storage));
+    enchantableBlock.setDirty(false);
+    assertThat("EnchantableBlock is not dirty", enchantableBlock.isDirty(), is(false));
+
+    enchantableBlock.setDirty(true);
+    enchantableBlock.setDirty(true);
+    assertThat("EnchantableBlock is dirty", enchantableBlock.isDirty());
+
+    enchantableBlock.setDirty(false);
+    assertThat("EnchantableBlock is not dirty", enchantableBlock.isDirty(), is(false));
+  }
+
+  @DisplayName("Blocks without saved state must register as needing saving.")
+  @Test
+  void testNewBlock() {
+    var enchantableBlock = new EnchantableBlock(registration, block, itemStack, null) {};
+    assertThat("EnchantableBlock is dirty", enchantableBlock.isDirty());
   }
 
   @DisplayName("Enchantable blocks retrieve provided registration.")
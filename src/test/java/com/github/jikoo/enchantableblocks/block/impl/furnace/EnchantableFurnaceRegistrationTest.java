@@ -169,8 +169,8 @@ class EnchantableFurnaceRegistrationTest {
 
     assertThat("New block must create EnchantableFurnace",
         enchantableFurnace, is(instanceOf(EnchantableFurnace.class)));
-    assertThat("New block must create new instance",
-        registration.newBlock(block, itemStack, section),
+    assertThat("New block must create new instance without saved state",
+        registration.newBlock(block, itemStack, null),
         is(both(instanceOf(EnchantableFurnace.class)).and(not(enchantableFurnace))));
   }
 
@@ -4,8 +4,10 @@ import com.github.jikoo.enchantableblocks.block.EnchantableBlock;
 import com.github.jikoo.enchantableblocks.mock.inventory.InventoryMocks;
 import com.github.jikoo.enchantableblocks.mock.inventory.ItemFactoryMocks;
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager;
+import com.github.jikoo.enchantableblocks.util.MathHelper;
 import com.github.jikoo.planarwrappers.util.StringConverters;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Registry;
 import org.bukkit.Server;
@@ -127,6 +129,7 @@ class EnchantableFurnaceTest {
     var inventory = InventoryMocks.newFurnaceMock();
     when(tile.getInventory()).thenReturn(inventory);
     when(inventory.getHolder()).thenReturn(tile);
+    when(inventory.getLocation()).thenReturn(new Location(null, 0, 0, 0));
 
     AtomicInteger burnTime = new AtomicInteger();
     when(tile.getBurnTime()).thenAnswer(invocation -> (short) burnTime.get());
@@ -159,6 +162,9 @@ class EnchantableFurnaceTest {
         enchantableFurnace.getItemStack().getEnchantmentLevel(Enchantment.SILK_TOUCH),
         is(1)
     );
+
+    var other = new EnchantableFurnace(reg, block, itemStack, storage);
+    assertThat("Shared item is not converted in place", other.getFrozenTicks(), is(legacyFrozenTicks));
   }
 
   @DisplayName("New data is created")
@@ -195,6 +201,22 @@ class EnchantableFurnaceTest {
     assertThat("No free frozen tick", enchantableFurnace.getFrozenTicks(), is(frozenTicks));
   }
 
+  @DisplayName("State is only written to storage when saved")
+  @Test
+  void testStorageWrittenOnSave() {
+    storage = new YamlConfiguration();
+    itemStack.addUnsafeEnchantment(Enchantment.SILK_TOUCH, 1);
+
+    var enchantableFurnace = new EnchantableFurnace(reg, block, itemStack, storage);
+    enchantableFurnace.setFrozenTicks((short) 10);
+    assertThat("State must not be written", storage.isSet("silk.ticks"), is(false));
+
+    enchantableFurnace.updateStorage(storage);
+    assertThat("Pause state must be written", storage.getBoolean("silk.enabled"));
+    assertThat("Frozen ticks must be written", storage.getInt("silk.ticks"), is(10));
+    assertThat("Data needs saving", enchantableFurnace.isDirty());
+  }
+
   @DisplayName("Block provides initializing registration.")
   @Test
   void testGetRegistration() {
@@ -266,6 +288,40 @@ class EnchantableFurnaceTest {
     assertThat("Modifier must be set", enchantableFurnace.getFortune(), is(modifier));
   }
 
+  @DisplayName("Effects are computed from the item.")
+  @ParameterizedTest
+  @ValueSource(ints = { -5, 0, 1, 5 })
+  void testEffects(int level) {
+    itemStack.addUnsafeEnchantment(Enchantment.EFFICIENCY, level);
+    itemStack.addUnsafeEnchantment(Enchantment.UNBREAKING, level);
+    itemStack.addUnsafeEnchantment(Enchantment.FORTUNE, level);
+
+    var effects = FurnaceEffects.of(itemStack);
+
+    assertThat("Cook modifier must match", effects.cookModifier(), is(level));
+    assertThat("Burn modifier must match", effects.burnModifier(), is(level));
+    assertThat("Fortune must match", effects.fortune(), is(level));
+    assertThat(
+        "Cook multiplier must match",
+        effects.cookMultiplier() * 200,
+        is(MathHelper.sigmoid(200, -level, 2.0)));
+    assertThat(
+        "Burn multiplier must match",
+        effects.burnMultiplier() * 1600,
+        is(MathHelper.sigmoid(1600, level, 3.0)));
+  }
+
+  @DisplayName("Effects are updated when the item changes.")
+  @Test
+  void testEffectsLegacyItem() {
+    itemStack.addUnsafeEnchantment(Enchantment.SILK_TOUCH, 200);
+    itemStack.addUnsafeEnchantment(Enchantment.EFFICIENCY, 2);
+
+    var enchantableFurnace = new EnchantableFurnace(reg, block, itemStack, storage);
+
+    assertThat("Cook modifier must be preserved", enchantableFurnace.getCookModifier(), is(2));
+  }
+
   @DisplayName("Silk touch not present does not allow pausing.")
   @Test
   void testCannotPause() {
@@ -728,11 +784,30 @@ class EnchantableFurnaceTest {
       doReturn(scheduler).when(server).getScheduler();
     }
 
+    private @NotNull EnchantableBlockManager newManager() {
+      var manager = mock(EnchantableBlockManager.class);
+      doReturn(true).when(manager).hasChunkBlocks(any());
+      return manager;
+    }
+
+    @DisplayName("Furnaces in chunks without blocks are skipped before reading the tile.")
+    @Test
+    void testUpdateEmptyChunk() {
+      var manager = mock(EnchantableBlockManager.class);
+      var inventory = setUpTile().getInventory();
+
+      EnchantableFurnace.update(plugin, manager, inventory);
+      verify(manager).hasChunkBlocks(any());
+      verify(inventory, times(0)).getHolder();
+      verify(manager, times(0)).getBlock(any());
+    }
+
     @DisplayName("Furnaces must have tiles to update.")
     @Test
     void testUpdateNoTile() {
-      var manager = mock(EnchantableBlockManager.class);
+      var manager = newManager();
       var inventory = mock(FurnaceInventory.class);
+      doReturn(new Location(null, 0, 0, 0)).when(inventory).getLocation();
 
       EnchantableFurnace.update(plugin, manager, inventory);
       verify(manager, times(0)).getBlock(any());
@@ -741,14 +816,14 @@ class EnchantableFurnaceTest {
     @DisplayName("Tile must be linked to an EnchantableFurnace to update.")
     @Test
     void testUpdateNullEnchantableBlock() {
-      var manager = mock(EnchantableBlockManager.class);
+      var manager = newManager();
       var inventory = setUpTile().getInventory();
 
       EnchantableFurnace.update(plugin, manager, inventory);
       verify(manager).getBlock(any());
       verify(plugin, times(0)).getServer();
 
-      manager = mock(EnchantableBlockManager.class);
+      manager = newManager();
       var enchantableBlock = mock(EnchantableBlock.class);
       doReturn(enchantableBlock).when(manager).getBlock(any());
 
@@ -760,7 +835,7 @@ class EnchantableFurnaceTest {
     @DisplayName("Furnace must be able to pause to update.")
     @Test
     void testUpdateNoPause() {
-      var manager = mock(EnchantableBlockManager.class);
+      var manager = newManager();
       var enchantableFurnace = new EnchantableFurnace(reg, block, itemStack, storage);
       doReturn(enchantableFurnace).when(manager).getBlock(any());
       var inventory = setUpTile().getInventory();
@@ -773,7 +848,7 @@ class EnchantableFurnaceTest {
     @DisplayName("Multiple updates do not trigger multiple tasks.")
     @Test
     void testUpdateRepeat() {
-      var manager = mock(EnchantableBlockManager.class);
+      var manager = newManager();
       var enchantableFurnace = spy(new EnchantableFurnace(reg, block, itemStack, storage));
       when(enchantableFurnace.canPause()).thenReturn(true);
       doReturn(enchantableFurnace).when(manager).getBlock(any());
@@ -794,7 +869,7 @@ class EnchantableFurnaceTest {
     @DisplayName("Matching pause state does nothing")
     @Test
     void testUpdateNoPauseChange() {
-      var manager = mock(EnchantableBlockManager.class);
+      var manager = newManager();
       var enchantableFurnace = spy(new EnchantableFurnace(reg, block, itemStack, storage));
       when(enchantableFurnace.canPause()).thenReturn(true);
       doReturn(enchantableFurnace).when(manager).getBlock(any());
@@ -817,7 +892,7 @@ class EnchantableFurnaceTest {
     @DisplayName("Paused but resumable resumes")
     @Test
     void testUpdateResume() {
-      var manager = mock(EnchantableBlockManager.class);
+      var manager = newManager();
       var enchantableFurnace = spy(new EnchantableFurnace(reg, block, itemStack, storage));
       when(enchantableFurnace.canPause()).thenReturn(true);
       doReturn(enchantableFurnace).when(manager).getBlock(any());
@@ -835,7 +910,7 @@ class EnchantableFurnaceTest {
     @DisplayName("Running but pauseable pauses")
     @Test
     void testUpdatePause() {
-      var manager = mock(EnchantableBlockManager.class);
+      var manager = newManager();
       var enchantableFurnace = spy(new EnchantableFurnace(reg, block, itemStack, storage));
       when(enchantableFurnace.canPause()).thenReturn(true);
       doReturn(enchantableFurnace).when(manager).getBlock(any());
@@ -8,6 +8,7 @@ import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager;
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockRegistry;
 import com.github.jikoo.planarwrappers.util.StringConverters;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Registry;
 import org.bukkit.Server;
@@ -36,6 +37,7 @@ import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.inventory.Recipe;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitScheduler;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -438,15 +440,23 @@ class FurnaceListenerTest {
   @Nested
   class ClickEventsTest {
 
+    private EnchantableBlockManager manager;
     private FurnaceListener listener;
 
     @BeforeEach
     void beforeEach() {
       var plugin = mock(Plugin.class);
-      var manager = mock(EnchantableBlockManager.class);
+      manager = mock(EnchantableBlockManager.class);
+      doReturn(true).when(manager).hasChunkBlocks(any());
       listener = new FurnaceListener(plugin, manager);
     }
 
+    private @NotNull FurnaceInventory newFurnaceInventory() {
+      var inventory = mock(FurnaceInventory.class);
+      doReturn(new Location(null, 0, 0, 0)).when(inventory).getLocation();
+      return inventory;
+    }
+
     @DisplayName("Clicks not affecting a furnace are ignored.")
     @Test
     void testInventoryClickNonFurnace() {
@@ -462,13 +472,26 @@ class FurnaceListenerTest {
     @Test
     void testInventoryClickFurnace() {
       var view = mock(InventoryView.class);
-      var inventory = mock(FurnaceInventory.class);
+      var inventory = newFurnaceInventory();
       when(view.getTopInventory()).thenReturn(inventory);
       var event = new InventoryClickEvent(view, SlotType.CONTAINER, 0, ClickType.LEFT, InventoryAction.PICKUP_ALL);
       assertDoesNotThrow(() -> listener.onInventoryClick(event));
       verify(inventory).getHolder();
     }
 
+    @DisplayName("Clicks affecting a furnace in a chunk without blocks are ignored.")
+    @Test
+    void testInventoryClickFurnaceEmptyChunk() {
+      doReturn(false).when(manager).hasChunkBlocks(any());
+      var view = mock(InventoryView.class);
+      var inventory = newFurnaceInventory();
+      when(view.getTopInventory()).thenReturn(inventory);
+      var event = new InventoryClickEvent(view, SlotType.CONTAINER, 0, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+      assertDoesNotThrow(() -> listener.onInventoryClick(event));
+      verify(inventory, times(0)).getHolder();
+      verify(manager, times(0)).getBlock(any());
+    }
+
     @DisplayName("Item movements not involving a furnace are ignored.")
     @Test
     void testInventoryMoveItemNonFurnace() {
@@ -481,7 +504,7 @@ class FurnaceListenerTest {
     @DisplayName("Item movements from a furnace cause updates.")
     @Test
     void testInventoryMoveItemFromFurnace() {
-      var fromInv = mock(FurnaceInventory.class);
+      var fromInv = newFurnaceInventory();
       var toInv = mock(Inventory.class);
       var event = new InventoryMoveItemEvent(fromInv, new ItemStack(Material.DIRT), toInv, true);
       assertDoesNotThrow(() -> listener.onInventoryMoveItem(event));
@@ -492,7 +515,7 @@ class FurnaceListenerTest {
     @Test
     void testInventoryMoveItemToFurnace() {
       var fromInv = mock(Inventory.class);
-      var toInv = mock(FurnaceInventory.class);
+      var toInv = newFurnaceInventory();
       var event = new InventoryMoveItemEvent(fromInv, new ItemStack(Material.DIRT), toInv, true);
       assertDoesNotThrow(() -> listener.onInventoryMoveItem(event));
       verify(toInv).getHolder();
@@ -513,7 +536,7 @@ class FurnaceListenerTest {
     @Test
     void testInventoryDragFurnace() {
       var view = mock(InventoryView.class);
-      var inventory = mock(FurnaceInventory.class);
+      var inventory = newFurnaceInventory();
       when(view.getTopInventory()).thenReturn(inventory);
       var event = new InventoryDragEvent(view, new ItemStack(Material.AIR), new ItemStack(Material.DIRT), false, Map.of(0, new ItemStack(Material.DIRT)));
       assertDoesNotThrow(() -> listener.onInventoryDrag(event));
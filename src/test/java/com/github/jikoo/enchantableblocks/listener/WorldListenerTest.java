@@ -23,6 +23,9 @@ import org.bukkit.event.block.BlockDropItemEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldSaveEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -164,15 +167,13 @@ class WorldListenerTest {
     return world;
   }
 
-  @DisplayName("Chunk loading loads blocks from storage.")
+  @DisplayName("Chunk loading prefetches blocks from storage.")
   @Test
   void testChunkLoad() {
     var event = new ChunkLoadEvent(block.getChunk(), false);
     assertDoesNotThrow(() -> listener.onChunkLoad(event));
     verify(manager, times(0)).loadChunkBlocks(any());
-    Runnable task = runnableCaptor.getValue();
-    assertDoesNotThrow(task::run);
-    verify(manager).loadChunkBlocks(any());
+    verify(manager).prefetchChunkBlocks(any());
   }
 
   @DisplayName("Chunk unloads unload blocks from storage.")
@@ -183,6 +184,30 @@ class WorldListenerTest {
     verify(manager).unloadChunkBlocks(any());
   }
 
+  @DisplayName("World loads prepare per-world settings.")
+  @Test
+  void testWorldLoad() {
+    var event = new WorldLoadEvent(block.getWorld());
+    assertDoesNotThrow(() -> listener.onWorldLoad(event));
+    verify(manager).loadWorld(block.getWorld());
+  }
+
+  @DisplayName("World unloads release per-world settings.")
+  @Test
+  void testWorldUnload() {
+    var event = new WorldUnloadEvent(block.getWorld());
+    assertDoesNotThrow(() -> listener.onWorldUnload(event));
+    verify(manager).unloadWorld(block.getWorld());
+  }
+
+  @DisplayName("World saves save block data.")
+  @Test
+  void testWorldSave() {
+    var event = new WorldSaveEvent(block.getWorld());
+    assertDoesNotThrow(() -> listener.onWorldSave(event));
+    verify(manager).saveWorld(any());
+  }
+
   @DisplayName("Placing valid blocks creates enchanted blocks.")
   @Test
   void testBlockPlace() {
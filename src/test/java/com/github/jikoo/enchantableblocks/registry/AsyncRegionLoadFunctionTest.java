@@ -0,0 +1,121 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager.RegionStorageData;
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Load data per region off the main thread.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncRegionLoadFunctionTest {
+
+  private final Path dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName());
+  private final Region region = new Region("world", 0, 0);
+  private RegionFileStorageBackend backend;
+  private RegionLoadFunction loadFunction;
+
+  @BeforeEach
+  void beforeEach() {
+    Logger logger = mock();
+    backend = new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    var saveQueue = new RegionSaveQueue(logger, backend, MoreExecutors.newDirectExecutorService());
+    loadFunction = new RegionLoadFunction(mock(), backend, logger, saveQueue);
+  }
+
+  @AfterEach
+  void afterEach() throws IOException {
+    if (!Files.exists(dataDir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> {
+        try {
+          Files.delete(file);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+    }
+  }
+
+  @DisplayName("Stored data is read.")
+  @Test
+  void testLoad() throws IOException {
+    RegionStorage storage = backend.create(region);
+    storage.set("0_0.0_0_0.value", 10);
+    backend.save(storage);
+
+    var asyncLoadFunction =
+        new AsyncRegionLoadFunction(loadFunction, MoreExecutors.directExecutor());
+    RegionStorageData loaded = asyncLoadFunction.apply(region, false).join();
+
+    assertThat("Data must be read", loaded, notNullValue());
+    assertThat("Value must match", loaded.getStorage().getInt("0_0.0_0_0.value"), is(10));
+  }
+
+  @DisplayName("Regions without data are read as null unless created.")
+  @Test
+  void testLoadAbsent() {
+    var asyncLoadFunction =
+        new AsyncRegionLoadFunction(loadFunction, MoreExecutors.directExecutor());
+
+    assertThat(
+        "Absent data must be null",
+        asyncLoadFunction.apply(region, false).join(),
+        nullValue());
+    assertThat(
+        "Absent data must be created if requested",
+        asyncLoadFunction.apply(region, true).join(),
+        notNullValue());
+  }
+
+  @DisplayName("Regions are read on the executor.")
+  @Test
+  void testExecutor() throws InterruptedException {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CountDownLatch latch = new CountDownLatch(1);
+      executor.execute(() -> {
+        try {
+          latch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+
+      var asyncLoadFunction = new AsyncRegionLoadFunction(loadFunction, executor);
+      CompletableFuture<RegionStorageData> future = asyncLoadFunction.apply(region, false);
+      assertThat("Region must not be read until executor is free", future.isDone(), is(false));
+
+      latch.countDown();
+      assertThat("Region must be read", future.join(), nullValue());
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+}
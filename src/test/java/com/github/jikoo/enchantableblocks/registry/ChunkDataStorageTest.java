@@ -0,0 +1,204 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.jikoo.enchantableblocks.block.EnchantableBlock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Store block data in chunks.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChunkDataStorageTest {
+
+  private static final String CHUNK_PATH = "0_0";
+  private static final String VALUE_PATH = "0_64_0.value";
+
+  private final NamespacedKey key = Objects.requireNonNull(
+      NamespacedKey.fromString("enchantableblocks:blocks"));
+  private Map<NamespacedKey, Object> chunkData;
+  private PersistentDataContainer container;
+  private Chunk chunk;
+  private List<EnchantableBlock> blocks;
+  private RegionDataMigrator migrator;
+
+  @BeforeEach
+  void beforeEach() {
+    chunkData = new HashMap<>();
+    container = mock();
+    when(container.get(any(), any())).thenAnswer(
+        invocation -> chunkData.get(invocation.<NamespacedKey>getArgument(0)));
+    doAnswer(invocation -> chunkData.put(invocation.getArgument(0), invocation.getArgument(2)))
+        .when(container).set(any(), any(), any());
+    doAnswer(invocation -> chunkData.remove(invocation.<NamespacedKey>getArgument(0)))
+        .when(container).remove(any());
+
+    World world = mock();
+    when(world.getName()).thenReturn("world");
+    chunk = mock();
+    when(chunk.getWorld()).thenReturn(world);
+    when(chunk.getPersistentDataContainer()).thenReturn(container);
+    when(chunk.isLoaded()).thenReturn(true);
+
+    blocks = new ArrayList<>();
+    migrator = mock();
+  }
+
+  private ChunkDataStorage newStorage(RegionDataMigrator migrator) {
+    return new ChunkDataStorage(key, mock(Logger.class), ignored -> blocks, migrator);
+  }
+
+  @DisplayName("Missing data is only created on request.")
+  @Test
+  void testGetMissing() {
+    var storage = newStorage(null);
+
+    assertThat("Data must not be created", storage.getSection(chunk, CHUNK_PATH, false), nullValue());
+    assertThat("Data must be created", storage.getSection(chunk, CHUNK_PATH, true), notNullValue());
+  }
+
+  @DisplayName("Modified data is written to and read from the chunk.")
+  @Test
+  void testRoundTrip() {
+    var storage = newStorage(null);
+    Objects.requireNonNull(storage.getSection(chunk, CHUNK_PATH, true)).set(VALUE_PATH, 10);
+    storage.setDirty(chunk);
+    storage.unload(chunk);
+
+    assertThat("Data must be written to chunk", chunkData.get(key), notNullValue());
+
+    var section = newStorage(null).getSection(chunk, CHUNK_PATH, false);
+    assertThat("Data must be read from chunk", section, notNullValue());
+    assertThat("Value must match", section.getInt(VALUE_PATH), is(10));
+  }
+
+  @DisplayName("Unmodified data is not written.")
+  @Test
+  void testUnmodified() {
+    var storage = newStorage(null);
+    storage.getSection(chunk, CHUNK_PATH, true);
+    storage.unload(chunk);
+
+    verify(container, never()).set(any(), any(), any());
+  }
+
+  @DisplayName("Modified blocks cause data to be written.")
+  @Test
+  void testDirtyBlock() {
+    EnchantableBlock block = mock();
+    when(block.isDirty()).thenReturn(true);
+    when(block.getBlock()).thenReturn(mock());
+    blocks.add(block);
+
+    var storage = newStorage(null);
+    var section = Objects.requireNonNull(storage.getSection(chunk, CHUNK_PATH, true));
+    section.set(VALUE_PATH, 10);
+    storage.saveAll();
+
+    assertThat("Data must be written to chunk", chunkData.get(key), notNullValue());
+    verify(block).updateStorage(any());
+    assertThat("Block state must not be kept in memory", section.contains("0_0_0"), is(false));
+    verify(block).setDirty(false);
+  }
+
+  @DisplayName("Data is only saved for the requested world.")
+  @Test
+  void testSaveWorld() {
+    var storage = newStorage(null);
+    Objects.requireNonNull(storage.getSection(chunk, CHUNK_PATH, true)).set(VALUE_PATH, 10);
+    storage.setDirty(chunk);
+
+    storage.save("other_world");
+    assertThat("Other world must not be saved", chunkData.get(key), nullValue());
+
+    storage.save("world");
+    assertThat("World must be saved", chunkData.get(key), notNullValue());
+  }
+
+  @DisplayName("Empty data is removed from the chunk.")
+  @Test
+  void testEmpty() {
+    var storage = newStorage(null);
+    Objects.requireNonNull(storage.getSection(chunk, CHUNK_PATH, true)).set(VALUE_PATH, 10);
+    storage.setDirty(chunk);
+    storage.saveAll();
+
+    var section = Objects.requireNonNull(storage.getSection(chunk, CHUNK_PATH, false));
+    Objects.requireNonNull(section.getParent()).set(CHUNK_PATH, null);
+    storage.setDirty(chunk);
+    storage.saveAll();
+
+    verify(container).remove(key);
+    assertThat("Data must be removed", chunkData.get(key), nullValue());
+  }
+
+  @DisplayName("Legacy data is migrated and written immediately.")
+  @Test
+  void testMigrate() {
+    var legacy = new MemoryConfiguration();
+    legacy.set(CHUNK_PATH + '.' + VALUE_PATH, 10);
+    when(migrator.take(eq(chunk), anyString())).thenReturn(legacy.getConfigurationSection(CHUNK_PATH));
+
+    var section = newStorage(migrator).getSection(chunk, CHUNK_PATH, false);
+
+    assertThat("Data must be migrated", section, notNullValue());
+    assertThat("Value must match", section.getInt(VALUE_PATH), is(10));
+    assertThat("Data must be written to chunk", chunkData.get(key), notNullValue());
+  }
+
+  @DisplayName("Chunk data takes precedence over legacy data.")
+  @Test
+  void testMigratePrecedence() {
+    var storage = newStorage(null);
+    Objects.requireNonNull(storage.getSection(chunk, CHUNK_PATH, true)).set(VALUE_PATH, 10);
+    storage.setDirty(chunk);
+    storage.unload(chunk);
+
+    var legacy = new MemoryConfiguration();
+    legacy.set(CHUNK_PATH + '.' + VALUE_PATH, 5);
+    when(migrator.take(eq(chunk), anyString())).thenReturn(legacy.getConfigurationSection(CHUNK_PATH));
+
+    ConfigurationSection section = newStorage(migrator).getSection(chunk, CHUNK_PATH, false);
+
+    verify(migrator).take(chunk, CHUNK_PATH);
+    assertThat("Data must be present", section, notNullValue());
+    assertThat("Chunk value must be used", section.getInt(VALUE_PATH), is(10));
+  }
+
+  @DisplayName("Empty data is retained while migrating.")
+  @Test
+  void testEmptyWhileMigrating() {
+    when(migrator.isComplete()).thenReturn(false);
+    var storage = newStorage(migrator);
+    storage.getSection(chunk, CHUNK_PATH, true);
+    storage.setDirty(chunk);
+    storage.unload(chunk);
+
+    assertThat("Empty marker must be written", chunkData.get(key), notNullValue());
+  }
+
+}
@@ -6,12 +6,14 @@ import com.github.jikoo.enchantableblocks.mock.answer.SpiedAnswer;
 import com.github.jikoo.enchantableblocks.mock.inventory.ItemFactoryMocks;
 import com.github.jikoo.enchantableblocks.mock.world.WorldMocks;
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager.RegionStorageData;
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
 import com.github.jikoo.enchantableblocks.util.Cache;
 import com.github.jikoo.enchantableblocks.util.Region;
 import com.github.jikoo.enchantableblocks.util.RegionStorage;
 import com.github.jikoo.planarwrappers.util.Coords;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Registry;
 import org.bukkit.block.Block;
@@ -132,7 +134,12 @@ class EnchantableBlockManagerTest {
     // Set up data folder.
     dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName(), "data");
 
-    manager = new EnchantableBlockManager(registry, builder, 5, dataDir, logger);
+    manager = new EnchantableBlockManager(
+        registry,
+        builder,
+        5,
+        new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML),
+        logger);
 
     // Set up registration.
     var registration = mock(EnchantableRegistration.class);
@@ -140,6 +147,7 @@ class EnchantableBlockManagerTest {
         new EnchantableBlock(registration, invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)) {})
         .when(registration).newBlock(any(), any(), any());
     doReturn(registration).when(registry).get(goodMat);
+    doReturn(List.of(registration)).when(registry).getRegistrations();
     doReturn(Set.of(goodMat)).when(registration).getMaterials();
 
     // Set up config for disabled world.
@@ -148,6 +156,10 @@ class EnchantableBlockManagerTest {
     var config = new EnchantableBlockConfig(backingConfig) {};
     doReturn(config).when(registration).getConfig();
 
+    // Compile per-world settings.
+    manager.loadWorld(block.getWorld());
+    manager.loadWorld(blockDisabledWorld.getWorld());
+
     // Reset block types
     block.setType(goodMat);
     blockDisabledWorld.setType(goodMat);
@@ -267,12 +279,76 @@ class EnchantableBlockManagerTest {
           is(enchantableBlock));
     }
 
+    @DisplayName("Per-world settings are only read when worlds load or config reloads.")
+    @Test
+    void testGetEnabledCompiled() {
+      var item = getValidItem();
+      manager.loadWorld(block.getWorld());
+      var enchantableBlock = manager.createBlock(block, item);
+      assertThat("Manager must create block", enchantableBlock, is(notNullValue()));
+
+      backingConfig.set("overrides." + NORMAL_WORLD_NAME + ".enabled", false);
+      assertThat(
+          "Unreloaded setting must not apply",
+          manager.getBlock(block),
+          is(enchantableBlock));
+
+      manager.reload();
+      assertThat(
+          "Reloaded setting must apply",
+          manager.getBlock(block),
+          is(nullValue()));
+
+      manager.unloadWorld(block.getWorld());
+      backingConfig.set("overrides." + NORMAL_WORLD_NAME + ".enabled", true);
+      manager.loadWorld(block.getWorld());
+      assertThat(
+          "Reloaded world must use current setting",
+          manager.getBlock(block),
+          is(enchantableBlock));
+    }
+
+    @DisplayName("Blocks are not enabled in worlds that have not been loaded.")
+    @Test
+    void testGetUnloadedWorld() {
+      var enchantableBlock = manager.createBlock(block, getValidItem());
+      assertThat("Manager must create block", enchantableBlock, is(notNullValue()));
+
+      manager.unloadWorld(block.getWorld());
+      assertThat("Block in unloaded world must be null", manager.getBlock(block), is(nullValue()));
+      assertThat(
+          "Manager must not create block in unloaded world",
+          manager.createBlock(block, getValidItem()),
+          is(nullValue()));
+    }
+
+    @DisplayName("Chunk presence tracks created and destroyed blocks.")
+    @Test
+    void testHasChunkBlocks() {
+      var location = block.getLocation();
+      assertThat("Chunk must start empty", manager.hasChunkBlocks(location), is(false));
+
+      manager.createBlock(block, getValidItem());
+      assertThat("Chunk must contain block", manager.hasChunkBlocks(location), is(true));
+      assertThat(
+          "Neighboring chunk must be empty",
+          manager.hasChunkBlocks(location.clone().add(16, 0, 0)),
+          is(false));
+      assertThat(
+          "Location without a world must be empty",
+          manager.hasChunkBlocks(new Location(null, 0, 0, 0)),
+          is(false));
+
+      manager.destroyBlock(block);
+      assertThat("Chunk must be emptied", manager.hasChunkBlocks(location), is(false));
+    }
+
     @DisplayName("Valid block in disabled world returns null.")
     @Test
     void testGetDisabled() {
       var item = getValidItem();
       backingConfig.set(DISABLED_WORLD_PATH, true);
-      manager.getRegistry().reload();
+      manager.reload();
       var enchantableBlock = manager.createBlock(blockDisabledWorld, item);
       assertThat("Manager must create block", enchantableBlock, is(notNullValue()));
       assertThat(
@@ -281,7 +357,7 @@ class EnchantableBlockManagerTest {
           is(enchantableBlock));
 
       backingConfig.set(DISABLED_WORLD_PATH, false);
-      manager.getRegistry().reload();
+      manager.reload();
       assertThat(
           "Valid block in disabled world must return null",
           manager.getBlock(blockDisabledWorld),
@@ -436,6 +512,67 @@ class EnchantableBlockManagerTest {
       assertDoesNotThrow(() -> manager.loadChunkBlocks(chunkBad));
     }
 
+    @DisplayName("Blocks are loaded for several chunks at once.")
+    @Test
+    void testLoadAllChunkBlocks() {
+      setUpChunks();
+
+      assertDoesNotThrow(() -> manager.loadAllChunkBlocks(List.of(chunk, chunkBad)));
+
+      var enchantableBlock = manager.getBlock(block);
+      assertThat("Block must be loaded", enchantableBlock, is(notNullValue()));
+    }
+
+    @DisplayName("Chunks without data do not count against the per-tick limit.")
+    @Test
+    void testLoadPrefetchedChunks() {
+      setUpChunks();
+
+      for (int i = 0; i < EnchantableBlockManager.CHUNK_LOADS_PER_TICK + 1; ++i) {
+        Chunk empty = block.getWorld().getChunkAt(chunk.getX() + 2 + i, chunk.getZ());
+        doReturn(true).when(empty).isLoaded();
+        manager.prefetchChunkBlocks(empty);
+      }
+      doReturn(true).when(chunk).isLoaded();
+      manager.prefetchChunkBlocks(chunk);
+
+      manager.loadPrefetchedChunks();
+
+      assertThat("Block must be loaded", manager.getBlock(block), is(notNullValue()));
+    }
+
+    @DisplayName("Queued chunks are loaded when their blocks are needed.")
+    @Test
+    void testLoadPendingChunk() {
+      setUpChunks();
+      ItemStack stack = getValidItem();
+      doReturn(true).when(chunk).isLoaded();
+
+      manager.prefetchChunkBlocks(chunk);
+      assertThat("Queued block must be loaded", manager.getBlock(block), is(notNullValue()));
+
+      manager.unloadChunkBlocks(chunk);
+      manager.prefetchChunkBlocks(chunk);
+      assertThat(
+          "Queued block must be destroyed with its item",
+          manager.destroyBlock(block),
+          isSimilar(stack));
+    }
+
+    @DisplayName("Furnaces in queued chunks pass the chunk pre-check.")
+    @Test
+    void testHasPendingChunkBlocks() {
+      setUpChunks();
+      doReturn(true).when(chunk).isLoaded();
+
+      manager.prefetchChunkBlocks(chunk);
+      assertThat(
+          "Queued chunk must contain blocks",
+          manager.hasChunkBlocks(block.getLocation()),
+          is(true));
+      assertThat("Queued block must be loaded", manager.getBlock(block), is(notNullValue()));
+    }
+
     @DisplayName("Invalid data is handled gracefully when chunks are unloaded.")
     @Test
     void testUnloadChunkBlocks() {
@@ -449,6 +586,48 @@ class EnchantableBlockManagerTest {
       assertDoesNotThrow(() -> manager.unloadChunkBlocks(chunkBad));
     }
 
+    @DisplayName("Modified blocks are written to region data when unloaded.")
+    @Test
+    void testUnloadFlushesBlocks() {
+      ItemStack stack = getValidItem();
+      var enchantableBlock = manager.createBlock(block, stack);
+      assertThat("Manager must create block", enchantableBlock, is(notNullValue()));
+
+      RegionStorageData data = Objects.requireNonNull(saveFileCache.get(new Region(block)));
+      String itemPath = EnchantableBlockManager.getChunkPath(block) + '.'
+          + EnchantableBlockManager.getBlockPath(block) + ".itemstack";
+      assertThat("State must not be written early", data.getStorage().get(itemPath), nullValue());
+
+      manager.unloadChunkBlocks(block.getChunk());
+
+      assertThat(
+          "State must be written on unload",
+          data.getStorage().getItemStack(itemPath),
+          isSimilar(stack));
+      assertThat("Region data must still be saved", data.isDirty());
+      assertThat("Unloaded block must be clean", enchantableBlock.isDirty(), is(false));
+    }
+
+    @DisplayName("Loaded blocks are released from storage and written to saved data.")
+    @Test
+    void testLoadedBlocksReleased() {
+      setUpChunks();
+      manager.loadChunkBlocks(chunk);
+      assertThat("Block must be loaded", manager.getBlock(block), is(notNullValue()));
+
+      RegionStorageData data = Objects.requireNonNull(saveFileCache.get(new Region(block)));
+      String blockPath = EnchantableBlockManager.getChunkPath(block) + '.'
+          + EnchantableBlockManager.getBlockPath(block);
+      assertThat(
+          "Loaded block must be released from storage",
+          data.getStorage().contains(blockPath),
+          is(false));
+      assertThat(
+          "Saved data must contain loaded block",
+          data.snapshot().getItemStack(blockPath + ".itemstack"),
+          isSimilar(getValidItem()));
+    }
+
     @DisplayName("Data is removed from cache when expired.")
     @Test
     void testExpireCache() {
@@ -464,18 +643,33 @@ class EnchantableBlockManagerTest {
       assertThat("Cache must be cleaned after values expire", storage, is(nullValue()));
     }
 
+    @DisplayName("Regional data is weighed by stored blocks.")
+    @Test
+    void testWeigh() {
+      var regionStorage = new RegionStorage(dataDir, new Region(block));
+      var data = manager.new RegionStorageData(regionStorage);
+      assertThat("Empty data must have a weight", EnchantableBlockManager.weigh(
+          regionStorage.getRegion(), data), is(1));
+
+      regionStorage.set("0_0.0_0_0.value", 1);
+      regionStorage.set("0_0.1_0_0.value", 1);
+      regionStorage.set("1_0.16_0_0.value", 1);
+      assertThat("Data must weigh blocks", EnchantableBlockManager.weigh(
+          regionStorage.getRegion(), data), is(4));
+    }
+
     @DisplayName("Regional data holder manages dirty state for blocks.")
     @Test
     void testDataHolder() {
       var regionStorage = spy(new RegionStorage(dataDir, new Region(block)));
       var data = manager.new RegionStorageData(regionStorage);
       assertThat("New data should not be dirty", data.isDirty(), is(false));
-      verify(regionStorage, times(2)).getRegion();
+      verify(regionStorage).getRegion();
 
       data.setDirty();
       assertThat("Data must be dirty once set", data.isDirty());
       // Verify that once dirty state is set, isDirty uses set state.
-      verify(regionStorage, times(2)).getRegion();
+      verify(regionStorage).getRegion();
 
       data.clean();
       assertThat("Data must not be dirty after clean", data.isDirty(), is(false));
@@ -491,6 +685,13 @@ class EnchantableBlockManagerTest {
       data.clean();
       assertThat("Data must not be dirty after clean", data.isDirty(), is(false));
       assertThat("Block must be dirty", enchantableBlock.isDirty(), is(false));
+
+      enchantableBlock.setDirty(true);
+      var otherRegion = manager.new RegionStorageData(
+          new RegionStorage(dataDir, new Region(block.getWorld().getName(), 1, 0)));
+      assertThat("Modified blocks must only dirty their region", otherRegion.isDirty(), is(false));
+      otherRegion.clean();
+      assertThat("Block must not be cleaned by other regions", enchantableBlock.isDirty());
     }
   }
 
@@ -14,6 +14,7 @@ import static org.mockito.Mockito.when;
 
 import com.github.jikoo.enchantableblocks.block.EnchantableBlock;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 import org.bukkit.Material;
@@ -51,6 +52,19 @@ class EnchantableBlockRegistryTest {
             is(registration)));
   }
 
+  @DisplayName("Registration notifies the listener.")
+  @Test
+  void testRegistrationListener() {
+    var registration = mock(EnchantableRegistration.class);
+    doReturn(Set.of(Material.FURNACE)).when(registration).getMaterials();
+    Consumer<EnchantableRegistration> listener = mock();
+    registry.setRegistrationListener(listener);
+
+    registry.register(registration);
+
+    verify(listener).accept(registration);
+  }
+
   @DisplayName("Registration allows overrides.")
   @Test
   void testOverride() {
@@ -18,6 +18,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -38,7 +39,7 @@ class EnchantableRegistrationTest {
     registration = new EnchantableRegistration(plugin, EnchantableBlock.class) {
       @Override
       protected @NotNull EnchantableBlock newBlock(@NotNull Block block,
-          @NotNull ItemStack itemStack, @NotNull ConfigurationSection storage) {
+          @NotNull ItemStack itemStack, @Nullable ConfigurationSection savedState) {
         return mock(EnchantableBlock.class);
       }
 
@@ -0,0 +1,218 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.jikoo.enchantableblocks.storage.MutationLog;
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Journal block mutations.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MutationJournalTest {
+
+  private final Path dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName());
+  private final Path journalDir = dataDir.resolve("journal");
+  private final Region region = new Region("world", 0, 0);
+  private Logger logger;
+  private RegionFileStorageBackend backend;
+  private RegionSaveQueue saveQueue;
+  private Block block;
+
+  @BeforeEach
+  void beforeEach() {
+    logger = mock();
+    backend = new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    saveQueue = new RegionSaveQueue(logger, backend, MoreExecutors.newDirectExecutorService());
+
+    World world = mock();
+    when(world.getName()).thenReturn(region.worldName());
+    block = mock();
+    when(block.getWorld()).thenReturn(world);
+    when(block.getX()).thenReturn(1);
+    when(block.getY()).thenReturn(64);
+    when(block.getZ()).thenReturn(2);
+  }
+
+  @AfterEach
+  void afterEach() throws IOException {
+    if (!Files.exists(dataDir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> {
+        try {
+          Files.delete(file);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+    }
+  }
+
+  private MutationJournal newJournal() throws IOException {
+    return new MutationJournal(
+        new MutationLog(journalDir, logger, null),
+        backend,
+        saveQueue,
+        logger,
+        1);
+  }
+
+  private String blockPath() {
+    return EnchantableBlockManager.getChunkPath(block) + '.'
+        + EnchantableBlockManager.getBlockPath(block);
+  }
+
+  @DisplayName("Recorded changes are applied to region data on replay.")
+  @Test
+  void testReplaySet() throws IOException, InvalidConfigurationException {
+    MutationJournal journal = newJournal();
+    var blockData = new MemoryConfiguration();
+    blockData.set("value", 10);
+    journal.recordSet(block, blockData);
+    journal.close();
+
+    newJournal().replay();
+
+    RegionStorage storage = backend.load(region);
+    assertThat("Region data must be written", storage, notNullValue());
+    assertThat("Value must match", storage.getInt(blockPath() + ".value"), is(10));
+    assertThat("Log must be cleared", !Files.exists(journalDir.resolve("mutations.log")));
+  }
+
+  @DisplayName("Recorded removals are applied to region data on replay.")
+  @Test
+  void testReplayRemove() throws IOException, InvalidConfigurationException {
+    RegionStorage existing = backend.create(region);
+    existing.set(blockPath() + ".value", 10);
+    backend.save(existing);
+
+    MutationJournal journal = newJournal();
+    journal.recordRemove(block);
+    journal.close();
+
+    newJournal().replay();
+
+    assertThat("Empty region data must be deleted", backend.load(region), nullValue());
+  }
+
+  @DisplayName("Later records replace earlier records.")
+  @Test
+  void testReplayOrder() throws IOException, InvalidConfigurationException {
+    MutationJournal journal = newJournal();
+    var blockData = new MemoryConfiguration();
+    blockData.set("value", 10);
+    blockData.set("other", 5);
+    journal.recordSet(block, blockData);
+    blockData.set("other", null);
+    blockData.set("value", 20);
+    journal.recordSet(block, blockData);
+    journal.close();
+
+    newJournal().replay();
+
+    RegionStorage storage = backend.load(region);
+    assertThat("Region data must be written", storage, notNullValue());
+    assertThat("Value must match", storage.getInt(blockPath() + ".value"), is(20));
+    assertThat("Removed value must not be present", storage.get(blockPath() + ".other"), nullValue());
+  }
+
+  @DisplayName("Updates are merged over existing blocks.")
+  @Test
+  void testReplayUpdate() throws IOException, InvalidConfigurationException {
+    MutationJournal journal = newJournal();
+    var blockData = new MemoryConfiguration();
+    blockData.set("value", 10);
+    blockData.set("other", 5);
+    journal.recordSet(block, blockData);
+    var values = new MemoryConfiguration();
+    values.set("value", 20);
+    journal.recordUpdate(block, values);
+    journal.close();
+
+    newJournal().replay();
+
+    RegionStorage storage = backend.load(region);
+    assertThat("Region data must be written", storage, notNullValue());
+    assertThat("Value must be updated", storage.getInt(blockPath() + ".value"), is(20));
+    assertThat("Other value must be kept", storage.getInt(blockPath() + ".other"), is(5));
+  }
+
+  @DisplayName("Updates to missing blocks are ignored.")
+  @Test
+  void testReplayUpdateMissing() throws IOException, InvalidConfigurationException {
+    MutationJournal journal = newJournal();
+    var values = new MemoryConfiguration();
+    values.set("value", 20);
+    journal.recordUpdate(block, values);
+    journal.close();
+
+    newJournal().replay();
+
+    assertThat("Missing block must not be created", backend.load(region), nullValue());
+  }
+
+  @DisplayName("Compaction deletes the log once modified data is saved.")
+  @Test
+  void testCompact() throws IOException {
+    MutationJournal journal = newJournal();
+    journal.recordRemove(block);
+    assertThat("Compaction must be required", journal.needsCompaction());
+
+    boolean[] saved = { false };
+    journal.compact(() -> saved[0] = true);
+
+    assertThat("Modified data must be saved", saved[0]);
+    assertThat("Compaction must not be required", !journal.needsCompaction());
+    try (Stream<Path> files = Files.list(journalDir)) {
+      assertThat("Segments must be deleted", files.findAny().isEmpty());
+    }
+    journal.close();
+  }
+
+  @DisplayName("Compaction syncs data without ending a group commit.")
+  @Test
+  void testCompactGroupCommit() throws IOException {
+    RegionFileStorageBackend spyBackend = spy(backend);
+    MutationJournal journal = new MutationJournal(
+        new MutationLog(journalDir, logger, null),
+        spyBackend,
+        saveQueue,
+        logger,
+        1);
+    journal.recordRemove(block);
+
+    spyBackend.beginGroupCommit();
+    journal.compact(() -> {});
+
+    verify(spyBackend).sync();
+    verify(spyBackend, never()).commit();
+    journal.close();
+  }
+
+}
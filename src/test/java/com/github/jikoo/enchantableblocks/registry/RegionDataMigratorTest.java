@@ -0,0 +1,200 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Migrate region data to chunks.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RegionDataMigratorTest {
+
+  private final Path dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName());
+  private final Region region = new Region("world", 0, 0);
+  private RegionFileStorageBackend backend;
+  private RegionSaveQueue saveQueue;
+  private World world;
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    Logger logger = mock();
+    backend = new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    saveQueue = new RegionSaveQueue(logger, backend, MoreExecutors.newDirectExecutorService());
+    world = mock();
+    when(world.getName()).thenReturn(region.worldName());
+
+    RegionStorage storage = backend.create(region);
+    storage.set("0_0.0_64_0.value", 1);
+    storage.set("1_0.16_64_0.value", 2);
+    backend.save(storage);
+  }
+
+  @AfterEach
+  void afterEach() throws IOException {
+    if (!Files.exists(dataDir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> {
+        try {
+          Files.delete(file);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+    }
+  }
+
+  private Chunk chunk(int x, int z) {
+    Chunk chunk = mock();
+    when(chunk.getWorld()).thenReturn(world);
+    when(chunk.getX()).thenReturn(x);
+    when(chunk.getZ()).thenReturn(z);
+    return chunk;
+  }
+
+  @DisplayName("Chunk data is taken once.")
+  @Test
+  void testTake() {
+    var migrator = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+    Chunk chunk = chunk(0, 0);
+
+    var section = migrator.take(chunk, "0_0");
+    assertThat("Data must be taken", section, notNullValue());
+    assertThat("Value must match", section.getInt("0_64_0.value"), is(1));
+    assertThat("Data must only be taken once", migrator.take(chunk, "0_0"), nullValue());
+  }
+
+  @DisplayName("Chunks without data are ignored.")
+  @Test
+  void testTakeMissing() {
+    var migrator = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+
+    assertThat("Missing chunk must be null", migrator.take(chunk(2, 2), "2_2"), nullValue());
+    assertThat(
+        "Missing region must be null",
+        migrator.take(chunk(-1, -1), "-1_-1"),
+        nullValue());
+    assertThat("Migration must not be complete", migrator.isComplete(), is(false));
+  }
+
+  @DisplayName("Region data is deleted once all chunks are taken and saved.")
+  @Test
+  void testComplete() throws IOException {
+    var migrator = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+
+    migrator.take(chunk(0, 0), "0_0");
+    migrator.take(chunk(1, 0), "1_0");
+    assertThat("Migration must not be complete", migrator.isComplete(), is(false));
+
+    migrator.save(region.worldName());
+    migrator.save(region.worldName());
+    assertThat("Migration must be complete", migrator.isComplete());
+    assertThat("Data must be deleted", backend.listRegions().isEmpty());
+  }
+
+  @DisplayName("Region data is kept until taken chunks have been saved.")
+  @Test
+  void testKeepUntilSaved() throws IOException, InvalidConfigurationException {
+    var migrator = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+
+    migrator.take(chunk(0, 0), "0_0");
+    migrator.take(chunk(1, 0), "1_0");
+    migrator.saveAll();
+    assertThat("Data must remain until saved", backend.listRegions().contains(region));
+
+    migrator.save(region.worldName());
+    RegionStorage stored = backend.load(region);
+    assertThat("Data must remain while saving", stored, notNullValue());
+    assertThat("Chunk data must remain while saving", stored.isConfigurationSection("0_0"));
+    assertThat("Migration must not be complete", migrator.isComplete(), is(false));
+
+    migrator.save("other");
+    assertThat("Other worlds must not remove data", backend.listRegions().contains(region));
+  }
+
+  @DisplayName("Region data is read ahead of time.")
+  @Test
+  void testPrefetch() throws IOException {
+    var migrator = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+    Chunk chunk = chunk(0, 0);
+
+    var future = migrator.prefetch(chunk, MoreExecutors.directExecutor());
+    assertThat("Data must be read", future.isDone());
+    backend.delete(region);
+
+    var section = migrator.take(chunk, "0_0");
+    assertThat("Prefetched data must be taken", section, notNullValue());
+    assertThat("Value must match", section.getInt("0_64_0.value"), is(1));
+  }
+
+  @DisplayName("Saved chunks are removed from region data.")
+  @Test
+  void testSaveProgress() throws IOException, InvalidConfigurationException {
+    var migrator = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+    migrator.take(chunk(0, 0), "0_0");
+    migrator.save(region.worldName());
+    migrator.save(region.worldName());
+
+    RegionStorage stored = backend.load(region);
+    assertThat("Remaining data must be kept", stored, notNullValue());
+    assertThat("Saved chunk must be removed", stored.contains("0_0"), is(false));
+    assertThat("Remaining chunk must be kept", stored.isConfigurationSection("1_0"));
+
+    var restarted = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+    assertThat("Taken data must not return", restarted.take(chunk(0, 0), "0_0"), nullValue());
+    assertThat("Remaining data must be kept", restarted.take(chunk(1, 0), "1_0"), notNullValue());
+  }
+
+  @DisplayName("Unsaved chunks are taken again after restarting.")
+  @Test
+  void testRestartUnsaved() {
+    var migrator = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+    migrator.take(chunk(0, 0), "0_0");
+    migrator.save(region.worldName());
+    migrator.saveAll();
+
+    var restarted = new RegionDataMigrator(backend, saveQueue, mock(Logger.class));
+    assertThat("Unsaved data must be taken again", restarted.take(chunk(0, 0), "0_0"), notNullValue());
+  }
+
+  @DisplayName("Open regions are limited.")
+  @Test
+  void testReleaseExcess() throws IOException, InvalidConfigurationException {
+    RegionStorage other = backend.create(new Region("world", 1, 0));
+    other.set("32_0.512_64_0.value", 3);
+    backend.save(other);
+    var migrator = new RegionDataMigrator(backend, saveQueue, mock(Logger.class), 1);
+
+    migrator.take(chunk(0, 0), "0_0");
+    migrator.take(chunk(32, 0), "32_0");
+
+    assertThat(
+        "Released region must not be written",
+        backend.load(region).isConfigurationSection("0_0"));
+    assertThat("Taken data must not return", migrator.take(chunk(0, 0), "0_0"), nullValue());
+    assertThat("Released region must be read again", migrator.take(chunk(1, 0), "1_0"), notNullValue());
+  }
+
+}
@@ -1,8 +1,10 @@
 package com.github.jikoo.enchantableblocks.registry;
 
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager.RegionStorageData;
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
 import com.github.jikoo.enchantableblocks.util.Region;
 import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.configuration.file.YamlConfiguration;
@@ -33,7 +35,6 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -50,6 +51,7 @@ class RegionInUseCheckTest {
   private Collection<LoadedStateWorld> worlds;
   private Path dataDir;
   private EnchantableBlockManager manager;
+  private RegionFileStorageBackend backend;
   private RegionInUseCheck inUseCheck;
 
   @BeforeAll
@@ -78,7 +80,11 @@ class RegionInUseCheckTest {
     when(plugin.getConfig()).thenReturn(new YamlConfiguration());
     manager = new EnchantableBlockManager(plugin);
     Logger logger = mock(Logger.class);
-    inUseCheck = new RegionInUseCheck(logger);
+    backend = spy(new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML));
+    // Write synchronously so results can be verified immediately.
+    inUseCheck = new RegionInUseCheck(
+        logger,
+        new RegionSaveQueue(logger, backend, MoreExecutors.newDirectExecutorService()));
   }
 
   @AfterAll
@@ -146,7 +152,7 @@ class RegionInUseCheckTest {
   @MethodSource("getWorlds")
   void testDirtyEmptyRegionError(@NotNull LoadedStateWorld world) throws IOException {
     var key = new Region(world.getName(), 0, 0);
-    var regionStorage = spy(new RegionStorage(dataDir, key));
+    var regionStorage = new RegionStorage(dataDir, key);
     var storageData = manager.new RegionStorageData(regionStorage);
 
     // Dirty empty state
@@ -155,17 +161,14 @@ class RegionInUseCheckTest {
     Files.createDirectories(path.getParent());
     Files.createFile(path);
 
-    doAnswer(invocation -> {
-      // Note: This is a bit of a hack around code that was designed poorly for testing.
-      // We can't use doThrow because this method isn't supposed to throw an IOException.
-      throw new IOException("oh no");
-    }).when(regionStorage).getDataFile();
+    doThrow(new IOException("oh no")).when(backend).delete(key);
 
     assertThat(
         "Value in-use state must match world state",
         inUseCheck.test(key, storageData),
         is(world.getLoadedState()));
     verify(inUseCheck.logger()).log(any(Level.class), any(Throwable.class), any());
+    assertThat("Data must be dirty after failed delete", storageData.isDirty());
 
     // Clean up.
     Files.deleteIfExists(path);
@@ -211,18 +214,49 @@ class RegionInUseCheckTest {
     Files.createFile(path);
 
     // Throw when saving.
-    doThrow(new IOException("oh no")).when(regionStorage).save();
+    var snapshot = spy(regionStorage.snapshot());
+    doThrow(new IOException("oh no")).when(snapshot).save();
+    doReturn(snapshot).when(regionStorage).snapshot();
 
     assertThat(
         "Value in-use state must match world state",
         inUseCheck.test(key, storageData),
         is(world.getLoadedState()));
     verify(inUseCheck.logger()).log(any(Level.class), any(Throwable.class), any());
+    assertThat("Data must be dirty after failed save", storageData.isDirty());
 
     // Clean up.
     Files.deleteIfExists(path);
   }
 
+  @DisplayName("Journaled data is only written once no longer in use.")
+  @ParameterizedTest
+  @MethodSource("getWorlds")
+  void testJournaledRegion(@NotNull LoadedStateWorld world) throws IOException {
+    var journaledCheck = new RegionInUseCheck(inUseCheck.logger(), inUseCheck.saveQueue(), true);
+    Region key = new Region(world.getName(), 0, 0);
+    RegionStorageData value = manager.new RegionStorageData(new RegionStorage(dataDir, key));
+
+    // Non-empty dirty state
+    value.setDirty();
+    value.getStorage().set("path.to.value", "value");
+    Path path = value.getStorage().getDataFile().toPath();
+    Files.deleteIfExists(path);
+
+    assertThat(
+        "Value in-use state must match world state",
+        journaledCheck.test(key, value),
+        is(world.getLoadedState()));
+    assertThat(
+        "File must only be written if not in use",
+        Files.exists(path),
+        is(!world.getLoadedState()));
+    assertThat("Data must be dirty if not written", value.isDirty(), is(world.getLoadedState()));
+
+    // Clean up
+    Files.deleteIfExists(path);
+  }
+
   @NotNull Collection<LoadedStateWorld> getWorlds() {
     return worlds;
   }
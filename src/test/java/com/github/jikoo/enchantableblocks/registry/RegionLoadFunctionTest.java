@@ -10,7 +10,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.github.jikoo.enchantableblocks.registry.EnchantableBlockManager.RegionStorageData;
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
 import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -32,7 +34,12 @@ class RegionLoadFunctionTest {
     EnchantableBlockManager manager = mock(EnchantableBlockManager.class);
     var dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName(), "data");
     var logger = mock(Logger.class);
-    loadFunction = new RegionLoadFunction(manager, dataDir, logger);
+    var backend = new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    loadFunction = new RegionLoadFunction(
+        manager,
+        backend,
+        logger,
+        new RegionSaveQueue(logger, backend));
   }
 
   @DisplayName("Nonexistent data should be handled gracefully.")
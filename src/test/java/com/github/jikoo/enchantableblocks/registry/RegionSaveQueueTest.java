@@ -0,0 +1,140 @@
+package com.github.jikoo.enchantableblocks.registry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import com.github.jikoo.enchantableblocks.storage.RegionFileStorageBackend;
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Write region data off the main thread.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RegionSaveQueueTest {
+
+  private final Path dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName());
+  private final Region region = new Region("world", 0, 0);
+  private Logger logger;
+  private ExecutorService executor;
+  private RegionSaveQueue saveQueue;
+
+  @BeforeEach
+  void beforeEach() {
+    logger = mock(Logger.class);
+    executor = Executors.newFixedThreadPool(4);
+    var backend = new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    saveQueue = new RegionSaveQueue(logger, backend, executor);
+  }
+
+  @AfterEach
+  void afterEach() {
+    executor.shutdownNow();
+  }
+
+  @AfterAll
+  void afterAll() throws IOException {
+    if (!Files.exists(dataDir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> {
+        try {
+          Files.delete(file);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+    }
+  }
+
+  @DisplayName("Writes for a region are performed in submission order.")
+  @Test
+  void testOrdering() throws IOException, InvalidConfigurationException {
+    RegionStorage storage = new RegionStorage(dataDir, region);
+    for (int i = 0; i < 50; ++i) {
+      storage.set("value", i);
+      saveQueue.save(storage.snapshot());
+    }
+
+    saveQueue.awaitPending(region);
+
+    RegionStorage stored = new RegionStorage(dataDir, region);
+    stored.load();
+    assertThat("Last write must win", stored.getInt("value"), is(49));
+  }
+
+  @DisplayName("Deletion is ordered after saves.")
+  @Test
+  void testDeleteOrdering() {
+    RegionStorage storage = new RegionStorage(dataDir, region);
+    storage.set("value", "value");
+    saveQueue.save(storage.snapshot());
+    saveQueue.delete(region);
+
+    saveQueue.awaitPending(region);
+
+    assertThat("File must not exist", storage.getDataFile().exists(), is(false));
+  }
+
+  @DisplayName("Failed writes are logged and do not block later writes.")
+  @Test
+  void testFailure() throws IOException, InvalidConfigurationException {
+    RegionStorage storage = new RegionStorage(dataDir, region);
+    storage.set("value", "bad");
+    RegionStorage bad = spy(storage.snapshot());
+    doThrow(new IOException("oh no")).when(bad).save();
+
+    var failed = saveQueue.save(bad);
+    storage.set("value", "good");
+    saveQueue.save(storage.snapshot());
+
+    saveQueue.awaitPending(region);
+
+    assertThat(
+        "Failed write must complete exceptionally",
+        failed.handle((ignored, throwable) -> throwable instanceof CompletionException).join());
+    verify(logger).log(any(Level.class), any(Throwable.class), any());
+    RegionStorage stored = new RegionStorage(dataDir, region);
+    stored.load();
+    assertThat("Later write must succeed", stored.getString("value"), is("good"));
+  }
+
+  @DisplayName("Shutdown waits for queued writes.")
+  @Test
+  void testShutdown() throws IOException, InvalidConfigurationException {
+    Region other = new Region("world", 1, 1);
+    RegionStorage storage = new RegionStorage(dataDir, other);
+    storage.set("value", "value");
+    saveQueue.save(storage.snapshot());
+
+    saveQueue.shutdown(10, TimeUnit.SECONDS);
+
+    assertThat("Executor must be terminated", executor.isTerminated());
+    RegionStorage stored = new RegionStorage(dataDir, other);
+    stored.load();
+    assertThat("Queued write must be completed", stored.getString("value"), is("value"));
+  }
+
+}
@@ -0,0 +1,190 @@
+package com.github.jikoo.enchantableblocks.storage;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.github.jikoo.enchantableblocks.storage.MutationLog.Mutation;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Log block mutations.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MutationLogTest {
+
+  private final Path dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName());
+  private MutationLog log;
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    log = new MutationLog(dataDir, mock(Logger.class), null);
+  }
+
+  @AfterEach
+  void afterEach() throws IOException {
+    log.close();
+    if (!Files.exists(dataDir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> {
+        try {
+          Files.delete(file);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+    }
+  }
+
+  private List<Mutation> replay(MutationLog mutationLog) throws IOException {
+    List<Mutation> mutations = new ArrayList<>();
+    mutationLog.replay(mutations::add);
+    return mutations;
+  }
+
+  @DisplayName("Synced mutations are replayed in order.")
+  @Test
+  void testRoundTrip() throws IOException {
+    log.append(new Mutation("world", 1, 2, 3, new byte[] { 4, 5 }));
+    log.append(new Mutation("world", 6, 7, 8, null));
+
+    assertThat("Unsynced mutations must not be replayed", replay(log).isEmpty());
+
+    log.sync();
+    List<Mutation> mutations = replay(new MutationLog(dataDir, mock(Logger.class), null));
+
+    assertThat("All mutations must be replayed", mutations.size(), is(2));
+    Mutation set = mutations.get(0);
+    assertThat("World must match", set.worldName(), is("world"));
+    assertThat("X must match", set.x(), is(1));
+    assertThat("Y must match", set.y(), is(2));
+    assertThat("Z must match", set.z(), is(3));
+    assertThat("Data must match", set.data(), is(new byte[] { 4, 5 }));
+    assertThat("Removal must have no data", mutations.get(1).data(), nullValue());
+  }
+
+  @DisplayName("Incomplete entries are discarded.")
+  @Test
+  void testTornEntry() throws IOException {
+    log.append(new Mutation("world", 1, 2, 3, new byte[] { 4, 5 }));
+    log.append(new Mutation("world", 6, 7, 8, new byte[] { 9 }));
+    log.sync();
+    log.close();
+
+    Path file = dataDir.resolve("mutations.log");
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+    List<Mutation> mutations = replay(log);
+    assertThat("Complete entries must be replayed", mutations.size(), is(1));
+    assertThat("Data must match", mutations.get(0).data(), is(new byte[] { 4, 5 }));
+  }
+
+  @DisplayName("Corrupt entries are discarded.")
+  @Test
+  void testCorruptEntry() throws IOException {
+    log.append(new Mutation("world", 1, 2, 3, new byte[] { 4, 5 }));
+    log.sync();
+    log.close();
+
+    Path file = dataDir.resolve("mutations.log");
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes, StandardOpenOption.TRUNCATE_EXISTING);
+
+    assertThat("Corrupt entry must not be replayed", replay(log).isEmpty());
+  }
+
+  @DisplayName("Rotated segments are replayed until deleted.")
+  @Test
+  void testRotate() throws IOException {
+    assertThat("Empty log must not rotate", log.rotate(), is(-1L));
+
+    log.append(new Mutation("world", 1, 2, 3, null));
+    long segment = log.rotate();
+    assertThat("Log must rotate", segment, is(0L));
+    assertThat("Active log must be empty", log.size(), is(0L));
+
+    log.append(new Mutation("world", 4, 5, 6, null));
+    log.sync();
+
+    List<Mutation> mutations = replay(log);
+    assertThat("All mutations must be replayed", mutations.size(), is(2));
+    assertThat("Segment must be replayed first", mutations.get(0).x(), is(1));
+
+    log.deleteSegments(segment);
+    mutations = replay(log);
+    assertThat("Deleted segment must not be replayed", mutations.size(), is(1));
+    assertThat("Active log must be replayed", mutations.get(0).x(), is(4));
+  }
+
+  @DisplayName("Rotated segments are written by the sync thread.")
+  @Test
+  void testRotateDeferred() throws IOException {
+    ScheduledExecutorService executor = mock();
+    var deferred = new MutationLog(dataDir, mock(Logger.class), executor);
+
+    deferred.append(new Mutation("world", 1, 2, 3, null));
+    long segment = deferred.rotate();
+    deferred.append(new Mutation("world", 4, 5, 6, null));
+    verify(executor).execute(any());
+    assertThat("Segment must not be written yet", replay(deferred).isEmpty());
+
+    deferred.sync();
+    List<Mutation> mutations = replay(deferred);
+    assertThat("All mutations must be replayed", mutations.size(), is(2));
+    assertThat("Segment must be replayed first", mutations.get(0).x(), is(1));
+
+    deferred.deleteSegments(segment);
+    assertThat("Only active log must remain", replay(deferred).size(), is(1));
+    deferred.close();
+  }
+
+  @DisplayName("Segment numbers continue after existing segments.")
+  @Test
+  void testSegmentNumbering() throws IOException {
+    log.append(new Mutation("world", 1, 2, 3, null));
+    log.rotate();
+    log.close();
+
+    var reopened = new MutationLog(dataDir, mock(Logger.class), null);
+    reopened.append(new Mutation("world", 1, 2, 3, null));
+    assertThat("Segment must not overwrite existing", reopened.rotate(), is(1L));
+    reopened.close();
+  }
+
+  @DisplayName("Clearing deletes all entries.")
+  @Test
+  void testClear() throws IOException {
+    log.append(new Mutation("world", 1, 2, 3, null));
+    log.rotate();
+    log.append(new Mutation("world", 4, 5, 6, null));
+    log.sync();
+    log.append(new Mutation("world", 7, 8, 9, null));
+
+    log.clear();
+    log.sync();
+
+    assertThat("Log must be empty", log.size(), is(0L));
+    assertThat("No mutations must be replayed", replay(log).isEmpty());
+  }
+
+}
@@ -0,0 +1,143 @@
+package com.github.jikoo.enchantableblocks.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Store region data in per-region files.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RegionFileStorageBackendTest {
+
+  private final Path dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName());
+
+  @AfterEach
+  void afterEach() throws IOException {
+    if (!Files.exists(dataDir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(file -> {
+        try {
+          Files.delete(file);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+    }
+  }
+
+  @DisplayName("File names are parsed into regions.")
+  @Test
+  void testParseRegion() {
+    assertThat(
+        "YAML file must be parsed",
+        RegionFileStorageBackend.parseRegion("world", "1_-2.yml"),
+        is(new Region("world", 1, -2)));
+    assertThat(
+        "Binary file must be parsed",
+        RegionFileStorageBackend.parseRegion("world", "-3_4.ebr"),
+        is(new Region("world", -3, 4)));
+    assertThat(
+        "Unknown extension must not be parsed",
+        RegionFileStorageBackend.parseRegion("world", "1_1.txt"),
+        nullValue());
+    assertThat(
+        "Invalid name must not be parsed",
+        RegionFileStorageBackend.parseRegion("world", "a_1.yml"),
+        nullValue());
+    assertThat(
+        "Out of range coordinates must not be parsed",
+        RegionFileStorageBackend.parseRegion("world", "99999999999_1.yml"),
+        nullValue());
+  }
+
+  @DisplayName("Existing files are indexed.")
+  @Test
+  void testIndexScan() throws Exception {
+    var writer = new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    Region region = new Region("world", 1, 1);
+    RegionStorage storage = writer.create(region);
+    storage.set("0_0.0_0_0.value", 1);
+    writer.save(storage);
+
+    var reader = new RegionFileStorageBackend(dataDir, RegionStorage.Format.BINARY);
+    assertThat("Index must be built on construction", reader.getRegionCount(), is(1));
+
+    RegionIndex index = reader.getIndex();
+    assertThat("Region must be indexed", index.contains(region));
+    assertThat("Other region must not be indexed", !index.contains(new Region("world", 0, 0)));
+    assertThat("Total count must match", index.size(), is(1));
+    assertThat("World count must match", index.size("world"), is(1));
+    assertThat("Other world count must match", index.size("other_world"), is(0));
+  }
+
+  @DisplayName("Index tracks saves and deletions.")
+  @Test
+  void testIndexUpdates() throws Exception {
+    var backend = new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    RegionIndex index = backend.getIndex();
+    Region region = new Region("world", 1, 1);
+
+    assertThat("Region must not be indexed", !index.contains(region));
+
+    RegionStorage storage = backend.create(region);
+    storage.set("0_0.0_0_0.value", 1);
+    backend.save(storage);
+    assertThat("Saved region must be indexed", index.contains(region));
+
+    backend.delete(region);
+    assertThat("Deleted region must not be indexed", !index.contains(region));
+  }
+
+  @DisplayName("Files removed by other means are removed from the index.")
+  @Test
+  void testIndexRemovedFile() throws Exception {
+    var backend = new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    Region region = new Region("world", 1, 1);
+    RegionStorage storage = backend.create(region);
+    storage.set("0_0.0_0_0.value", 1);
+    backend.save(storage);
+
+    Files.delete(storage.getDataFile().toPath());
+
+    assertThat("Removed data must not be loaded", backend.load(region), nullValue());
+    assertThat("Removed region must not be indexed", !backend.getIndex().contains(region));
+  }
+
+  @DisplayName("YAML files satisfy the storage contract.")
+  @Nested
+  class Yaml extends StorageBackendContract {
+
+    @Override
+    protected @NotNull StorageBackend createBackend() {
+      return new RegionFileStorageBackend(dataDir, RegionStorage.Format.YAML);
+    }
+
+  }
+
+  @DisplayName("Binary files satisfy the storage contract.")
+  @Nested
+  class Binary extends StorageBackendContract {
+
+    @Override
+    protected @NotNull StorageBackend createBackend() {
+      return new RegionFileStorageBackend(dataDir, RegionStorage.Format.BINARY);
+    }
+
+  }
+
+}
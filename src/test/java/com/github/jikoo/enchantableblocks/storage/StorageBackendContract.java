@@ -0,0 +1,270 @@
+package com.github.jikoo.enchantableblocks.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+import com.github.jikoo.enchantableblocks.util.Region;
+import com.github.jikoo.enchantableblocks.util.RegionStorage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that every {@link StorageBackend} implementation must pass.
+ *
+ * <p>To verify an implementation, extend this class and provide a fresh backend for each test.
+ */
+public abstract class StorageBackendContract {
+
+  private static final String WORLD = "world";
+  private static final String PATH_A = "0_0.0_0_0.a";
+  private static final String PATH_B = "0_0.0_0_0.b";
+
+  protected StorageBackend backend;
+
+  /**
+   * Create a new backend containing no data.
+   *
+   * @return the backend
+   */
+  protected abstract @NotNull StorageBackend createBackend() throws Exception;
+
+  @BeforeEach
+  void setUpBackend() throws Exception {
+    backend = createBackend();
+  }
+
+  @DisplayName("Created storage is empty and matches region.")
+  @Test
+  void testCreate() {
+    Region region = new Region(WORLD, 0, 0);
+    RegionStorage storage = backend.create(region);
+
+    assertThat("Region must match", storage.getRegion(), is(region));
+    assertThat("Storage must be empty", storage.getKeys(true).isEmpty());
+  }
+
+  @DisplayName("Loading a region without data returns null.")
+  @Test
+  void testLoadAbsent() throws Exception {
+    assertThat("Absent data must be null", backend.load(new Region(WORLD, 0, 0)), nullValue());
+  }
+
+  @DisplayName("Creating storage does not persist data.")
+  @Test
+  void testCreateNotPersisted() throws Exception {
+    Region region = new Region(WORLD, 0, 0);
+    backend.create(region).set(PATH_A, 1);
+
+    assertThat("Created data must not be stored", backend.load(region), nullValue());
+  }
+
+  @DisplayName("Saved data can be loaded.")
+  @Test
+  void testSaveLoad() throws Exception {
+    Region region = new Region(WORLD, 1, -1);
+    RegionStorage storage = backend.create(region);
+    storage.set(PATH_A, 10);
+    storage.set(PATH_B, "value");
+    backend.save(storage);
+
+    RegionStorage loaded = backend.load(region);
+    assertThat("Data must be loaded", loaded, notNullValue());
+    assertThat("Region must match", loaded.getRegion(), is(region));
+    assertThat("Integer must match", loaded.getInt(PATH_A), is(10));
+    assertThat("String must match", loaded.getString(PATH_B), is("value"));
+  }
+
+  @DisplayName("Saving replaces existing data.")
+  @Test
+  void testSaveReplaces() throws Exception {
+    Region region = new Region(WORLD, 0, 0);
+    RegionStorage storage = backend.create(region);
+    storage.set(PATH_A, 1);
+    backend.save(storage);
+
+    storage = backend.create(region);
+    storage.set(PATH_B, 2);
+    backend.save(storage);
+
+    RegionStorage loaded = backend.load(region);
+    assertThat("Data must be loaded", loaded, notNullValue());
+    assertThat("Old value must be removed", loaded.get(PATH_A), nullValue());
+    assertThat("New value must be present", loaded.getInt(PATH_B), is(2));
+  }
+
+  @DisplayName("Regions are stored independently.")
+  @Test
+  void testRegionsIndependent() throws Exception {
+    Region region = new Region(WORLD, 0, 0);
+    Region otherWorld = new Region("other_world", 0, 0);
+    RegionStorage storage = backend.create(region);
+    storage.set(PATH_A, 1);
+    backend.save(storage);
+
+    assertThat("Other world must not have data", backend.load(otherWorld), nullValue());
+    assertThat(
+        "Other region must not have data",
+        backend.load(new Region(WORLD, 0, 1)),
+        nullValue());
+  }
+
+  @DisplayName("Deleted data is no longer loaded or listed.")
+  @Test
+  void testDelete() throws Exception {
+    Region region = new Region(WORLD, 2, 2);
+    RegionStorage storage = backend.create(region);
+    storage.set(PATH_A, 1);
+    backend.save(storage);
+
+    backend.delete(region);
+
+    assertThat("Deleted data must be null", backend.load(region), nullValue());
+    assertThat("Deleted region must not be listed", backend.listRegions(), not(hasItem(region)));
+  }
+
+  @DisplayName("Deleting a region without data does nothing.")
+  @Test
+  void testDeleteAbsent() {
+    assertDoesNotThrow(() -> backend.delete(new Region(WORLD, 3, 3)));
+  }
+
+  @DisplayName("All regions with data are listed.")
+  @Test
+  void testList() throws Exception {
+    List<Region> regions = List.of(
+        new Region(WORLD, 0, 0),
+        new Region(WORLD, -1, 5),
+        new Region("other_world", 0, 0));
+    for (Region region : regions) {
+      RegionStorage storage = backend.create(region);
+      storage.set(PATH_A, 1);
+      backend.save(storage);
+    }
+
+    assertThat(
+        "Listed regions must match saved regions",
+        backend.listRegions(),
+        containsInAnyOrder(regions.toArray()));
+  }
+
+  @DisplayName("Data written during a group commit is visible before committing.")
+  @Test
+  void testGroupCommit() throws Exception {
+    Region region = new Region(WORLD, 0, 0);
+    Region deleted = new Region(WORLD, 1, 1);
+    RegionStorage storage = backend.create(deleted);
+    storage.set(PATH_A, 1);
+    backend.save(storage);
+
+    backend.beginGroupCommit();
+    storage = backend.create(region);
+    storage.set(PATH_A, 2);
+    backend.save(storage);
+    backend.delete(deleted);
+
+    RegionStorage loaded = backend.load(region);
+    assertThat("Data must be loaded", loaded, notNullValue());
+    assertThat("Value must match", loaded.getInt(PATH_A), is(2));
+    assertThat("Deleted data must be null", backend.load(deleted), nullValue());
+
+    backend.commit();
+
+    loaded = backend.load(region);
+    assertThat("Data must be loaded", loaded, notNullValue());
+    assertThat("Value must match", loaded.getInt(PATH_A), is(2));
+    assertThat("Deleted data must be null", backend.load(deleted), nullValue());
+  }
+
+  @DisplayName("Concurrent operations on different regions do not interfere.")
+  @Test
+  void testConcurrentRegions() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 32; ++i) {
+        Region region = new Region(WORLD, i, -i);
+        int base = i * 100;
+        futures.add(executor.submit(() -> {
+          for (int round = 0; round < 10; ++round) {
+            RegionStorage storage = backend.create(region);
+            storage.set(PATH_A, base + round);
+            backend.save(storage);
+
+            RegionStorage loaded = backend.load(region);
+            assertThat("Data must be loaded", loaded, notNullValue());
+            assertThat("Data must match last save", loaded.getInt(PATH_A), is(base + round));
+          }
+          return null;
+        }));
+      }
+
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @DisplayName("Loads concurrent with saves observe complete data.")
+  @Test
+  void testConcurrentLoadSave() throws Exception {
+    Region region = new Region(WORLD, 0, 0);
+    ExecutorService executor = Executors.newFixedThreadPool(5);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    try {
+      Future<?> writer = executor.submit(() -> {
+        try {
+          for (int i = 0; i < 200; ++i) {
+            RegionStorage storage = backend.create(region);
+            storage.set(PATH_A, i);
+            storage.set(PATH_B, i);
+            backend.save(storage);
+          }
+        } finally {
+          writing.set(false);
+        }
+        return null;
+      });
+
+      List<Future<?>> readers = new ArrayList<>();
+      for (int i = 0; i < 4; ++i) {
+        readers.add(executor.submit(() -> {
+          while (writing.get()) {
+            RegionStorage loaded = backend.load(region);
+            if (loaded != null) {
+              assertThat(
+                  "Values must come from the same save",
+                  loaded.getInt(PATH_A),
+                  is(loaded.getInt(PATH_B)));
+            }
+          }
+          return null;
+        }));
+      }
+
+      writer.get(60, TimeUnit.SECONDS);
+      for (Future<?> reader : readers) {
+        reader.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
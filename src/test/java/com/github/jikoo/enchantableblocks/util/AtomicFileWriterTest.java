@@ -0,0 +1,136 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Replace files atomically.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AtomicFileWriterTest {
+
+  private final Path dataDir = Path.of(".", "src", "test", "resources", getClass().getSimpleName());
+  private final Path file = dataDir.resolve("world").resolve("0_0.yml");
+
+  @AfterEach
+  void afterEach() throws IOException {
+    if (!Files.exists(dataDir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(dataDir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> {
+        try {
+          Files.delete(path);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      });
+    }
+  }
+
+  private void write(AtomicFileWriter writer, String content) throws IOException {
+    writer.write(file, output -> output.write(content.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private String read() throws IOException {
+    return Files.readString(file, StandardCharsets.UTF_8);
+  }
+
+  private long countFiles() throws IOException {
+    try (Stream<Path> files = Files.list(file.getParent())) {
+      return files.count();
+    }
+  }
+
+  @DisplayName("Writing replaces content without leaving temporary files.")
+  @Test
+  void testWrite() throws IOException {
+    var writer = new AtomicFileWriter();
+    write(writer, "first");
+    write(writer, "second");
+
+    assertThat("Content must be replaced", read(), is("second"));
+    assertThat("Temporary files must not remain", countFiles(), is(1L));
+  }
+
+  @DisplayName("Failed writes leave existing content intact.")
+  @Test
+  void testFailedWrite() throws IOException {
+    var writer = new AtomicFileWriter();
+    write(writer, "first");
+
+    assertThrows(IOException.class, () -> writer.write(file, output -> {
+      output.write("partial".getBytes(StandardCharsets.UTF_8));
+      throw new IOException("Simulated failure");
+    }));
+
+    assertThat("Content must be intact", read(), is("first"));
+    assertThat("Temporary files must not remain", countFiles(), is(1L));
+  }
+
+  @DisplayName("Directories are recreated if removed after creation.")
+  @Test
+  void testDirectoryRemoved() throws IOException {
+    var writer = new AtomicFileWriter();
+    write(writer, "first");
+    Files.delete(file);
+    Files.delete(file.getParent());
+
+    write(writer, "second");
+
+    assertThat("Content must be written", read(), is("second"));
+  }
+
+  @DisplayName("Group commits are readable before committing.")
+  @Test
+  void testGroupCommit() throws IOException {
+    var writer = new AtomicFileWriter();
+    writer.beginGroupCommit();
+    write(writer, "first");
+
+    assertThat("Content must be readable", read(), is("first"));
+
+    writer.commit();
+    write(writer, "second");
+
+    assertThat("Content must be replaced", read(), is("second"));
+  }
+
+  @DisplayName("Deleted files are removed.")
+  @Test
+  void testDelete() throws IOException {
+    var writer = new AtomicFileWriter();
+    write(writer, "first");
+    writer.beginGroupCommit();
+    writer.delete(file);
+    writer.delete(file);
+    writer.commit();
+
+    assertThat("File must be deleted", Files.exists(file), is(false));
+  }
+
+  @DisplayName("Syncing keeps a group commit open.")
+  @Test
+  void testSyncGroupCommit() throws IOException {
+    var writer = new AtomicFileWriter();
+    writer.beginGroupCommit();
+    write(writer, "first");
+    writer.sync();
+    write(writer, "second");
+
+    assertThat("Content must be replaced", read(), is("second"));
+    assertThat("Temporary files must not remain", countFiles(), is(1L));
+    writer.commit();
+  }
+
+}
@@ -0,0 +1,147 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.stream.Stream;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@DisplayName("Feature: Store region data in a compact binary format.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BinaryRegionFormatTest {
+
+  @DisplayName("Coordinates are packed losslessly.")
+  @ParameterizedTest
+  @MethodSource("getCoordinates")
+  void testPack(int x, int y, int z) {
+    long packed = BinaryRegionFormat.pack(x, y, z);
+
+    assertThat("X must match", BinaryRegionFormat.unpackX(packed), is(x));
+    assertThat("Y must match", BinaryRegionFormat.unpackY(packed), is(y));
+    assertThat("Z must match", BinaryRegionFormat.unpackZ(packed), is(z));
+  }
+
+  @DisplayName("Block values survive a round trip.")
+  @Test
+  void testRoundTrip() throws IOException {
+    var original = new MemoryConfiguration();
+    original.set("-1_0.-1_64_2.silk.enabled", true);
+    original.set("-1_0.-1_64_2.silk.ticks", (short) 200);
+    original.set("-1_0.-1_64_2.long", Long.MAX_VALUE);
+    original.set("-1_0.-1_64_2.double", 0.5);
+    original.set("-1_0.-1_64_2.string", "value");
+    original.set("0_0.0_-64_0.silk.enabled", false);
+
+    var read = roundTrip(original);
+
+    assertThat("Boolean must match", read.getBoolean("-1_0.-1_64_2.silk.enabled"), is(true));
+    assertThat("Short must be read as int", read.get("-1_0.-1_64_2.silk.ticks"), is(200));
+    assertThat("Long must match", read.getLong("-1_0.-1_64_2.long"), is(Long.MAX_VALUE));
+    assertThat("Double must match", read.getDouble("-1_0.-1_64_2.double"), is(0.5));
+    assertThat("String must match", read.getString("-1_0.-1_64_2.string"), is("value"));
+    assertThat("Other block must be present", read.isBoolean("0_0.0_-64_0.silk.enabled"));
+    assertThat("Missing item must stay missing", read.get("0_0.0_-64_0.itemstack"), nullValue());
+  }
+
+  @DisplayName("Block values are encoded separately from full blocks.")
+  @Test
+  void testEncodeValues() throws IOException {
+    var values = new MemoryConfiguration();
+    values.set("silk.enabled", true);
+    values.set("silk.ticks", 200);
+
+    byte[] encoded = BinaryRegionFormat.encodeValues(values);
+    assertThat("Values must be marked", BinaryRegionFormat.isValuesOnly(encoded));
+    assertThat(
+        "Blocks must not be marked",
+        BinaryRegionFormat.isValuesOnly(BinaryRegionFormat.encodeBlock(values)),
+        is(false));
+
+    var read = new MemoryConfiguration();
+    BinaryRegionFormat.decodeBlock(encoded, read);
+    assertThat("Boolean must match", read.getBoolean("silk.enabled"), is(true));
+    assertThat("Int must match", read.getInt("silk.ticks"), is(200));
+  }
+
+  @DisplayName("Entries not representing blocks are not written.")
+  @Test
+  void testInvalidEntries() throws IOException {
+    var original = new MemoryConfiguration();
+    original.set("not_a_section", "value");
+    original.set("0_0.not_a_block", "value");
+    original.set("0_0.bad_block_path.value", "value");
+
+    var read = roundTrip(original);
+
+    assertThat("Invalid entries must be dropped", read.getKeys(false).isEmpty());
+  }
+
+  @DisplayName("Data written with items inline in each block is readable.")
+  @Test
+  void testReadInlineItems() throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    var output = new DataOutputStream(bytes);
+    output.writeInt(0x45425247);
+    output.writeByte(1);
+
+    var record = new ByteArrayOutputStream();
+    var recordOutput = new DataOutputStream(record);
+    recordOutput.writeLong(BinaryRegionFormat.pack(-1, 64, 2));
+    // No item.
+    recordOutput.writeInt(-1);
+    recordOutput.writeShort(1);
+    recordOutput.writeUTF("silk.ticks");
+    recordOutput.writeByte(1);
+    recordOutput.writeInt(200);
+    recordOutput.flush();
+    output.writeInt(record.size());
+    record.writeTo(output);
+    output.flush();
+
+    var read = new MemoryConfiguration();
+    BinaryRegionFormat.read(new ByteArrayInputStream(bytes.toByteArray()), read);
+
+    assertThat("Value must match", read.getInt("-1_0.-1_64_2.silk.ticks"), is(200));
+    assertThat("Missing item must stay missing", read.get("-1_0.-1_64_2.itemstack"), nullValue());
+  }
+
+  @DisplayName("Data not in the binary format is rejected.")
+  @Test
+  void testInvalidHeader() {
+    var input = new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 });
+
+    assertThrows(
+        IOException.class,
+        () -> BinaryRegionFormat.read(input, new MemoryConfiguration()));
+  }
+
+  private MemoryConfiguration roundTrip(MemoryConfiguration original) throws IOException {
+    var output = new ByteArrayOutputStream();
+    BinaryRegionFormat.write(original, output);
+    var read = new MemoryConfiguration();
+    BinaryRegionFormat.read(new ByteArrayInputStream(output.toByteArray()), read);
+    return read;
+  }
+
+  static Stream<Arguments> getCoordinates() {
+    return Stream.of(
+        Arguments.of(0, 0, 0),
+        Arguments.of(-1, -1, -1),
+        Arguments.of(30_000_000, 2047, -30_000_000),
+        Arguments.of(-30_000_000, -2048, 30_000_000),
+        Arguments.of(511, -64, -512));
+  }
+
+}
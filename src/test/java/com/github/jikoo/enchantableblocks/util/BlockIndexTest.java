@@ -0,0 +1,126 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.github.jikoo.enchantableblocks.mock.world.WorldMocks;
+import java.util.HashSet;
+import java.util.Set;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Index values by block.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BlockIndexTest {
+
+  private final World world = WorldMocks.newWorld("world");
+  private final World other = WorldMocks.newWorld("other");
+  private BlockIndex<String> index;
+
+  @BeforeEach
+  void beforeEach() {
+    index = new BlockIndex<>();
+  }
+
+  @DisplayName("Values are stored per block.")
+  @Test
+  void testGet() {
+    index.put(world.getBlockAt(0, -64, 0), "bottom");
+    index.put(world.getBlockAt(0, 319, 0), "top");
+    index.put(world.getBlockAt(-1, 0, -1), "negative");
+    index.put(other.getBlockAt(0, -64, 0), "other");
+
+    assertThat("Value must match", index.get(world.getBlockAt(0, -64, 0)), is("bottom"));
+    assertThat("Value must match", index.get(world.getBlockAt(0, 319, 0)), is("top"));
+    assertThat("Value must match", index.get(world.getBlockAt(-1, 0, -1)), is("negative"));
+    assertThat("Value must match", index.get(other.getBlockAt(0, -64, 0)), is("other"));
+    assertThat("Unset block must be null", index.get(world.getBlockAt(16, -64, 0)), nullValue());
+    assertThat("Unset block must be null", index.get(world.getBlockAt(0, -63, 0)), nullValue());
+  }
+
+  @DisplayName("Setting a value replaces the previous value.")
+  @Test
+  void testPut() {
+    assertThat("No previous value", index.put(world.getBlockAt(0, 0, 0), "old"), nullValue());
+    assertThat("Previous value", index.put(world.getBlockAt(0, 0, 0), "new"), is("old"));
+    assertThat("Value must be replaced", index.get(world.getBlockAt(0, 0, 0)), is("new"));
+  }
+
+  @DisplayName("Values are obtainable per chunk.")
+  @Test
+  void testGetChunk() {
+    index.put(world.getBlockAt(0, 0, 0), "first");
+    index.put(world.getBlockAt(15, 100, 15), "second");
+    index.put(world.getBlockAt(16, 0, 0), "neighbor");
+
+    assertThat(
+        "Chunk must contain values",
+        index.get("world", 0, 0),
+        containsInAnyOrder("first", "second"));
+    assertThat("Unset chunk must be empty", index.get("world", 0, 1), is(empty()));
+    assertThat("Unset world must be empty", index.get("unset", 0, 0), is(empty()));
+  }
+
+  @DisplayName("Chunk presence reflects whether the chunk contains values.")
+  @Test
+  void testContains() {
+    assertThat("Unset world must not contain chunk", index.contains("world", 0, 0), is(false));
+
+    index.put(world.getBlockAt(-1, 0, -1), "value");
+    assertThat("Chunk must be present", index.contains("world", -1, -1), is(true));
+    assertThat("Unset chunk must not be present", index.contains("world", 0, 0), is(false));
+    assertThat("Other world must not contain chunk", index.contains("other", -1, -1), is(false));
+
+    index.remove(world.getBlockAt(-1, 0, -1));
+    assertThat("Emptied chunk must not be present", index.contains("world", -1, -1), is(false));
+  }
+
+  @DisplayName("Values are removable per block.")
+  @Test
+  void testRemove() {
+    index.put(world.getBlockAt(0, 0, 0), "value");
+
+    assertThat("Unset block removes nothing", index.remove(world.getBlockAt(1, 0, 0)), nullValue());
+    assertThat("Value must be removed", index.remove(world.getBlockAt(0, 0, 0)), is("value"));
+    assertThat("Value must be unset", index.get(world.getBlockAt(0, 0, 0)), nullValue());
+    assertThat("Chunk must be empty", index.get("world", 0, 0), is(empty()));
+  }
+
+  @DisplayName("Values are removable per chunk.")
+  @Test
+  void testRemoveChunk() {
+    index.put(world.getBlockAt(0, 0, 0), "first");
+    index.put(world.getBlockAt(1, 0, 0), "second");
+    index.put(world.getBlockAt(16, 0, 0), "neighbor");
+
+    assertThat(
+        "Chunk values must be removed",
+        index.remove(world.getChunkAt(0, 0)),
+        containsInAnyOrder("first", "second"));
+    assertThat("Chunk must be empty", index.get("world", 0, 0), is(empty()));
+    assertThat("Neighbor must be kept", index.get(world.getBlockAt(16, 0, 0)), is("neighbor"));
+    assertThat("Unset chunk removes nothing", index.remove(world.getChunkAt(0, 0)), is(empty()));
+  }
+
+  @DisplayName("Block keys are unique within a chunk.")
+  @Test
+  void testBlockKey() {
+    Set<Integer> keys = new HashSet<>();
+    for (int y = -64; y < 320; ++y) {
+      for (int x = 0; x < 16; ++x) {
+        for (int z = 0; z < 16; ++z) {
+          keys.add(BlockIndex.blockKey(x, y, z));
+        }
+      }
+    }
+
+    assertThat("Keys must be unique", keys.size(), is(384 * 256));
+  }
+
+}
@@ -8,7 +8,21 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -160,4 +174,555 @@ class CacheTest {
     assertThat("Value must be removed by retention policy.", cache.containsKey(KEY), is(false));
   }
 
+  @DisplayName("Cache must retain absent values for the specified duration.")
+  @Test
+  void testAbsentRetention() {
+    long absentRetention = 30_000L;
+    AtomicInteger loads = new AtomicInteger();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withClock(clock)
+        .withAbsentRetention(absentRetention)
+        .withLazyFrequency(0)
+        .withLoadFunction((key, create) -> {
+          loads.incrementAndGet();
+          return null;
+        })
+        .build();
+
+    assertThat("Value must not be loaded.", cache.get(KEY, false), nullValue());
+    assertThat("Key must be absent.", cache.isAbsent(KEY));
+    assertThat("Key must not have content.", cache.containsKey(KEY), is(false));
+    assertThat("Absent value must not be loaded again.", cache.get(KEY, false), nullValue());
+    assertThat("Load function must be used once.", loads.get(), is(1));
+
+    when(clock.millis()).thenReturn(absentRetention);
+
+    assertThat("Key must no longer be absent.", cache.isAbsent(KEY), is(false));
+    cache.get(KEY, false);
+    assertThat("Load function must be used after retention.", loads.get(), is(2));
+  }
+
+  @DisplayName("Cache must create values for absent keys when requested.")
+  @Test
+  void testAbsentCreate() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withClock(clock)
+        .withAbsentRetention(30_000L)
+        .withLoadFunction((key, create) -> create ? VALUE : null)
+        .build();
+
+    assertThat("Value must not be created.", cache.get(KEY, false), nullValue());
+    assertThat("Key must be absent.", cache.isAbsent(KEY));
+    assertThat("Value must be created.", cache.get(KEY), is(VALUE));
+    assertThat("Key must no longer be absent.", cache.isAbsent(KEY), is(false));
+    assertThat("Value must be retained.", cache.get(KEY, false), is(VALUE));
+  }
+
+  @DisplayName("Cache must not retain absent values by default.")
+  @Test
+  void testAbsentDefault() {
+    AtomicInteger loads = new AtomicInteger();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withLoadFunction((key, create) -> {
+          loads.incrementAndGet();
+          return null;
+        })
+        .build();
+
+    cache.get(KEY, false);
+    cache.get(KEY, false);
+
+    assertThat("Key must not be absent.", cache.isAbsent(KEY), is(false));
+    assertThat("Load function must be used each time.", loads.get(), is(2));
+  }
+
+  @DisplayName("Cache must forget absent values when invalidated or set.")
+  @Test
+  void testAbsentInvalidate() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withClock(clock)
+        .withAbsentRetention(30_000L)
+        .withLoadFunction((key, create) -> null)
+        .build();
+
+    cache.get(KEY, false);
+    cache.invalidate(KEY);
+    assertThat("Invalidated key must not be absent.", cache.isAbsent(KEY), is(false));
+
+    cache.get(KEY, false);
+    cache.put(KEY, VALUE);
+    assertThat("Set key must not be absent.", cache.isAbsent(KEY), is(false));
+    assertThat("Value must be set.", cache.get(KEY, false), is(VALUE));
+  }
+
+  @DisplayName("Cache must load different keys in parallel.")
+  @Test
+  void testParallelLoad() throws Exception {
+    CountDownLatch bothLoading = new CountDownLatch(2);
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withLoadFunction((key, create) -> {
+          bothLoading.countDown();
+          try {
+            // Each load waits for the other to start, so serialized loads would time out.
+            return bothLoading.await(10, TimeUnit.SECONDS) ? key : null;
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+          }
+        })
+        .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> first = executor.submit(() -> cache.get(KEY));
+      Future<String> second = executor.submit(() -> cache.get(VALUE));
+
+      assertThat("First value must be loaded.", first.get(30, TimeUnit.SECONDS), is(KEY));
+      assertThat("Second value must be loaded.", second.get(30, TimeUnit.SECONDS), is(VALUE));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @DisplayName("Cache must share concurrent loads of the same key.")
+  @Test
+  void testSingleLoad() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withLoadFunction((key, create) -> {
+          loads.incrementAndGet();
+          try {
+            release.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return VALUE;
+        })
+        .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; ++i) {
+        futures.add(executor.submit(() -> cache.get(KEY)));
+      }
+      release.countDown();
+
+      for (Future<String> future : futures) {
+        assertThat("Value must be loaded.", future.get(30, TimeUnit.SECONDS), is(VALUE));
+      }
+      assertThat("Load function must be used once.", loads.get(), is(1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @DisplayName("Cache must not block reads during loads of other keys.")
+  @Test
+  void testReadDuringLoad() throws Exception {
+    CountDownLatch loadStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withLoadFunction((key, create) -> {
+          loadStarted.countDown();
+          try {
+            release.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return key;
+        })
+        .build();
+    cache.put(VALUE, VALUE);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<String> loading = executor.submit(() -> cache.get(KEY));
+      assertThat("Load must start.", loadStarted.await(10, TimeUnit.SECONDS));
+
+      assertThat("Present value must be read during load.", cache.get(VALUE), is(VALUE));
+
+      release.countDown();
+      assertThat("Value must be loaded.", loading.get(30, TimeUnit.SECONDS), is(KEY));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @DisplayName("Cache must track expiration once per key regardless of reads.")
+  @Test
+  void testExpiryBookkeepingFlat() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withLazyFrequency(0)
+        .build();
+    cache.put(KEY, VALUE);
+
+    for (int i = 0; i < 2_000_000; ++i) {
+      cache.get(KEY);
+    }
+
+    assertThat("Key must be tracked once.", cache.getScheduledCount(), is(1));
+
+    cache.put(KEY, VALUE);
+    assertThat("Replaced key must be tracked once.", cache.getScheduledCount(), is(1));
+
+    cache.invalidate(KEY);
+    assertThat("Invalidated key must not be tracked.", cache.getScheduledCount(), is(0));
+  }
+
+  @DisplayName("Cache must extend retention when values are read.")
+  @Test
+  void testRetentionExtended() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withClock(clock)
+        .withRetention(MIN_RETENTION)
+        .withLazyFrequency(0)
+        .build();
+    cache.put(KEY, VALUE);
+    when(clock.millis()).thenReturn(MIN_RETENTION - 1L);
+    cache.get(KEY);
+
+    when(clock.millis()).thenReturn(MIN_RETENTION + 1L);
+
+    assertThat("Value must remain set after being read.", cache.containsKey(KEY));
+
+    when(clock.millis()).thenReturn(2 * MIN_RETENTION);
+
+    assertThat("Value must be removed by retention policy.", cache.containsKey(KEY), is(false));
+    assertThat("Removed key must not be tracked.", cache.getScheduledCount(), is(0));
+  }
+
+  @DisplayName("Sweeper cache must only expire values when swept.")
+  @Test
+  void testSweeper() {
+    AtomicInteger removals = new AtomicInteger();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withClock(clock)
+        .withRetention(MIN_RETENTION)
+        .withLazyFrequency(0)
+        .withSweeper(true)
+        .withPostRemoval((key, value) -> removals.incrementAndGet())
+        .build();
+    cache.put(KEY, VALUE);
+    when(clock.millis()).thenReturn(MIN_RETENTION + 1L);
+
+    assertThat("Value must remain set until swept.", cache.containsKey(KEY));
+    assertThat("Post-removal must not run on access.", removals.get(), is(0));
+
+    assertThat("No work must remain.", cache.sweep(Duration.ofSeconds(10)), is(false));
+    assertThat("Value must be removed by sweep.", cache.containsKey(KEY), is(false));
+    assertThat("Post-removal must run once.", removals.get(), is(1));
+  }
+
+  @DisplayName("Sweeps must carry over work exceeding their budget.")
+  @Test
+  void testSweepBudget() {
+    AtomicInteger removals = new AtomicInteger();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withClock(clock)
+        .withRetention(MIN_RETENTION)
+        .withLazyFrequency(0)
+        .withSweeper(true)
+        .withPostRemoval((key, value) -> removals.incrementAndGet())
+        .build();
+    cache.put(KEY, VALUE);
+    cache.put(VALUE, KEY);
+    when(clock.millis()).thenReturn(MIN_RETENTION + 1L);
+
+    assertThat("Work must remain.", cache.sweep(Duration.ZERO));
+    assertThat("Sweep must make progress.", removals.get(), is(1));
+
+    assertThat("No work must remain.", cache.sweep(Duration.ZERO), is(false));
+    assertThat("Remaining work must be carried over.", removals.get(), is(2));
+  }
+
+  @DisplayName("Sweeper cache must expire all values when requested.")
+  @Test
+  void testSweeperExpireAll() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withSweeper(true)
+        .build();
+    cache.put(KEY, VALUE);
+    cache.expireAll();
+
+    assertThat("Value must be removed when all keys expire.", cache.containsKey(KEY), is(false));
+  }
+
+  @DisplayName("Cache must evict values used once before values used repeatedly.")
+  @Test
+  void testEviction() {
+    List<String> removed = new ArrayList<>();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withMaximumWeight(2)
+        .withPostRemoval((key, value) -> removed.add(key))
+        .build();
+    cache.put("first", VALUE);
+    cache.put("second", VALUE);
+    cache.get("first");
+    cache.put("third", VALUE);
+
+    assertThat("Value used once must be evicted.", removed, is(List.of("second")));
+    assertThat("Value used repeatedly must be retained.", cache.containsKey("first"));
+    assertThat("New value must be retained.", cache.containsKey("third"));
+  }
+
+  @DisplayName("Cache must not evict values in use.")
+  @Test
+  void testEvictionInUse() {
+    Set<String> inUse = new HashSet<>();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withMaximumWeight(1)
+        .withInUseCheck((key, value) -> inUse.contains(key))
+        .build();
+    inUse.add("first");
+    cache.put("first", VALUE);
+    cache.put("second", VALUE);
+
+    assertThat("Value in use must be retained.", cache.containsKey("first"));
+    assertThat("Value not in use must be evicted.", cache.containsKey("second"), is(false));
+
+    inUse.add("third");
+    cache.put("third", VALUE);
+
+    assertThat("Values in use may exceed maximum weight.", cache.containsKey("first"));
+    assertThat("Values in use may exceed maximum weight.", cache.containsKey("third"));
+  }
+
+  @DisplayName("Cache must evict by weight.")
+  @Test
+  void testEvictionWeight() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withMaximumWeight(10)
+        .withWeigher((key, value) -> value.length())
+        .build();
+    cache.put(KEY, "12345");
+    cache.put(VALUE, "12345");
+
+    assertThat("Values within weight must be retained.", cache.containsKey(KEY));
+
+    cache.put("third", "1");
+
+    assertThat("Values over weight must be evicted.", cache.containsKey(KEY), is(false));
+    assertThat("Values within weight must be retained.", cache.containsKey(VALUE));
+  }
+
+  @DisplayName("Sweeper cache must only evict values when swept.")
+  @Test
+  void testSweeperEviction() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withMaximumWeight(1)
+        .withSweeper(true)
+        .build();
+    cache.put(KEY, VALUE);
+    cache.put(VALUE, KEY);
+
+    assertThat("Value must remain set until swept.", cache.containsKey(KEY));
+
+    assertThat("No work must remain.", cache.sweep(Duration.ofSeconds(10)), is(false));
+    assertThat("Value must be evicted by sweep.", cache.containsKey(KEY), is(false));
+    assertThat("Value must be retained.", cache.containsKey(VALUE));
+  }
+
+  @DisplayName("Cache must record statistics.")
+  @Test
+  void testStats() {
+    Set<String> inUse = new HashSet<>();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withClock(clock)
+        .withRetention(MIN_RETENTION)
+        .withLazyFrequency(0)
+        .withMaximumWeight(2)
+        .withInUseCheck((key, value) -> inUse.contains(key))
+        .withLoadFunction((key, create) -> create ? VALUE : null)
+        .build();
+
+    cache.get(KEY);
+    cache.get(KEY);
+    cache.get("absent", false);
+
+    CacheStats stats = cache.getStats();
+    assertThat("Hits must be recorded.", stats.hitCount(), is(1L));
+    assertThat("Misses must be recorded.", stats.missCount(), is(2L));
+    assertThat("Loads must be recorded.", stats.loadCount(), is(2L));
+    long histogramLoads = 0;
+    for (long count : stats.loadTimeHistogram()) {
+      histogramLoads += count;
+    }
+    assertThat("Load times must be recorded.", histogramLoads, is(2L));
+
+    inUse.add("second");
+    cache.put("second", VALUE);
+    cache.put("third", VALUE);
+
+    stats = cache.getStats();
+    assertThat("Evictions must be recorded.", stats.evictionCount(), is(1L));
+    assertThat("In use retention must be recorded.", stats.inUseRetentionCount(), is(1L));
+
+    inUse.clear();
+    when(clock.millis()).thenReturn(MIN_RETENTION + 1L);
+    cache.containsKey(KEY);
+
+    stats = cache.getStats();
+    assertThat("Expirations must be recorded.", stats.expirationCount(), is(2L));
+  }
+
+  @DisplayName("Load times must be bucketed by powers of two.")
+  @Test
+  void testStatsBucket() {
+    assertThat("Fast loads must use first bucket.", CacheStats.bucket(999_999L), is(0));
+    assertThat("1ms loads must use second bucket.", CacheStats.bucket(1_000_000L), is(1));
+    assertThat("3ms loads must use third bucket.", CacheStats.bucket(3_000_000L), is(2));
+    assertThat(
+        "Slow loads must use last bucket.",
+        CacheStats.bucket(Long.MAX_VALUE),
+        is(CacheStats.HISTOGRAM_BUCKETS - 1));
+  }
+
+  @DisplayName("Cache must complete present values immediately.")
+  @Test
+  void testGetAsyncPresent() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withLoadFunction((key, create) -> {
+          throw new IllegalStateException("Present values must not be loaded!");
+        })
+        .build();
+    cache.put(KEY, VALUE);
+
+    CompletableFuture<String> future = cache.getAsync(KEY, false);
+
+    assertThat("Future must be complete.", future.isDone());
+    assertThat("Value must be present.", future.join(), is(VALUE));
+  }
+
+  @DisplayName("Cache must load values on the executor.")
+  @Test
+  void testGetAsyncExecutor() throws InterruptedException {
+    List<Runnable> tasks = new ArrayList<>();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withExecutor(tasks::add)
+        .withLoadFunction((key, create) -> VALUE)
+        .build();
+
+    CompletableFuture<String> future = cache.getAsync(KEY, true);
+    CompletableFuture<String> shared = cache.getAsync(KEY, true);
+
+    assertThat("Load must not run until executed.", future.isDone(), is(false));
+    assertThat("Concurrent requests must share a load.", tasks.size(), is(1));
+
+    tasks.getFirst().run();
+
+    assertThat("Value must be loaded.", future.join(), is(VALUE));
+    assertThat("Shared value must be loaded.", shared.join(), is(VALUE));
+    assertThat("Value must be cached.", cache.containsKey(KEY));
+  }
+
+  @DisplayName("Cache must prefer the asynchronous load function.")
+  @Test
+  void testGetAsyncLoadFunction() {
+    CompletableFuture<String> loading = new CompletableFuture<>();
+    AtomicInteger loads = new AtomicInteger();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withLoadFunction((key, create) -> {
+          throw new IllegalStateException("Synchronous load must not be used!");
+        })
+        .withAsyncLoadFunction((key, create) -> {
+          loads.incrementAndGet();
+          return loading;
+        })
+        .build();
+
+    CompletableFuture<String> future = cache.getAsync(KEY, false);
+    cache.getAsync(KEY, false);
+    loading.complete(VALUE);
+
+    assertThat("Value must be loaded.", future.join(), is(VALUE));
+    assertThat("Load function must be used once.", loads.get(), is(1));
+    assertThat("Value must be cached.", cache.get(KEY, false), is(VALUE));
+  }
+
+  @DisplayName("Cache must propagate asynchronous load failures.")
+  @Test
+  void testGetAsyncFailure() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withAsyncLoadFunction((key, create) ->
+            CompletableFuture.failedFuture(new IllegalStateException("Simulated failure")))
+        .build();
+
+    CompletableFuture<String> future = cache.getAsync(KEY, true);
+
+    assertThat("Future must fail.", future.isCompletedExceptionally());
+    assertThat("Value must not be cached.", cache.containsKey(KEY), is(false));
+  }
+
+  @DisplayName("Cache must get present and loaded values in bulk.")
+  @Test
+  void testGetAll() {
+    AtomicInteger loads = new AtomicInteger();
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withExecutor(Runnable::run)
+        .withLoadFunction((key, create) -> {
+          loads.incrementAndGet();
+          return key.equals(KEY) ? null : key;
+        })
+        .build();
+    cache.put("present", VALUE);
+
+    Map<String, String> values = cache.getAll(List.of("present", KEY, VALUE, VALUE), false);
+
+    assertThat("Present value must be included.", values.get("present"), is(VALUE));
+    assertThat("Loaded value must be included.", values.get(VALUE), is(VALUE));
+    assertThat("Null values must be omitted.", values.containsKey(KEY), is(false));
+    assertThat("Each missing key must be loaded once.", loads.get(), is(2));
+    assertThat("Loaded value must be cached.", cache.containsKey(VALUE));
+  }
+
+  @DisplayName("Cache must load missing values in bulk in parallel.")
+  @Test
+  void testGetAllParallel() {
+    CountDownLatch bothLoading = new CountDownLatch(2);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+          .withExecutor(executor)
+          .withLoadFunction((key, create) -> {
+            bothLoading.countDown();
+            try {
+              // Each load waits for the other to start, so serialized loads would time out.
+              return bothLoading.await(10, TimeUnit.SECONDS) ? key : null;
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return null;
+            }
+          })
+          .build();
+
+      Map<String, String> values = cache.getAll(List.of(KEY, VALUE), false);
+
+      assertThat("First value must be loaded.", values.get(KEY), is(KEY));
+      assertThat("Second value must be loaded.", values.get(VALUE), is(VALUE));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @DisplayName("Cache must set values in bulk.")
+  @Test
+  void testPutAll() {
+    Cache<String, String> cache = new Cache.CacheBuilder<String, String>()
+        .withMaximumWeight(100)
+        .withWeigher((key, value) -> value.length())
+        .build();
+    cache.put(KEY, "old");
+
+    Map<String, String> values = new HashMap<>();
+    values.put(KEY, VALUE);
+    values.put("other", "value");
+    cache.putAll(values);
+
+    assertThat("Existing value must be replaced.", cache.get(KEY), is(VALUE));
+    assertThat("New value must be set.", cache.get("other"), is("value"));
+    assertThat("Values must be scheduled once.", cache.getScheduledCount(), is(2));
+  }
+
 }
@@ -2,12 +2,15 @@ package com.github.jikoo.enchantableblocks.util;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
 import java.util.stream.Stream;
+import java.util.List;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.DisplayName;
@@ -70,4 +73,90 @@ class RegionStorageTest {
         is(areYouAwareOfMyMonstrosity));
   }
 
+  @DisplayName("Snapshots are detached copies.")
+  @Test
+  void testSnapshot() {
+    RegionStorage storage = new RegionStorage(dataDir, new Region(world, 2, 2));
+    storage.set("section.value", "value");
+    List<String> list = List.of("a", "b");
+    storage.set("section.list", list);
+
+    RegionStorage snapshot = storage.snapshot();
+    storage.set("section.value", "changed");
+
+    assertThat("Region must match.", snapshot.getRegion(), is(storage.getRegion()));
+    assertThat("Snapshot must not change.", snapshot.getString("section.value"), is("value"));
+    assertThat("Lists must be equal.", snapshot.getList("section.list"), is(list));
+    assertThat(
+        "Lists must be copied.",
+        snapshot.getList("section.list"),
+        is(not(sameInstance(list))));
+  }
+
+  @DisplayName("Binary format should write to disk and read back.")
+  @Test
+  void testBinary() throws IOException, InvalidConfigurationException {
+    Region region = new Region(world, 3, 3);
+    RegionStorage storage = new RegionStorage(dataDir, region, RegionStorage.Format.BINARY);
+    String path = "0_0.0_0_0.value";
+    storage.set(path, "value");
+    storage.save();
+
+    assertThat("Binary file must be written.", storage.getDataFile().exists(), is(true));
+    assertThat(
+        "Binary file must use binary extension.",
+        storage.getDataFile().getName().endsWith(".ebr"),
+        is(true));
+
+    RegionStorage stored = new RegionStorage(dataDir, region, RegionStorage.Format.BINARY);
+    stored.load();
+    assertThat("Stored value must equal expected value.", stored.get(path), is("value"));
+
+    stored.delete();
+    assertThat("Data must be deleted.", stored.exists(), is(false));
+  }
+
+  @DisplayName("Existing data in another format is read and replaced on save.")
+  @Test
+  void testMigrateFormat() throws IOException, InvalidConfigurationException {
+    Region region = new Region(world, 4, 4);
+    RegionStorage yaml = new RegionStorage(dataDir, region);
+    String path = "0_0.0_0_0.value";
+    yaml.set(path, "value");
+    yaml.save();
+
+    RegionStorage binary = new RegionStorage(dataDir, region, RegionStorage.Format.BINARY);
+    assertThat("Data must exist in other format.", binary.exists(), is(true));
+    binary.load();
+    assertThat("Value must be read from other format.", binary.get(path), is("value"));
+
+    binary.save();
+    assertThat(
+        "Other format must be removed on save.",
+        yaml.getDataFile().exists(),
+        is(false));
+    assertThat("Binary file must be written.", binary.getDataFile().exists(), is(true));
+
+    binary.delete();
+  }
+
+  @DisplayName("Data is only loaded if present.")
+  @Test
+  void testLoadIfPresent() throws IOException, InvalidConfigurationException {
+    Region region = new Region(world, 5, 5);
+    RegionStorage missing = new RegionStorage(dataDir, region, RegionStorage.Format.BINARY);
+    assertThat("Missing data must not be loaded.", missing.loadIfPresent(), is(false));
+
+    RegionStorage yaml = new RegionStorage(dataDir, region);
+    String path = "0_0.0_0_0.value";
+    yaml.set(path, "value");
+    yaml.save();
+
+    RegionStorage binary = new RegionStorage(dataDir, region, RegionStorage.Format.BINARY);
+    assertThat("Data in other format must be loaded.", binary.loadIfPresent(), is(true));
+    assertThat("Value must be read from other format.", binary.get(path), is("value"));
+
+    yaml.delete();
+  }
+
 }
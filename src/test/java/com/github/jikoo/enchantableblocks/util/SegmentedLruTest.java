@@ -0,0 +1,69 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Order entries for eviction.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SegmentedLruTest {
+
+  @DisplayName("Empty LRU has no candidates.")
+  @Test
+  void testEmpty() {
+    SegmentedLru<String> lru = new SegmentedLru<>(10);
+
+    assertThat("Empty LRU must not have a candidate", lru.candidate(), is(nullValue()));
+  }
+
+  @DisplayName("Entries are offered in insertion order.")
+  @Test
+  void testOrder() {
+    SegmentedLru<String> lru = new SegmentedLru<>(10);
+    var first = new SegmentedLru.Entry<>("first");
+    var second = new SegmentedLru.Entry<>("second");
+    lru.add(first);
+    lru.add(second);
+
+    assertThat("Oldest entry must be offered", lru.candidate(), is(first));
+    assertThat("Offered entries must be moved back", lru.candidate(), is(second));
+  }
+
+  @DisplayName("Accessed entries are protected.")
+  @Test
+  void testProtect() {
+    SegmentedLru<String> lru = new SegmentedLru<>(10);
+    var first = new SegmentedLru.Entry<>("first");
+    var second = new SegmentedLru.Entry<>("second");
+    lru.add(first);
+    lru.add(second);
+    first.accessed = true;
+
+    assertThat("Unaccessed entry must be offered", lru.candidate(), is(second));
+    assertThat("Access must be consumed on promotion", first.accessed, is(false));
+  }
+
+  @DisplayName("Weights are tracked.")
+  @Test
+  void testWeight() {
+    SegmentedLru<String> lru = new SegmentedLru<>(10);
+    var entry = new SegmentedLru.Entry<>("entry");
+    lru.reweigh(entry, 3);
+    lru.add(entry);
+
+    assertThat("Weight must be added", lru.weight(), is(3L));
+
+    lru.reweigh(entry, 5);
+    assertThat("Weight must be changed", lru.weight(), is(5L));
+
+    lru.remove(entry);
+    lru.remove(entry);
+    assertThat("Weight must be removed", lru.weight(), is(0L));
+    assertThat("Entry must be removed", lru.size(), is(0));
+  }
+
+}
@@ -0,0 +1,97 @@
+package com.github.jikoo.enchantableblocks.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@DisplayName("Feature: Track deadlines in a timing wheel.")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TimingWheelTest {
+
+  private static final long SPAN = 60_000L;
+
+  private TimingWheel.Entry<String> entry(String key, long deadline) {
+    TimingWheel.Entry<String> entry = new TimingWheel.Entry<>(key);
+    entry.deadline = deadline;
+    return entry;
+  }
+
+  private List<TimingWheel.Entry<String>> advance(TimingWheel<String> wheel, long now) {
+    List<TimingWheel.Entry<String>> due = new ArrayList<>();
+    wheel.advance(now, due);
+    return due;
+  }
+
+  @DisplayName("Entries are due once their deadline passes.")
+  @Test
+  void testDue() {
+    TimingWheel<String> wheel = new TimingWheel<>(SPAN, 0L);
+    var entry = entry("key", SPAN);
+    wheel.schedule(entry);
+
+    assertThat("Entry must not be due early", advance(wheel, SPAN - 1), is(empty()));
+    assertThat("Entry must be due", advance(wheel, SPAN), contains(entry));
+    assertThat("Due entry must be removed", wheel.size(), is(0));
+  }
+
+  @DisplayName("Entries occupy a single slot.")
+  @Test
+  void testSchedule() {
+    TimingWheel<String> wheel = new TimingWheel<>(SPAN, 0L);
+    var entry = entry("key", SPAN);
+    wheel.schedule(entry);
+    wheel.schedule(entry);
+
+    assertThat("Entry must be scheduled once", wheel.size(), is(1));
+
+    wheel.unschedule(entry);
+    wheel.unschedule(entry);
+
+    assertThat("Entry must be unscheduled", wheel.size(), is(0));
+    assertThat("Unscheduled entry must not be due", advance(wheel, SPAN), is(empty()));
+  }
+
+  @DisplayName("Extended deadlines are respected without rescheduling.")
+  @Test
+  void testExtend() {
+    TimingWheel<String> wheel = new TimingWheel<>(SPAN, 0L);
+    var entry = entry("key", SPAN);
+    wheel.schedule(entry);
+    entry.deadline = SPAN + SPAN / 2;
+
+    assertThat("Extended entry must not be due", advance(wheel, SPAN), is(empty()));
+    assertThat("Extended entry must remain scheduled", wheel.size(), is(1));
+    assertThat("Extended entry must be due", advance(wheel, SPAN + SPAN / 2), contains(entry));
+  }
+
+  @DisplayName("Overdue entries are due on the next advance.")
+  @Test
+  void testOverdue() {
+    TimingWheel<String> wheel = new TimingWheel<>(SPAN, SPAN);
+    var entry = entry("key", 0L);
+    wheel.schedule(entry);
+
+    assertThat("Overdue entry must be due", advance(wheel, SPAN), contains(entry));
+  }
+
+  @DisplayName("Entries are due after advancing past multiple rotations.")
+  @Test
+  void testRotations() {
+    TimingWheel<String> wheel = new TimingWheel<>(SPAN, 0L);
+    var first = entry("first", 1_000L);
+    var second = entry("second", SPAN);
+    wheel.schedule(first);
+    wheel.schedule(second);
+
+    assertThat("All entries must be due", advance(wheel, 100 * SPAN).size(), is(2));
+    assertThat("Due entries must be removed", wheel.size(), is(0));
+  }
+
+}